@@ -0,0 +1,38 @@
+package com.example.hotelreservations.loadtest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Verifica, depois da carga, que nenhuma noite ficou com duas reservas ativas.
+ * As duas pontas do intervalo contam como ocupadas, como no serviço.
+ */
+public final class DoubleBookingCheck {
+
+    private DoubleBookingCheck() {
+    }
+
+    public static List<String> findOverlaps(List<ReservationRecord> reservations) {
+        List<ReservationRecord> active = new ArrayList<>();
+        for (ReservationRecord reservation : reservations) {
+            if (reservation.isActive()) {
+                active.add(reservation);
+            }
+        }
+        active.sort(Comparator.comparing(ReservationRecord::getDataInicio).thenComparing(ReservationRecord::getId));
+
+        List<String> overlaps = new ArrayList<>();
+        ReservationRecord latestEnding = null;
+        for (ReservationRecord current : active) {
+            if (latestEnding != null && !current.getDataInicio().isAfter(latestEnding.getDataFim())) {
+                overlaps.add("Reservas " + latestEnding.getId() + " (" + latestEnding.getDataInicio() + " a " + latestEnding.getDataFim()
+                        + ") e " + current.getId() + " (" + current.getDataInicio() + " a " + current.getDataFim() + ") ocupam a mesma noite");
+            }
+            if (latestEnding == null || current.getDataFim().isAfter(latestEnding.getDataFim())) {
+                latestEnding = current;
+            }
+        }
+        return overlaps;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.hotelreservations.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga contra uma instância real da API (por padrão em http://localhost:8080).
+ * <p>
+ * Semeia reservas, aquece, mede pelo tempo pedido e imprime vazão e p50/p99/p99.9 por endpoint,
+ * gravando a distribuição completa de cada um em {@code <output>/<operação>.hgrm}. No fim baixa todas
+ * as reservas e confere que nenhuma noite ficou com duas reservas ativas.
+ * <p>
+ * Com {@code --rate} a carga é em laço aberto: cada cliente tem horários de disparo fixos e a latência
+ * é medida a partir do horário previsto, para que uma resposta lenta não esconda as que ficaram
+ * esperando atrás dela. Sem {@code --rate}, cada cliente dispara assim que recebe a resposta anterior.
+ * <p>
+ * Códigos de saída: 0 sucesso, 1 reserva duplicada ou erro de servidor, 2 opções inválidas ou API fora do ar.
+ */
+public class LoadTest {
+
+    private final LoadTestOptions options;
+    private final ReservationApi api;
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.api = new ReservationApi(options.getBaseUrl());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: --url <url> --clients <n> --warmup <10s> --duration <60s> --rate <req/s> "
+                    + "--seed-reservations <n> --window-days <n> --random-seed <n> --output <dir>");
+            System.exit(2);
+            return;
+        }
+        System.exit(new LoadTest(options).run());
+    }
+
+    public int run() throws Exception {
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        try {
+            api.availability(firstDay, firstDay);
+        } catch (IOException e) {
+            System.err.println("A API não respondeu em " + options.getBaseUrl() + ": " + e.getMessage());
+            return 2;
+        }
+
+        SplittableRandom random = new SplittableRandom(options.getRandomSeed());
+        Workload workload = new Workload(api, firstDay, options.getWindowDays());
+        workload.seed(options.getSeedReservations(), random.split());
+
+        if (!options.getWarmup().isZero()) {
+            runPhase(workload, options.getWarmup(), OperationStats.forAllOperations(), random);
+        }
+        Map<Operation, OperationStats> stats = OperationStats.forAllOperations();
+        long elapsedNanos = runPhase(workload, options.getDuration(), stats, random);
+
+        long errors = report(stats, elapsedNanos);
+        writeHistograms(stats);
+
+        List<ReservationRecord> reservations = api.streamAll();
+        List<String> overlaps = DoubleBookingCheck.findOverlaps(reservations);
+        System.out.printf(Locale.ROOT, "%nAuditoria: %d reservas, %d sobreposições entre reservas ativas%n", reservations.size(), overlaps.size());
+        overlaps.stream().limit(20).forEach(overlap -> System.out.println("  " + overlap));
+
+        return overlaps.isEmpty() && errors == 0 ? 0 : 1;
+    }
+
+    private long runPhase(Workload workload, Duration duration, Map<Operation, OperationStats> stats, SplittableRandom random)
+            throws Exception {
+        int clients = options.getClients();
+        long intervalNanos = options.getRate() > 0 ? (long) (clients * 1_000_000_000.0 / options.getRate()) : 0;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+        long begin = System.nanoTime();
+        long deadline = begin + duration.toNanos();
+
+        for (int c = 0; c < clients; c++) {
+            SplittableRandom clientRandom = random.split();
+            // Espalha o primeiro disparo dos clientes ao longo de um intervalo
+            long firstStart = begin + (intervalNanos * c) / clients;
+            futures.add(executor.submit(() -> {
+                long nextStart = firstStart;
+                while (!Thread.currentThread().isInterrupted()) {
+                    long start;
+                    if (intervalNanos > 0) {
+                        long wait = nextStart - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        start = nextStart;
+                        nextStart += intervalNanos;
+                    } else {
+                        start = System.nanoTime();
+                    }
+                    if (start >= deadline) {
+                        break;
+                    }
+                    workload.execute(Operation.pick(clientRandom), clientRandom, stats, start);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return System.nanoTime() - begin;
+    }
+
+    private long report(Map<Operation, OperationStats> stats, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long totalRequests = 0;
+        long totalErrors = 0;
+        System.out.printf(Locale.ROOT, "%n%-32s %8s %9s %9s %9s %9s %9s %7s %7s %6s%n",
+                "Operação", "req", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "2xx", "4xx", "erros");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().getHistogram();
+            long count = histogram.getTotalCount();
+            totalRequests += count;
+            totalErrors += entry.getValue().getErrors();
+            System.out.printf(Locale.ROOT, "%-32s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %7d %6d%n",
+                    entry.getKey().getLabel(), count, count / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()),
+                    entry.getValue().getSuccesses(), entry.getValue().getRejections(), entry.getValue().getErrors());
+        }
+        System.out.printf(Locale.ROOT, "%nTotal: %d requisições em %.1f s (%.1f req/s), %d erros%n",
+                totalRequests, seconds, totalRequests / seconds, totalErrors);
+        return totalErrors;
+    }
+
+    private void writeHistograms(Map<Operation, OperationStats> stats) throws IOException {
+        Files.createDirectories(options.getOutput());
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Path file = options.getOutput().resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // Histogramas em microssegundos; o arquivo sai em milissegundos
+                entry.getValue().getHistogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Distribuições gravadas em " + options.getOutput().toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.hotelreservations.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Opções de linha de comando no formato {@code --nome valor}.
+ */
+public class LoadTestOptions {
+
+    private URI baseUrl = URI.create("http://localhost:8080");
+    private int clients = 32;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    // Requisições por segundo somando todos os clientes; 0 = laço fechado, cada cliente dispara assim que recebe a resposta
+    private double rate;
+    private int seedReservations = 200;
+    private int windowDays = 365;
+    private long randomSeed = 42;
+    private Path output = Path.of("target", "loadtest");
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Opção sem valor: " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--url" -> options.baseUrl = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+                case "--clients" -> options.clients = Integer.parseInt(value);
+                case "--warmup" -> options.warmup = parseDuration(value);
+                case "--duration" -> options.duration = parseDuration(value);
+                case "--rate" -> options.rate = Double.parseDouble(value);
+                case "--seed-reservations" -> options.seedReservations = Integer.parseInt(value);
+                case "--window-days" -> options.windowDays = Integer.parseInt(value);
+                case "--random-seed" -> options.randomSeed = Long.parseLong(value);
+                case "--output" -> options.output = Path.of(value);
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        if (options.clients < 1 || options.windowDays < 31) {
+            throw new IllegalArgumentException("--clients deve ser >= 1 e --window-days >= 31");
+        }
+        return options;
+    }
+
+    // Aceita 500ms, 30s, 5m ou o formato ISO-8601 (PT30S)
+    static Duration parseDuration(String value) {
+        if (value.startsWith("PT")) {
+            return Duration.parse(value);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Duração inválida: " + value);
+        };
+    }
+
+    public URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getSeedReservations() {
+        return seedReservations;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+}
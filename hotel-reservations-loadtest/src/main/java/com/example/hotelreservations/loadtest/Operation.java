@@ -0,0 +1,49 @@
+package com.example.hotelreservations.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Operações do mix de carga e seus pesos: a maior parte é leitura, com algumas escritas e
+ * reservas propositalmente conflitantes com datas já ocupadas.
+ */
+public enum Operation {
+    AVAILABILITY("GET /reservas/disponibilidade", 45),
+    GET_BY_ID("GET /reservas/{id}", 30),
+    CREATE("POST /reservas", 12),
+    CONFLICTING_CREATE("POST /reservas (conflito)", 5),
+    UPDATE("PUT /reservas/{id}", 5),
+    CANCEL("DELETE /reservas/{id}/cancelar", 3);
+
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (Operation operation : values()) {
+            total += operation.weight;
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    private final String label;
+    private final int weight;
+
+    Operation(String label, int weight) {
+        this.label = label;
+        this.weight = weight;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Operation pick(SplittableRandom random) {
+        int ticket = random.nextInt(TOTAL_WEIGHT);
+        for (Operation operation : values()) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
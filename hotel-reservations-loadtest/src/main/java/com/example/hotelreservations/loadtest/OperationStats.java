@@ -0,0 +1,62 @@
+package com.example.hotelreservations.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (em microssegundos) e contagem de respostas de uma operação.
+ * 2xx contam como sucesso, 4xx como recusa esperada (conflito, reserva cancelada) e o resto como erro.
+ */
+public class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public static Map<Operation, OperationStats> forAllOperations() {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        return stats;
+    }
+
+    public void record(long latencyNanos, int status) {
+        histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, latencyNanos / 1_000)));
+        if (status >= 200 && status < 300) {
+            successes.increment();
+        } else if (status >= 400 && status < 500) {
+            rejections.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    public void recordFailure(long latencyNanos) {
+        record(latencyNanos, -1);
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.hotelreservations.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Cliente HTTP mínimo para os endpoints de {@code /reservas}.
+ */
+public class ReservationApi {
+
+    private final URI baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    public ReservationApi(URI baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+
+    public HttpResponse<String> availability(LocalDate from, LocalDate to) throws IOException, InterruptedException {
+        return send(request("/reservas/disponibilidade?from=" + from + "&to=" + to).GET());
+    }
+
+    public HttpResponse<String> getById(Integer id) throws IOException, InterruptedException {
+        return send(request("/reservas/" + id).GET());
+    }
+
+    public HttpResponse<String> create(ReservationRecord reservation) throws IOException, InterruptedException {
+        return send(request("/reservas").header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(toDTO(reservation)))));
+    }
+
+    public HttpResponse<String> update(ReservationRecord reservation) throws IOException, InterruptedException {
+        return send(request("/reservas/" + reservation.getId()).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(toDTO(reservation)))));
+    }
+
+    public HttpResponse<String> cancel(Integer id) throws IOException, InterruptedException {
+        return send(request("/reservas/" + id + "/cancelar").DELETE());
+    }
+
+    public ReservationRecord read(String json) throws IOException {
+        return objectMapper.readValue(json, ReservationRecord.class);
+    }
+
+    // Todas as reservas pelo modo NDJSON, sem paginação
+    public List<ReservationRecord> streamAll() throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = httpClient.send(request("/reservas").header("Accept", "application/x-ndjson").GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET /reservas (NDJSON) respondeu " + response.statusCode());
+        }
+        List<ReservationRecord> reservations = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    reservations.add(read(line));
+                }
+            }
+        }
+        return reservations;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // O corpo aceito pela API não leva id
+    private static ReservationRecord toDTO(ReservationRecord reservation) {
+        return new ReservationRecord(null, reservation.getNomeHospede(), reservation.getDataInicio(), reservation.getDataFim(),
+                reservation.getQuantidadePessoas(), reservation.getStatus());
+    }
+}
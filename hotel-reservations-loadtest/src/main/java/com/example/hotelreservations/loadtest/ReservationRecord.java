@@ -0,0 +1,80 @@
+package com.example.hotelreservations.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDate;
+
+// Reserva como a API devolve; campos extras da resposta são ignorados
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ReservationRecord {
+    private Integer id;
+    private String nomeHospede;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private int quantidadePessoas;
+    private String status;
+
+    public ReservationRecord(Integer id, String nomeHospede, LocalDate dataInicio, LocalDate dataFim, int quantidadePessoas, String status) {
+        this.id = id;
+        this.nomeHospede = nomeHospede;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.quantidadePessoas = quantidadePessoas;
+        this.status = status;
+    }
+
+    public ReservationRecord() {
+    }
+
+    public boolean isActive() {
+        return "CONFIRMADA".equals(status) || "PENDENTE".equals(status);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getNomeHospede() {
+        return nomeHospede;
+    }
+
+    public void setNomeHospede(String nomeHospede) {
+        this.nomeHospede = nomeHospede;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public int getQuantidadePessoas() {
+        return quantidadePessoas;
+    }
+
+    public void setQuantidadePessoas(int quantidadePessoas) {
+        this.quantidadePessoas = quantidadePessoas;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
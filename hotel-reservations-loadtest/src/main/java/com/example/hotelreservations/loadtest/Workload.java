@@ -0,0 +1,98 @@
+package com.example.hotelreservations.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Executa as operações do mix. As reservas criadas com sucesso entram num anel das mais recentes,
+ * de onde saem os alvos de leitura, atualização, cancelamento e das reservas conflitantes.
+ */
+public class Workload {
+
+    private static final int RECENT_SIZE = 4096;
+    private static final int CALENDAR_DAYS = 30;
+
+    private final ReservationApi api;
+    private final LocalDate firstDay;
+    private final int windowDays;
+    private final AtomicReferenceArray<ReservationRecord> recent = new AtomicReferenceArray<>(RECENT_SIZE);
+    private final AtomicLong created = new AtomicLong();
+
+    public Workload(ReservationApi api, LocalDate firstDay, int windowDays) {
+        this.api = api;
+        this.firstDay = firstDay;
+        this.windowDays = windowDays;
+    }
+
+    // Popula a base antes da medição para que leituras e conflitos tenham alvo desde o início
+    public void seed(int reservations, SplittableRandom random) throws IOException, InterruptedException {
+        for (int i = 0; i < reservations; i++) {
+            ReservationRecord reservation = randomReservation(random);
+            HttpResponse<String> response = api.create(reservation);
+            if (response.statusCode() == 201) {
+                remember(api.read(response.body()));
+            }
+        }
+    }
+
+    public void execute(Operation operation, SplittableRandom random, Map<Operation, OperationStats> stats, long startNanos) {
+        int index = pickRecentIndex(random);
+        ReservationRecord target = index < 0 ? null : recent.get(index);
+        if (target == null && operation != Operation.AVAILABILITY) {
+            operation = Operation.CREATE;
+        }
+        if ((operation == Operation.UPDATE || operation == Operation.CANCEL || operation == Operation.CONFLICTING_CREATE)
+                && !target.isActive()) {
+            operation = Operation.GET_BY_ID;
+        }
+
+        OperationStats operationStats = stats.get(operation);
+        try {
+            HttpResponse<String> response = switch (operation) {
+                case AVAILABILITY -> {
+                    LocalDate from = firstDay.plusDays(random.nextInt(windowDays - CALENDAR_DAYS));
+                    yield api.availability(from, from.plusDays(CALENDAR_DAYS - 1));
+                }
+                case GET_BY_ID -> api.getById(target.getId());
+                case CREATE -> api.create(randomReservation(random));
+                case CONFLICTING_CREATE -> api.create(new ReservationRecord(null, "Conflito", target.getDataInicio(),
+                        target.getDataFim(), 2, "CONFIRMADA"));
+                case UPDATE -> api.update(new ReservationRecord(target.getId(), target.getNomeHospede(), target.getDataInicio(),
+                        target.getDataFim(), 1 + random.nextInt(6), target.getStatus()));
+                case CANCEL -> api.cancel(target.getId());
+            };
+            operationStats.record(System.nanoTime() - startNanos, response.statusCode());
+
+            if (operation == Operation.CREATE && response.statusCode() == 201) {
+                remember(api.read(response.body()));
+            } else if (operation == Operation.CANCEL && response.statusCode() == 200) {
+                recent.compareAndSet(index, target, api.read(response.body()));
+            }
+        } catch (IOException e) {
+            operationStats.recordFailure(System.nanoTime() - startNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ReservationRecord randomReservation(SplittableRandom random) {
+        LocalDate start = firstDay.plusDays(random.nextInt(windowDays));
+        return new ReservationRecord(null, "Hospede " + random.nextInt(100_000), start, start.plusDays(random.nextInt(5)),
+                1 + random.nextInt(6), random.nextInt(4) == 0 ? "PENDENTE" : "CONFIRMADA");
+    }
+
+    private void remember(ReservationRecord reservation) {
+        long position = created.getAndIncrement();
+        recent.set((int) (position % RECENT_SIZE), reservation);
+    }
+
+    private int pickRecentIndex(SplittableRandom random) {
+        long filled = Math.min(created.get(), RECENT_SIZE);
+        return filled == 0 ? -1 : random.nextInt((int) filled);
+    }
+}
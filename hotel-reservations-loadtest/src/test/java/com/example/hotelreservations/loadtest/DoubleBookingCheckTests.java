@@ -0,0 +1,54 @@
+package com.example.hotelreservations.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DoubleBookingCheckTests {
+
+    private final LocalDate base = LocalDate.of(2030, 1, 10);
+
+    @Test
+    public void testAdjacentAndCancelledReservationsAreNotOverlaps() {
+        List<ReservationRecord> reservations = List.of(
+                new ReservationRecord(1, "Joao", base, base.plusDays(2), 2, "CONFIRMADA"),
+                new ReservationRecord(2, "Maria", base.plusDays(3), base.plusDays(5), 2, "PENDENTE"),
+                new ReservationRecord(3, "Ana", base.plusDays(1), base.plusDays(4), 2, "CANCELADA")
+        );
+
+        assertTrue(DoubleBookingCheck.findOverlaps(reservations).isEmpty());
+    }
+
+    @Test
+    public void testSharedBoundaryNightIsAnOverlap() {
+        List<ReservationRecord> reservations = List.of(
+                new ReservationRecord(1, "Joao", base, base.plusDays(2), 2, "CONFIRMADA"),
+                new ReservationRecord(2, "Maria", base.plusDays(2), base.plusDays(5), 2, "CONFIRMADA")
+        );
+
+        assertEquals(1, DoubleBookingCheck.findOverlaps(reservations).size());
+    }
+
+    @Test
+    public void testOverlapWithLongerEarlierReservationIsFound() {
+        List<ReservationRecord> reservations = List.of(
+                new ReservationRecord(1, "Joao", base, base.plusDays(20), 2, "CONFIRMADA"),
+                new ReservationRecord(2, "Maria", base.plusDays(2), base.plusDays(3), 2, "PENDENTE"),
+                new ReservationRecord(3, "Ana", base.plusDays(10), base.plusDays(12), 2, "CONFIRMADA")
+        );
+
+        assertEquals(2, DoubleBookingCheck.findOverlaps(reservations).size());
+    }
+
+    @Test
+    public void testParseDurations() {
+        assertEquals(500, LoadTestOptions.parseDuration("500ms").toMillis());
+        assertEquals(30, LoadTestOptions.parseDuration("30s").toSeconds());
+        assertEquals(5, LoadTestOptions.parseDuration("5m").toMinutes());
+        assertEquals(45, LoadTestOptions.parseDuration("PT45S").toSeconds());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.hotelreservations.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class HotelReservationsReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(HotelReservationsReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,181 @@
+package com.example.hotelreservations.reactive.controller;
+
+import com.example.hotelreservations.reactive.domain.Reservation;
+import com.example.hotelreservations.reactive.dto.AvailabilityCalendarDTO;
+import com.example.hotelreservations.reactive.dto.BatchReservationResult;
+import com.example.hotelreservations.reactive.dto.ReservationCursor;
+import com.example.hotelreservations.reactive.dto.ReservationDTO;
+import com.example.hotelreservations.reactive.dto.ReservationView;
+import com.example.hotelreservations.reactive.service.ReservationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Mesmo contrato de {@code /reservas} da aplicação servlet: rotas, parâmetros, cabeçalhos de
+ * paginação e corpo de erro.
+ */
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/reservas")
+public class ReservationController {
+
+    // A importação valida o lote inteiro de uma vez, então as linhas ficam todas em memória
+    public static final int MAX_BATCH_LINES = 10_000;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ReservationService reservationService;
+
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Reservation>> createReservation(@RequestBody ReservationDTO reservationDTO,
+                                                               ServerWebExchange exchange) {
+        return reservationService.createReservation(reservationDTO).map(createdReservation -> {
+            URI uri = UriComponentsBuilder.fromHttpRequest(exchange.getRequest())
+                    .path("/{id}")
+                    .buildAndExpand(createdReservation.getId())
+                    .toUri();
+            return ResponseEntity.created(uri).body(createdReservation);
+        });
+    }
+
+    // JSON (lista) ou NDJSON (um objeto por linha): o WebFlux decodifica os dois para o mesmo Flux
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<List<BatchReservationResult>>> importReservations(@RequestBody Flux<ReservationDTO> reservationDTOs) {
+        // O corpo deixa de ser lido assim que passa do limite
+        return reservationDTOs.take(MAX_BATCH_LINES + 1L).collectList()
+                .flatMapMany(rows -> rows.size() > MAX_BATCH_LINES
+                        ? Flux.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                "A importação aceita no máximo " + MAX_BATCH_LINES + " reservas por requisição."))
+                        : reservationService.importReservations(rows))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<ReservationView>>> getAllReservations(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            ServerWebExchange exchange
+    ) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return Mono.defer(() -> {
+                    ReservationCursor cursor = after == null || after.isBlank() ? null : ReservationCursor.decode(after);
+                    return reservationService.getReservations(cursor, pageSize);
+                })
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        String nextCursor = page.getNextCursor().encode();
+                        URI next = UriComponentsBuilder.fromHttpRequest(exchange.getRequest())
+                                .replaceQueryParam("after", nextCursor)
+                                .replaceQueryParam("limit", pageSize)
+                                .build()
+                                .toUri();
+                        response.header("X-Next-Cursor", nextCursor)
+                                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                    }
+                    return response.body(page.getContent());
+                });
+    }
+
+    // Modo opcional: todas as reservas em NDJSON, escritas à medida que chegam do banco
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReservationView> streamAllReservations() {
+        return reservationService.streamAllReservations();
+    }
+
+    @GetMapping("/disponibilidade")
+    public Mono<ResponseEntity<AvailabilityCalendarDTO>> getAvailabilityCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return reservationService.getAvailabilityCalendar(from, to).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Reservation>> getReservationById(@PathVariable Integer id) {
+        return reservationService.getReservationById(id).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/confirmadas")
+    public Mono<ResponseEntity<List<ReservationView>>> getConfirmedReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            ServerWebExchange exchange
+    ) {
+        return getReservationsByStatus(ReservationStatus.CONFIRMADA, from, to, page, size, exchange);
+    }
+
+    @GetMapping("/pendentes")
+    public Mono<ResponseEntity<List<ReservationView>>> getPendingReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            ServerWebExchange exchange
+    ) {
+        return getReservationsByStatus(ReservationStatus.PENDENTE, from, to, page, size, exchange);
+    }
+
+    @GetMapping("/canceladas")
+    public Mono<ResponseEntity<List<ReservationView>>> getCancelledReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            ServerWebExchange exchange
+    ) {
+        return getReservationsByStatus(ReservationStatus.CANCELADA, from, to, page, size, exchange);
+    }
+
+    private Mono<ResponseEntity<List<ReservationView>>> getReservationsByStatus(
+            ReservationStatus status, LocalDate from, LocalDate to, int page, int size, ServerWebExchange exchange) {
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return reservationService.findReservationsByStatus(status, from, to, pageNumber, pageSize).map(reservations -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (reservations.hasNext()) {
+                URI next = UriComponentsBuilder.fromHttpRequest(exchange.getRequest())
+                        .replaceQueryParam("page", pageNumber + 1)
+                        .replaceQueryParam("size", pageSize)
+                        .build()
+                        .toUri();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.body(reservations.getContent());
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Reservation>> updateReservation(
+            @PathVariable Integer id,
+            @RequestBody ReservationDTO reservationDTO
+    ) {
+        return reservationService.updateReservation(id, reservationDTO).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}/cancelar")
+    public Mono<ResponseEntity<Reservation>> cancelReservation(@PathVariable Integer id) {
+        return reservationService.cancelReservation(id).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.hotelreservations.reactive.controller;
+
+public enum ReservationStatus {
+    CONFIRMADA,
+    PENDENTE,
+    CANCELADA
+}
@@ -0,0 +1,87 @@
+package com.example.hotelreservations.reactive.controller.exceptions;
+
+import com.example.hotelreservations.reactive.service.exceptions.*;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.LocalDateTime;
+
+@ControllerAdvice
+public class ControllerHandler {
+
+    @ExceptionHandler(DateIsAlreadyBookedException.class)
+    public ResponseEntity<StandardError> handleDateIsAlreadyBookedException(
+            DateIsAlreadyBookedException e, ServerWebExchange exchange) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ReservationUpdateException.class)
+    public ResponseEntity<StandardError> handleReservationUpdateException(
+            ReservationUpdateException e, ServerWebExchange exchange) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ObjectNotFoundException.class)
+    public ResponseEntity<StandardError> handleObjectNotFoundException(
+            ObjectNotFoundException e, ServerWebExchange exchange) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.NOT_FOUND.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(DateInPastException.class)
+    public ResponseEntity<StandardError> handleDateInPastException(DateInPastException e, ServerWebExchange exchange) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidDateRangeException.class)
+    public ResponseEntity<StandardError> handleInvalidDateRangeException(
+            InvalidDateRangeException e, ServerWebExchange exchange) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<StandardError> handleInvalidCursorException(
+            InvalidCursorException e, ServerWebExchange exchange) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<StandardError> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException e, ServerWebExchange exchange) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.CONFLICT.value(),
+                "A reserva foi alterada por outra requisição. Consulte a versão atual e tente novamente.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // Sem conexão livre no pool dentro de spring.r2dbc.pool.max-acquire-time: 503, como no modo virtual threads
+    @ExceptionHandler({DataAccessException.class, CannotCreateTransactionException.class, R2dbcTimeoutException.class})
+    public ResponseEntity<StandardError> handleConnectionUnavailable(Exception e, ServerWebExchange exchange) throws Exception {
+        if (!isConnectionAcquisitionTimeout(e)) {
+            throw e;
+        }
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servidor sem conexões disponíveis no momento. Tente novamente.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(error);
+    }
+
+    private static boolean isConnectionAcquisitionTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.hotelreservations.reactive.domain;
+
+import com.example.hotelreservations.reactive.controller.ReservationStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Mesma tabela {@code reservation} da aplicação servlet. O id vem da {@code reservation_seq}
+ * pelo {@link com.example.hotelreservations.reactive.service.ReservationIdAllocator}, então a
+ * inserção é sempre explícita e o {@code save} do repositório só é usado para atualizar.
+ */
+@Table("reservation")
+public class Reservation {
+
+    // Unidade padrão criada pela migração V5; esta variante só reserva nela
+    public static final int DEFAULT_UNIT_ID = 1;
+
+    @Id
+    private Integer id;
+
+    private String nomeHospede;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private Integer quantidadePessoas;
+    private ReservationStatus status;
+    private Integer unidadeId = DEFAULT_UNIT_ID;
+
+    // Mesma coluna de versão da aplicação servlet: o save falha se outro nó alterou a linha antes
+    @Version
+    private Integer version;
+
+    public Reservation(Integer id, String nomeHospede, LocalDate dataInicio, LocalDate dataFim, Integer quantidadePessoas, ReservationStatus status) {
+        this.id = id;
+        this.nomeHospede = nomeHospede;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.quantidadePessoas = quantidadePessoas;
+        this.status = status;
+    }
+
+    public Reservation() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getNomeHospede() {
+        return nomeHospede;
+    }
+
+    public void setNomeHospede(String nomeHospede) {
+        this.nomeHospede = nomeHospede;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public Integer getQuantidadePessoas() {
+        return quantidadePessoas;
+    }
+
+    public void setQuantidadePessoas(Integer quantidadePessoas) {
+        this.quantidadePessoas = quantidadePessoas;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public Integer getUnidadeId() {
+        return unidadeId;
+    }
+
+    public void setUnidadeId(Integer unidadeId) {
+        this.unidadeId = unidadeId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.hotelreservations.reactive.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class AvailabilityCalendarDTO {
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private List<DateRangeDTO> ocupados;
+    private List<DateRangeDTO> livres;
+
+    public AvailabilityCalendarDTO(LocalDate dataInicio, LocalDate dataFim, List<DateRangeDTO> ocupados, List<DateRangeDTO> livres) {
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.ocupados = ocupados;
+        this.livres = livres;
+    }
+
+    public AvailabilityCalendarDTO() {
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public List<DateRangeDTO> getOcupados() {
+        return ocupados;
+    }
+
+    public void setOcupados(List<DateRangeDTO> ocupados) {
+        this.ocupados = ocupados;
+    }
+
+    public List<DateRangeDTO> getLivres() {
+        return livres;
+    }
+
+    public void setLivres(List<DateRangeDTO> livres) {
+        this.livres = livres;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.hotelreservations.reactive.dto;
+
+import java.time.LocalDate;
+
+// Intervalo de dias com as duas pontas inclusivas
+public class DateRangeDTO {
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+
+    public DateRangeDTO(LocalDate dataInicio, LocalDate dataFim) {
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+    }
+
+    public DateRangeDTO() {
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.hotelreservations.reactive.dto;
+
+import com.example.hotelreservations.reactive.service.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Posição na listagem ordenada por (dataInicio, id). É enviada ao cliente como um token
+ * opaco em base64url para que o formato possa mudar sem quebrar integrações.
+ */
+public class ReservationCursor {
+    private final LocalDate dataInicio;
+    private final Integer id;
+
+    public ReservationCursor(LocalDate dataInicio, Integer id) {
+        this.dataInicio = dataInicio;
+        this.id = id;
+    }
+
+    public static ReservationCursor after(ReservationView reservation) {
+        return new ReservationCursor(reservation.getDataInicio(), reservation.getId());
+    }
+
+    public static ReservationCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            return new ReservationCursor(LocalDate.parse(decoded.substring(0, separator)),
+                    Integer.valueOf(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Cursor de paginação inválido: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = dataInicio + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+}
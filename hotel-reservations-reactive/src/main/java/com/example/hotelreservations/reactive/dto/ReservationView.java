@@ -0,0 +1,52 @@
+package com.example.hotelreservations.reactive.dto;
+
+import com.example.hotelreservations.reactive.controller.ReservationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção somente leitura de uma reserva, usada nas listagens. As consultas de listagem mapeiam
+ * as colunas direto nela, sem passar pela entidade. O JSON é o mesmo da entidade.
+ */
+public class ReservationView {
+    private final Integer id;
+    private final String nomeHospede;
+    private final LocalDate dataInicio;
+    private final LocalDate dataFim;
+    private final Integer quantidadePessoas;
+    private final ReservationStatus status;
+
+    public ReservationView(Integer id, String nomeHospede, LocalDate dataInicio, LocalDate dataFim,
+                           Integer quantidadePessoas, ReservationStatus status) {
+        this.id = id;
+        this.nomeHospede = nomeHospede;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.quantidadePessoas = quantidadePessoas;
+        this.status = status;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getNomeHospede() {
+        return nomeHospede;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public Integer getQuantidadePessoas() {
+        return quantidadePessoas;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.hotelreservations.reactive.repository;
+
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Noites ocupadas em {@code reservation_night}. A chave primária (unidade, noite) é o que impede reserva
+ * dupla: duas transações concorrentes podem passar pela checagem, mas só uma grava as noites.
+ */
+@Repository
+public class ReservationNightRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReservationNightRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Boolean> existsBetween(Integer unitId, LocalDate startDate, LocalDate endDate) {
+        return databaseClient.sql("SELECT COUNT(*) FROM reservation_night WHERE unidade_id = :unitId AND night BETWEEN :startDate AND :endDate")
+                .bind("unitId", unitId)
+                .bind("startDate", startDate)
+                .bind("endDate", endDate)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(count -> count > 0);
+    }
+
+    // Um INSERT com um conjunto de parâmetros por noite, enviado de uma vez pela conexão
+    public Mono<Void> insertAll(Integer unitId, Integer reservationId, LocalDate startDate, LocalDate endDate) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement("INSERT INTO reservation_night (unidade_id, night, reservation_id) VALUES ($1, $2, $3)");
+            for (LocalDate night = startDate; !night.isAfter(endDate); night = night.plusDays(1)) {
+                if (night.isAfter(startDate)) {
+                    statement.add();
+                }
+                statement.bind(0, unitId).bind(1, night).bind(2, reservationId);
+            }
+            return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated());
+        }).then();
+    }
+
+    public Mono<Void> deleteByReservationId(Integer reservationId) {
+        return databaseClient.sql("DELETE FROM reservation_night WHERE reservation_id = :reservationId")
+                .bind("reservationId", reservationId)
+                .then();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.hotelreservations.reactive.repository;
+
+import com.example.hotelreservations.reactive.domain.Reservation;
+import com.example.hotelreservations.reactive.dto.ReservationView;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ReservationRepository extends R2dbcRepository<Reservation, Integer> {
+    String SELECT_VIEW = "SELECT id, nome_hospede, data_inicio, data_fim, quantidade_pessoas, status FROM reservation";
+
+    // Bloco de ids no formato pooled-lo do Hibernate, para conviver com a aplicação servlet no mesmo banco
+    @Query("SELECT nextval('reservation_seq')")
+    Mono<Long> nextIdBlock();
+
+    // Contador de alterações da unidade padrão, a única em que a variante reativa reserva; a soma dos
+    // contadores das unidades é o ETag das listagens da aplicação servlet
+    @Modifying
+    @Query("UPDATE reservation_change_counter SET counter = counter + 1 WHERE id = 1")
+    Mono<Integer> incrementChangeCounter();
+
+    // Grava na reserva o contador já incrementado, para a aplicação servlet reler só as reservas alteradas
+    @Modifying
+    @Query("UPDATE reservation SET change_counter = (SELECT counter FROM reservation_change_counter WHERE id = 1) WHERE id = :id")
+    Mono<Integer> stampChangeCounter(Integer id);
+
+    // Mesmo outbox da aplicação servlet, entregue pelo relay dela. O id é o próximo valor da outbox_event_seq,
+    // que avança de um em um como no servlet, para a ordem de id seguir a de gravação. A partição segue
+    // OutboxEvent.PARTITIONS (16)
+    @Modifying
+    @Query("INSERT INTO outbox_event (id, event_type, reservation_id, partition_key, payload, created_at)" +
+            " VALUES (nextval('outbox_event_seq'), :eventType, :reservationId, MOD(:reservationId, 16), :payload, CURRENT_TIMESTAMP)")
+    Mono<Integer> insertOutboxEvent(String eventType, Integer reservationId, String payload);
+
+    @Query(SELECT_VIEW + " ORDER BY data_inicio, id LIMIT :limit")
+    Flux<ReservationView> findFirstPage(int limit);
+
+    @Query(SELECT_VIEW + " WHERE data_inicio > :dataInicio OR (data_inicio = :dataInicio AND id > :id) ORDER BY data_inicio, id LIMIT :limit")
+    Flux<ReservationView> findPageAfter(LocalDate dataInicio, Integer id, int limit);
+
+    // Uma consulta por forma da janela em data_inicio: com "(:from IS NULL OR ...)" o plano não usa o índice (status, data_inicio)
+    @Query(SELECT_VIEW + " WHERE status = :status ORDER BY data_inicio, id LIMIT :limit OFFSET :offset")
+    Flux<ReservationView> findByStatus(String status, int limit, long offset);
+
+    @Query(SELECT_VIEW + " WHERE status = :status AND data_inicio >= :from ORDER BY data_inicio, id LIMIT :limit OFFSET :offset")
+    Flux<ReservationView> findByStatusStartingFrom(String status, LocalDate from, int limit, long offset);
+
+    @Query(SELECT_VIEW + " WHERE status = :status AND data_inicio <= :to ORDER BY data_inicio, id LIMIT :limit OFFSET :offset")
+    Flux<ReservationView> findByStatusStartingUntil(String status, LocalDate to, int limit, long offset);
+
+    @Query(SELECT_VIEW + " WHERE status = :status AND data_inicio BETWEEN :from AND :to ORDER BY data_inicio, id LIMIT :limit OFFSET :offset")
+    Flux<ReservationView> findByStatusStartingBetween(String status, LocalDate from, LocalDate to, int limit, long offset);
+
+    @Query(SELECT_VIEW + " ORDER BY data_inicio, id")
+    Flux<ReservationView> streamAll();
+
+    @Query("SELECT * FROM reservation WHERE unidade_id = :unitId AND data_inicio <= :endDate AND data_fim >= :startDate" +
+            " AND status IN ('CONFIRMADA', 'PENDENTE') ORDER BY data_inicio")
+    Flux<Reservation> findActiveOverlapping(Integer unitId, LocalDate startDate, LocalDate endDate);
+}
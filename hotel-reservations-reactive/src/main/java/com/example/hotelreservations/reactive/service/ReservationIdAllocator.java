@@ -0,0 +1,42 @@
+package com.example.hotelreservations.reactive.service;
+
+import com.example.hotelreservations.reactive.repository.ReservationRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ids no mesmo esquema da aplicação servlet (otimizador pooled-lo do Hibernate, blocos de 50):
+ * cada valor da sequência reserva o intervalo [valor, valor + 50). Assim as duas variantes podem
+ * gravar no mesmo banco sem colidir, e só uma criação a cada 50 vai até a sequência.
+ */
+@Component
+public class ReservationIdAllocator {
+
+    // Igual ao INCREMENT BY da reservation_seq e ao allocationSize da entidade JPA
+    static final int BLOCK_SIZE = 50;
+
+    private final ReservationRepository reservationRepository;
+
+    private long next;
+    private long limit;
+
+    public ReservationIdAllocator(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    public Mono<Integer> nextId() {
+        synchronized (this) {
+            if (next < limit) {
+                return Mono.just((int) next++);
+            }
+        }
+        // Duas buscas concorrentes só desperdiçam o resto de um bloco; os ids nunca se repetem
+        return reservationRepository.nextIdBlock().map(low -> {
+            synchronized (this) {
+                next = low + 1;
+                limit = low + BLOCK_SIZE;
+            }
+            return low.intValue();
+        });
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.hotelreservations.reactive.service;
+
+import com.example.hotelreservations.reactive.controller.ReservationStatus;
+import com.example.hotelreservations.reactive.domain.Reservation;
+import com.example.hotelreservations.reactive.dto.AvailabilityCalendarDTO;
+import com.example.hotelreservations.reactive.dto.BatchReservationResult;
+import com.example.hotelreservations.reactive.dto.CursorPage;
+import com.example.hotelreservations.reactive.dto.DateRangeDTO;
+import com.example.hotelreservations.reactive.dto.ReservationCursor;
+import com.example.hotelreservations.reactive.dto.ReservationDTO;
+import com.example.hotelreservations.reactive.dto.ReservationView;
+import com.example.hotelreservations.reactive.repository.ReservationNightRepository;
+import com.example.hotelreservations.reactive.repository.ReservationRepository;
+import com.example.hotelreservations.reactive.service.exceptions.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mesmas regras do serviço servlet, sem bloquear a thread em nenhum passo. Não há índice em memória
+ * nem locks da JVM: a checagem lê {@code reservation_night} e a chave primária da tabela decide as
+ * corridas, dentro da transação que grava a reserva.
+ */
+@Service
+public class ReservationService {
+
+    // Status que bloqueiam as datas da reserva
+    public static final Set<ReservationStatus> ACTIVE_STATUSES = EnumSet.of(ReservationStatus.CONFIRMADA, ReservationStatus.PENDENTE);
+
+    public static final int MAX_CALENDAR_DAYS = 1830;
+
+    // Noites de uma estadia; cada noite vira uma linha em reservation_night
+    public static final int MAX_STAY_NIGHTS = 365;
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationNightRepository reservationNightRepository;
+    private final ReservationIdAllocator idAllocator;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectMapper objectMapper;
+
+    public ReservationService(ReservationRepository reservationRepository,
+                              ReservationNightRepository reservationNightRepository,
+                              ReservationIdAllocator idAllocator,
+                              R2dbcEntityTemplate entityTemplate,
+                              TransactionalOperator transactionalOperator,
+                              ObjectMapper objectMapper) {
+        this.reservationRepository = reservationRepository;
+        this.reservationNightRepository = reservationNightRepository;
+        this.idAllocator = idAllocator;
+        this.entityTemplate = entityTemplate;
+        this.transactionalOperator = transactionalOperator;
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<Reservation> createReservation(ReservationDTO reservationDTO) {
+        return Mono.defer(() -> {
+            validateDateRange(reservationDTO.getDataInicio(), reservationDTO.getDataFim());
+            validateDateNotInPast(reservationDTO.getDataInicio(), reservationDTO.getDataFim());
+
+            return ensureAvailable(Reservation.DEFAULT_UNIT_ID, reservationDTO.getDataInicio(), reservationDTO.getDataFim(), "Data indisponível para reserva.")
+                    .then(Mono.defer(idAllocator::nextId))
+                    .flatMap(id -> entityTemplate.insert(new Reservation(id, reservationDTO.getNomeHospede(),
+                            reservationDTO.getDataInicio(), reservationDTO.getDataFim(),
+                            reservationDTO.getQuantidadePessoas(), ReservationStatus.CONFIRMADA)))
+                    .flatMap(savedReservation -> reserveNights(savedReservation, "Data indisponível para reserva."))
+                    .flatMap(savedReservation -> recordChange(savedReservation, "CRIADA"));
+        }).as(transactionalOperator::transactional);
+    }
+
+    /*
+     * Importação em lote: cada linha é uma criação na sua própria transação, em sequência, então
+     * uma linha que conflita com outra já aceita do lote é rejeitada como data indisponível.
+     */
+    public Flux<BatchReservationResult> importReservations(List<ReservationDTO> reservationDTOs) {
+        return Flux.range(0, reservationDTOs.size()).concatMap(index -> {
+            ReservationDTO reservationDTO = reservationDTOs.get(index);
+            if (reservationDTO.getDataInicio() == null || reservationDTO.getDataFim() == null) {
+                return Mono.just(BatchReservationResult.rejected(index, "As datas de início e fim são obrigatórias."));
+            }
+            return createReservation(reservationDTO)
+                    .map(reservation -> BatchReservationResult.created(index, reservation.getId()))
+                    .onErrorResume(e -> e instanceof InvalidDateRangeException || e instanceof DateInPastException
+                                    || e instanceof DateIsAlreadyBookedException,
+                            e -> Mono.just(BatchReservationResult.rejected(index, e.getMessage())));
+        });
+    }
+
+    public Mono<Reservation> updateReservation(Integer id, ReservationDTO reservationDTO) {
+        return getReservationById(id).flatMap(oldReservation -> {
+            ReservationStatus newStatus = reservationDTO.getStatus();
+
+            if (ReservationStatus.CANCELADA.equals(oldReservation.getStatus())) {
+                throw new ReservationUpdateException("Não é possível atualizar uma reserva cancelada.");
+            }
+
+            if (ReservationStatus.CANCELADA.equals(newStatus)) {
+                throw new ReservationUpdateException("Não é possível mudar o status para CANCELADA através desta operação.");
+            }
+
+            LocalDate newStartDate = reservationDTO.getDataInicio();
+            LocalDate newEndDate = reservationDTO.getDataFim();
+
+            validateDateRange(newStartDate, newEndDate);
+            validateDateNotInPast(newStartDate, newEndDate);
+
+            boolean datesChanged = !newStartDate.isEqual(oldReservation.getDataInicio()) || !newEndDate.isEqual(oldReservation.getDataFim());
+            Mono<Void> availabilityCheck = datesChanged
+                    ? ensureAvailable(oldReservation.getUnidadeId(), newStartDate, newEndDate, "Data indisponível para atualização.")
+                    : Mono.empty();
+            return availabilityCheck.then(Mono.defer(() -> applyUpdate(oldReservation, reservationDTO, datesChanged)));
+        }).flatMap(savedReservation -> recordChange(savedReservation, "ATUALIZADA")).as(transactionalOperator::transactional);
+    }
+
+    private Mono<Reservation> applyUpdate(Reservation oldReservation, ReservationDTO reservationDTO, boolean datesChanged) {
+        boolean wasActive = ACTIVE_STATUSES.contains(oldReservation.getStatus());
+
+        oldReservation.setDataInicio(reservationDTO.getDataInicio());
+        oldReservation.setDataFim(reservationDTO.getDataFim());
+        oldReservation.setNomeHospede(reservationDTO.getNomeHospede());
+        oldReservation.setQuantidadePessoas(reservationDTO.getQuantidadePessoas());
+        oldReservation.setStatus(reservationDTO.getStatus());
+
+        return reservationRepository.save(oldReservation).flatMap(savedReservation -> {
+            boolean isActive = ACTIVE_STATUSES.contains(savedReservation.getStatus());
+            if (!datesChanged && wasActive == isActive) {
+                return Mono.just(savedReservation);
+            }
+            return reservationNightRepository.deleteByReservationId(savedReservation.getId())
+                    .then(reserveNights(savedReservation, "Data indisponível para atualização."));
+        });
+    }
+
+    public Mono<CursorPage<ReservationView>> getReservations(ReservationCursor after, int limit) {
+        // Busca um item a mais para saber se existe próxima página sem precisar de COUNT
+        Flux<ReservationView> reservations = after == null
+                ? reservationRepository.findFirstPage(limit + 1)
+                : reservationRepository.findPageAfter(after.getDataInicio(), after.getId(), limit + 1);
+
+        return reservations.collectList().map(rows -> {
+            if (rows.size() <= limit) {
+                return new CursorPage<>(rows, null);
+            }
+            List<ReservationView> page = rows.subList(0, limit);
+            return new CursorPage<>(page, ReservationCursor.after(page.get(limit - 1)));
+        });
+    }
+
+    // Sem paginação: as linhas seguem para a resposta conforme chegam, com a demanda do cliente HTTP
+    public Flux<ReservationView> streamAllReservations() {
+        return reservationRepository.streamAll();
+    }
+
+    public Mono<Reservation> getReservationById(Integer id) {
+        return reservationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ObjectNotFoundException("Reserva não encontrada com o ID: " + id)));
+    }
+
+    public Mono<Slice<ReservationView>> findReservationsByStatus(ReservationStatus status, LocalDate from, LocalDate to, int page, int size) {
+        return Mono.defer(() -> {
+            if (from != null && to != null) {
+                validateDateOrder(from, to);
+            }
+            PageRequest pageRequest = PageRequest.of(page, size);
+            return findByStatus(status.name(), from, to, size + 1, pageRequest.getOffset())
+                    .collectList()
+                    .map(rows -> rows.size() > size
+                            ? new SliceImpl<>(rows.subList(0, size), pageRequest, true)
+                            : new SliceImpl<>(rows, pageRequest, false));
+        });
+    }
+
+    private Flux<ReservationView> findByStatus(String status, LocalDate from, LocalDate to, int limit, long offset) {
+        if (from == null && to == null) {
+            return reservationRepository.findByStatus(status, limit, offset);
+        }
+        if (to == null) {
+            return reservationRepository.findByStatusStartingFrom(status, from, limit, offset);
+        }
+        if (from == null) {
+            return reservationRepository.findByStatusStartingUntil(status, to, limit, offset);
+        }
+        return reservationRepository.findByStatusStartingBetween(status, from, to, limit, offset);
+    }
+
+    public Mono<Reservation> cancelReservation(Integer id) {
+        return getReservationById(id).flatMap(reservation -> {
+            reservation.setStatus(ReservationStatus.CANCELADA);
+            return reservationRepository.save(reservation);
+        }).flatMap(savedReservation -> reservationNightRepository.deleteByReservationId(savedReservation.getId())
+                .thenReturn(savedReservation)
+        ).flatMap(savedReservation -> recordChange(savedReservation, "CANCELADA")).as(transactionalOperator::transactional);
+    }
+
+    // Último passo da transação, depois das noites: a linha do contador fica travada o mínimo possível
+    private Mono<Reservation> recordChange(Reservation reservation, String eventType) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(reservation))
+                .onErrorMap(JsonProcessingException.class,
+                        e -> new IllegalStateException("Não foi possível serializar a reserva " + reservation.getId(), e))
+                .flatMap(payload -> reservationRepository.insertOutboxEvent(eventType, reservation.getId(), payload))
+                .then(reservationRepository.incrementChangeCounter())
+                .then(reservationRepository.stampChangeCounter(reservation.getId()))
+                .thenReturn(reservation);
+    }
+
+    public Mono<AvailabilityCalendarDTO> getAvailabilityCalendar(LocalDate from, LocalDate to) {
+        return Mono.defer(() -> {
+            validateDateOrder(from, to);
+            if (ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+                throw new InvalidDateRangeException("O calendário pode cobrir no máximo " + MAX_CALENDAR_DAYS + " dias.");
+            }
+            return reservationRepository.findActiveOverlapping(Reservation.DEFAULT_UNIT_ID, from, to).collectList()
+                    .map(reservations -> calendar(from, to, occupiedRanges(reservations, from, to)));
+        });
+    }
+
+    public Mono<Boolean> isDateAvailable(LocalDate startDate, LocalDate endDate) {
+        return isDateAvailable(Reservation.DEFAULT_UNIT_ID, startDate, endDate);
+    }
+
+    public Mono<Boolean> isDateAvailable(Integer unitId, LocalDate startDate, LocalDate endDate) {
+        return reservationNightRepository.existsBetween(unitId, startDate, endDate).map(occupied -> !occupied);
+    }
+
+    private Mono<Void> ensureAvailable(Integer unitId, LocalDate startDate, LocalDate endDate, String conflictMessage) {
+        return isDateAvailable(unitId, startDate, endDate).flatMap(available -> available
+                ? Mono.empty()
+                : Mono.error(new DateIsAlreadyBookedException(conflictMessage)));
+    }
+
+    /*
+     * A checagem acima é só um atalho. Duas transações podem passar por ela ao mesmo tempo; a chave
+     * primária de reservation_night faz a segunda falhar aqui, e o rollback desfaz a reserva.
+     */
+    private Mono<Reservation> reserveNights(Reservation reservation, String conflictMessage) {
+        if (!ACTIVE_STATUSES.contains(reservation.getStatus())) {
+            return Mono.just(reservation);
+        }
+        return reservationNightRepository.insertAll(reservation.getUnidadeId(), reservation.getId(), reservation.getDataInicio(), reservation.getDataFim())
+                .onErrorMap(e -> e instanceof DataIntegrityViolationException || e instanceof PessimisticLockingFailureException,
+                        e -> new DateIsAlreadyBookedException(conflictMessage, e))
+                .thenReturn(reservation);
+    }
+
+    private static AvailabilityCalendarDTO calendar(LocalDate from, LocalDate to, List<DateRangeDTO> occupied) {
+        List<DateRangeDTO> free = new ArrayList<>();
+        LocalDate nextFree = from;
+        for (DateRangeDTO range : occupied) {
+            if (range.getDataInicio().isAfter(nextFree)) {
+                free.add(new DateRangeDTO(nextFree, range.getDataInicio().minusDays(1)));
+            }
+            nextFree = range.getDataFim().plusDays(1);
+        }
+        if (!nextFree.isAfter(to)) {
+            free.add(new DateRangeDTO(nextFree, to));
+        }
+        return new AvailabilityCalendarDTO(from, to, occupied, free);
+    }
+
+    // Funde as reservas (ordenadas por dataInicio) em faixas contínuas, recortadas nas bordas
+    private static List<DateRangeDTO> occupiedRanges(List<Reservation> reservations, LocalDate from, LocalDate to) {
+        List<DateRangeDTO> ranges = new ArrayList<>();
+        LocalDate currentStart = null;
+        LocalDate currentEnd = null;
+        for (Reservation reservation : reservations) {
+            LocalDate start = reservation.getDataInicio().isBefore(from) ? from : reservation.getDataInicio();
+            LocalDate end = reservation.getDataFim().isAfter(to) ? to : reservation.getDataFim();
+            if (currentEnd != null && !start.isAfter(currentEnd.plusDays(1))) {
+                currentEnd = end.isAfter(currentEnd) ? end : currentEnd;
+            } else {
+                if (currentStart != null) {
+                    ranges.add(new DateRangeDTO(currentStart, currentEnd));
+                }
+                currentStart = start;
+                currentEnd = end;
+            }
+        }
+        if (currentStart != null) {
+            ranges.add(new DateRangeDTO(currentStart, currentEnd));
+        }
+        return ranges;
+    }
+
+    // Período de uma estadia: datas em ordem e no máximo MAX_STAY_NIGHTS noites
+    private void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        validateDateOrder(startDate, endDate);
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_STAY_NIGHTS) {
+            throw new InvalidDateRangeException("Uma reserva pode cobrir no máximo " + MAX_STAY_NIGHTS + " noites.");
+        }
+    }
+
+    private void validateDateOrder(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidDateRangeException("A data de início da viagem não pode ser posterior à data de fim da viagem.");
+        }
+    }
+
+    private void validateDateNotInPast(LocalDate... dates) {
+        LocalDate currentDate = LocalDate.now();
+        for (LocalDate date : dates) {
+            if (date.isBefore(currentDate)) {
+                throw new DateInPastException("Não é possível adicionar/atualizar reservas com datas no passado.");
+            }
+        }
+    }
+}
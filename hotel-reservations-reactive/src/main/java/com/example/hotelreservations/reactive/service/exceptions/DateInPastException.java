@@ -0,0 +1,11 @@
+package com.example.hotelreservations.reactive.service.exceptions;
+
+public class DateInPastException extends RuntimeException{
+    public DateInPastException(String message) {
+        super(message);
+    }
+
+    public DateInPastException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
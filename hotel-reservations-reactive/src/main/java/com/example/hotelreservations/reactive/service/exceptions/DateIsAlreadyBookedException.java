@@ -0,0 +1,12 @@
+package com.example.hotelreservations.reactive.service.exceptions;
+
+public class DateIsAlreadyBookedException extends RuntimeException {
+    public DateIsAlreadyBookedException(String message) {
+        super(message);
+    }
+
+    public DateIsAlreadyBookedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.example.hotelreservations.reactive.service.exceptions;
+
+public class InvalidDateRangeException extends RuntimeException {
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+
+    public InvalidDateRangeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
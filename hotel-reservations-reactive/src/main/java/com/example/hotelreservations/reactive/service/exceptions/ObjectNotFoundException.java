@@ -0,0 +1,11 @@
+package com.example.hotelreservations.reactive.service.exceptions;
+
+public class ObjectNotFoundException extends RuntimeException {
+    public ObjectNotFoundException(String message) {
+        super(message);
+    }
+
+    public ObjectNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
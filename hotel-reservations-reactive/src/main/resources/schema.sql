@@ -0,0 +1,80 @@
+-- Mesmo esquema das migrações V1, V3, V4, V5, V6 e V12 da aplicação servlet (hotel-reservations/src/main/resources/db/migration)
+
+CREATE SEQUENCE reservation_seq START WITH 1 INCREMENT BY 50;
+
+-- Unidades reservadas individualmente; esta variante só reserva na unidade padrão (id 1)
+CREATE SEQUENCE unit_seq START WITH 2 INCREMENT BY 1;
+
+CREATE TABLE unit (
+    id         INTEGER      NOT NULL,
+    nome       VARCHAR(255) NOT NULL,
+    tipo       VARCHAR(255),
+    capacidade INTEGER,
+    CONSTRAINT pk_unit PRIMARY KEY (id),
+    CONSTRAINT uk_unit_nome UNIQUE (nome)
+);
+
+INSERT INTO unit (id, nome) VALUES (1, 'Unidade principal');
+
+CREATE TABLE reservation (
+    id                 INTEGER      NOT NULL,
+    nome_hospede       VARCHAR(255),
+    data_inicio        DATE,
+    data_fim           DATE,
+    quantidade_pessoas INTEGER,
+    status             VARCHAR(255),
+    version            INTEGER      DEFAULT 0 NOT NULL,
+    unidade_id         INTEGER      NOT NULL,
+    expira_em          TIMESTAMP WITH TIME ZONE,
+    change_counter     BIGINT,
+    CONSTRAINT pk_reservation PRIMARY KEY (id),
+    CONSTRAINT fk_reservation_unit FOREIGN KEY (unidade_id) REFERENCES unit (id),
+    CONSTRAINT ck_reservation_status CHECK (status IN ('CONFIRMADA', 'PENDENTE', 'CANCELADA'))
+);
+
+-- Checagem de sobreposição e listagens por status
+CREATE INDEX idx_reservation_status_periodo ON reservation (status, data_inicio, data_fim);
+
+-- Paginação por cursor em GET /reservas
+CREATE INDEX idx_reservation_data_inicio_id ON reservation (data_inicio, id);
+
+-- Checagem de sobreposição por unidade
+CREATE INDEX idx_reservation_unidade_periodo ON reservation (unidade_id, data_inicio, data_fim);
+
+-- Reservas alteradas desde o último contador visto pela aplicação servlet
+CREATE INDEX idx_reservation_unidade_alteracao ON reservation (unidade_id, change_counter);
+
+-- Uma linha por noite ocupada; a chave primária impede duas reservas ativas na mesma noite da mesma unidade
+CREATE TABLE reservation_night (
+    unidade_id     INTEGER NOT NULL,
+    night          DATE    NOT NULL,
+    reservation_id INTEGER NOT NULL,
+    CONSTRAINT pk_reservation_night PRIMARY KEY (unidade_id, night)
+);
+
+CREATE INDEX idx_reservation_night_reservation ON reservation_night (reservation_id);
+
+-- Contador global de alterações, incrementado por toda escrita em reservation
+CREATE TABLE reservation_change_counter (
+    id      INTEGER NOT NULL,
+    counter BIGINT  NOT NULL,
+    CONSTRAINT pk_reservation_change_counter PRIMARY KEY (id)
+);
+
+INSERT INTO reservation_change_counter (id, counter) VALUES (1, 0);
+
+-- Eventos de reserva a entregar pelo relay do outbox da aplicação servlet
+CREATE SEQUENCE outbox_event_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE outbox_event (
+    id             BIGINT                   NOT NULL,
+    event_type     VARCHAR(20)              NOT NULL,
+    reservation_id INTEGER                  NOT NULL,
+    partition_key  INTEGER                  NOT NULL,
+    payload        VARCHAR(4000)            NOT NULL,
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id),
+    CONSTRAINT ck_outbox_event_type CHECK (event_type IN ('CRIADA', 'ATUALIZADA', 'CANCELADA'))
+);
+
+CREATE INDEX idx_outbox_event_partition ON outbox_event (partition_key, id);
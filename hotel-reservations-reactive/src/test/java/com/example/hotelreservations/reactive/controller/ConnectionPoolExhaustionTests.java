@@ -0,0 +1,50 @@
+package com.example.hotelreservations.reactive.controller;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Com o pool de uma conexão ocupado, a requisição não fica esperando indefinidamente:
+ * recebe 503 com Retry-After depois de spring.r2dbc.pool.max-acquire-time.
+ */
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-pool?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.r2dbc.pool.initial-size=1",
+        "spring.r2dbc.pool.max-size=1",
+        "spring.r2dbc.pool.max-acquire-time=200ms"
+})
+@AutoConfigureWebTestClient
+public class ConnectionPoolExhaustionTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Test
+    public void testExhaustedPoolReturnsServiceUnavailable() {
+        Connection held = Mono.from(connectionFactory.create()).block();
+        try {
+            webTestClient.get().uri("/reservas/{id}", 1).exchange()
+                    .expectStatus().isEqualTo(503)
+                    .expectHeader().valueEquals("Retry-After", "1")
+                    .expectBody()
+                    .jsonPath("$.status").isEqualTo(503);
+
+            webTestClient.get().uri("/reservas/disponibilidade?from=2030-01-01&to=2030-01-05").exchange()
+                    .expectStatus().isEqualTo(503);
+        } finally {
+            Mono.from(held.close()).block();
+        }
+
+        webTestClient.get().uri("/reservas/{id}", 1).exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.hotelreservations.reactive.controller;
+
+import com.example.hotelreservations.reactive.dto.ReservationDTO;
+import com.example.hotelreservations.reactive.dto.ReservationView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-controller?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+@AutoConfigureWebTestClient
+public class ReservationControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    public void cleanUp() {
+        databaseClient.sql("DELETE FROM reservation_night").then()
+                .then(databaseClient.sql("DELETE FROM reservation").then())
+                .block();
+    }
+
+    @Test
+    public void testCreateAndGetReservation() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        Integer id = create("Joao", start, start.plusDays(2));
+
+        webTestClient.get().uri("/reservas/{id}", id).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(id)
+                .jsonPath("$.nomeHospede").isEqualTo("Joao")
+                .jsonPath("$.dataInicio").isEqualTo(start.toString())
+                .jsonPath("$.dataFim").isEqualTo(start.plusDays(2).toString())
+                .jsonPath("$.quantidadePessoas").isEqualTo(2)
+                .jsonPath("$.status").isEqualTo("CONFIRMADA");
+    }
+
+    @Test
+    public void testCreateReservationWithBookedDates() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        create("Joao", start, start.plusDays(2));
+
+        webTestClient.post().uri("/reservas")
+                .bodyValue(new ReservationDTO("Maria", start.plusDays(2), start.plusDays(4), 2, null))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Data indisponível para reserva.");
+    }
+
+    @Test
+    public void testCreateReservationWithInvalidDates() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        webTestClient.post().uri("/reservas")
+                .bodyValue(new ReservationDTO("Joao", start, start.minusDays(1), 2, null))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("A data de início da viagem não pode ser posterior à data de fim da viagem.");
+
+        webTestClient.post().uri("/reservas")
+                .bodyValue(new ReservationDTO("Joao", LocalDate.now().minusDays(1), start, 2, null))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testGetReservationNotFound() {
+        webTestClient.get().uri("/reservas/999999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Reserva não encontrada com o ID: 999999");
+    }
+
+    @Test
+    public void testCancelReleasesDatesAndBlocksUpdates() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        Integer id = create("Joao", start, start.plusDays(2));
+
+        webTestClient.delete().uri("/reservas/{id}/cancelar", id).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("CANCELADA");
+
+        create("Maria", start, start.plusDays(2));
+
+        webTestClient.put().uri("/reservas/{id}", id)
+                .bodyValue(new ReservationDTO("Joao", start.plusDays(20), start.plusDays(21), 2, ReservationStatus.CONFIRMADA))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Não é possível atualizar uma reserva cancelada.");
+    }
+
+    @Test
+    public void testUpdateMovesNights() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        Integer id = create("Joao", start, start.plusDays(2));
+
+        webTestClient.put().uri("/reservas/{id}", id)
+                .bodyValue(new ReservationDTO("Joao Silva", start.plusDays(5), start.plusDays(6), 3, ReservationStatus.PENDENTE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nomeHospede").isEqualTo("Joao Silva")
+                .jsonPath("$.status").isEqualTo("PENDENTE");
+
+        // As noites antigas ficaram livres e as novas, ocupadas
+        create("Maria", start, start.plusDays(2));
+        webTestClient.post().uri("/reservas")
+                .bodyValue(new ReservationDTO("Ana", start.plusDays(6), start.plusDays(7), 2, null))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testGetAllReservationsWithCursor() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        create("Joao", start, start);
+        create("Maria", start.plusDays(1), start.plusDays(1));
+        create("Ana", start.plusDays(2), start.plusDays(2));
+
+        String nextCursor = webTestClient.get().uri("/reservas?limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("Link")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].nomeHospede").isEqualTo("Joao")
+                .returnResult()
+                .getResponseHeaders().getFirst("X-Next-Cursor");
+
+        webTestClient.get().uri("/reservas?limit=2&after=" + nextCursor).exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Next-Cursor")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].nomeHospede").isEqualTo("Ana");
+
+        webTestClient.get().uri("/reservas?after=nao-e-um-cursor").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testGetReservationsByStatusWithNextPage() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        create("Joao", start, start);
+        create("Maria", start.plusDays(1), start.plusDays(1));
+
+        webTestClient.get().uri("/reservas/confirmadas?size=1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueMatches("Link", ".*page=1&size=1>; rel=\"next\"")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].nomeHospede").isEqualTo("Joao");
+
+        webTestClient.get().uri("/reservas/confirmadas?from=" + start.plusDays(1)).exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("Link")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].nomeHospede").isEqualTo("Maria");
+
+        webTestClient.get().uri("/reservas/canceladas").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+    }
+
+    @Test
+    public void testStreamAllReservationsAsNdjson() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        create("Joao", start, start);
+        create("Maria", start.plusDays(1), start.plusDays(1));
+
+        List<ReservationView> reservations = webTestClient.get().uri("/reservas")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ReservationView.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(2, reservations.size());
+        assertEquals("Maria", reservations.get(1).getNomeHospede());
+    }
+
+    @Test
+    public void testAvailabilityCalendar() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        create("Joao", start.plusDays(1), start.plusDays(2));
+        create("Maria", start.plusDays(3), start.plusDays(3));
+
+        webTestClient.get().uri("/reservas/disponibilidade?from={from}&to={to}", start, start.plusDays(5)).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.ocupados.length()").isEqualTo(1)
+                .jsonPath("$.ocupados[0].dataInicio").isEqualTo(start.plusDays(1).toString())
+                .jsonPath("$.ocupados[0].dataFim").isEqualTo(start.plusDays(3).toString())
+                .jsonPath("$.livres.length()").isEqualTo(2);
+    }
+
+    @Test
+    public void testImportReservations() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        webTestClient.post().uri("/reservas/batch")
+                .bodyValue(List.of(
+                        new ReservationDTO("Joao", start, start.plusDays(1), 2, null),
+                        new ReservationDTO("Maria", start.plusDays(1), start.plusDays(2), 2, null),
+                        new ReservationDTO("Ana", null, null, 2, null)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].success").isEqualTo(true)
+                .jsonPath("$[1].success").isEqualTo(false)
+                .jsonPath("$[1].message").isEqualTo("Data indisponível para reserva.")
+                .jsonPath("$[2].message").isEqualTo("As datas de início e fim são obrigatórias.");
+    }
+
+    @Test
+    public void testImportReservationsRejectsTooManyNdjsonLines() {
+        String line = "{\"nomeHospede\": \"Joao\", \"dataInicio\": \"2030-08-06\", \"dataFim\": \"2030-08-06\", \"quantidadePessoas\": 2}\n";
+
+        webTestClient.post().uri("/reservas/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(line.repeat(ReservationController.MAX_BATCH_LINES + 1))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    private Integer create(String nomeHospede, LocalDate start, LocalDate end) {
+        return webTestClient.post().uri("/reservas")
+                .bodyValue(new ReservationDTO(nomeHospede, start, end, 2, null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().exists("Location")
+                .expectBody(ReservationView.class)
+                .returnResult()
+                .getResponseBody()
+                .getId();
+    }
+}
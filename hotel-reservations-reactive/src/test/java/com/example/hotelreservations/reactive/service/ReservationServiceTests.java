@@ -0,0 +1,135 @@
+package com.example.hotelreservations.reactive.service;
+
+import com.example.hotelreservations.reactive.domain.Reservation;
+import com.example.hotelreservations.reactive.dto.ReservationDTO;
+import com.example.hotelreservations.reactive.repository.ReservationNightRepository;
+import com.example.hotelreservations.reactive.service.exceptions.DateIsAlreadyBookedException;
+import com.example.hotelreservations.reactive.service.exceptions.InvalidDateRangeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-service?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+public class ReservationServiceTests {
+
+    private static final int CONCURRENT_ATTEMPTS = 32;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationNightRepository reservationNightRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    public void cleanUp() {
+        databaseClient.sql("DELETE FROM reservation_night").then()
+                .then(databaseClient.sql("DELETE FROM reservation").then())
+                .block();
+    }
+
+    // Várias criações sobrepostas ao mesmo tempo: a chave de reservation_night deixa passar só uma
+    @Test
+    public void testConcurrentOverlappingCreatesBookOnce() {
+        LocalDate start = LocalDate.now().plusDays(30);
+        List<Boolean> outcomes = Flux.range(0, CONCURRENT_ATTEMPTS)
+                .flatMap(i -> reservationService.createReservation(
+                                new ReservationDTO("Hospede " + i, start.plusDays(i % 3), start.plusDays(i % 3 + 2), 2, null))
+                        .map(reservation -> true)
+                        .onErrorResume(DateIsAlreadyBookedException.class, e -> Mono.just(false))
+                        .subscribeOn(Schedulers.parallel()), CONCURRENT_ATTEMPTS)
+                .collectList()
+                .block();
+
+        assertEquals(1, outcomes.stream().filter(created -> created).count());
+        Long nights = databaseClient.sql("SELECT COUNT(*) FROM reservation_night")
+                .map(row -> row.get(0, Long.class)).one().block();
+        assertEquals(3, nights);
+        Long reservations = databaseClient.sql("SELECT COUNT(*) FROM reservation")
+                .map(row -> row.get(0, Long.class)).one().block();
+        assertEquals(1, reservations);
+    }
+
+    // Ids em blocos de 50, no formato pooled-lo que a aplicação servlet também usa
+    @Test
+    public void testIdsComeFromSequenceBlocks() {
+        LocalDate start = LocalDate.now().plusDays(100);
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < ReservationIdAllocator.BLOCK_SIZE + 5; i++) {
+            Reservation reservation = reservationService.createReservation(
+                    new ReservationDTO("Hospede", start.plusDays(i), start.plusDays(i), 2, null)).block();
+            assertTrue(ids.add(reservation.getId()));
+        }
+        assertEquals(ReservationIdAllocator.BLOCK_SIZE + 5, ids.size());
+    }
+
+    // A garantia final não depende da checagem: uma segunda gravação da mesma noite falha na chave
+    @Test
+    public void testNightPrimaryKeyRejectsSecondBooking() {
+        LocalDate start = LocalDate.now().plusDays(300);
+        reservationNightRepository.insertAll(Reservation.DEFAULT_UNIT_ID, 1, start, start.plusDays(1)).block();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> reservationNightRepository.insertAll(Reservation.DEFAULT_UNIT_ID, 2, start.plusDays(1), start.plusDays(2)).block());
+    }
+
+    // Mesma versão, mesmo contador de alterações e mesmo outbox da aplicação servlet
+    @Test
+    public void testWritesBumpVersionAndChangeCounter() {
+        LocalDate start = LocalDate.now().plusDays(400);
+        Long before = changeCounter();
+
+        Reservation created = reservationService.createReservation(new ReservationDTO("Joao", start, start.plusDays(1), 2, null)).block();
+        assertEquals(0, created.getVersion());
+
+        Reservation updated = reservationService.updateReservation(created.getId(),
+                new ReservationDTO("Maria", start, start.plusDays(1), 2, created.getStatus())).block();
+        assertEquals(1, updated.getVersion());
+
+        reservationService.cancelReservation(created.getId()).block();
+        assertEquals(before + 3, changeCounter());
+
+        // Uma linha de outbox por escrita, para o relay da aplicação servlet entregar
+        List<String> outboxEvents = databaseClient.sql("SELECT event_type FROM outbox_event WHERE reservation_id = :id ORDER BY id")
+                .bind("id", created.getId())
+                .map(row -> row.get(0, String.class)).all().collectList().block();
+        assertEquals(List.of("CRIADA", "ATUALIZADA", "CANCELADA"), outboxEvents);
+    }
+
+    @Test
+    public void testRejectsTooLongStay() {
+        LocalDate start = LocalDate.now().plusDays(500);
+
+        assertThrows(InvalidDateRangeException.class, () -> reservationService.createReservation(
+                new ReservationDTO("Joao", start, start.plusDays(ReservationService.MAX_STAY_NIGHTS), 2, null)).block());
+    }
+
+    @Test
+    public void testIsDateAvailable() {
+        LocalDate start = LocalDate.now().plusDays(200);
+        reservationService.createReservation(new ReservationDTO("Joao", start, start.plusDays(2), 2, null)).block();
+
+        assertFalse(reservationService.isDateAvailable(start.plusDays(2), start.plusDays(5)).block());
+        assertTrue(reservationService.isDateAvailable(start.plusDays(3), start.plusDays(5)).block());
+    }
+
+    private Long changeCounter() {
+        return databaseClient.sql("SELECT counter FROM reservation_change_counter WHERE id = 1")
+                .map(row -> row.get(0, Long.class)).one().block();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.HotelReservationsApplication;
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.repository.ReservationNightRepository;
+import com.example.hotelreservations.repository.ReservationRepository;
+import com.example.hotelreservations.service.ReservationService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checagem de disponibilidade pelo banco sobre 1M de reservas no H2, com as consultas que a produção usa
+ * contra o caminho antigo, que materializava as reservas CONFIRMADA e PENDENTE do período em duas
+ * consultas. Em produção, um "ocupado" do índice em memória é conferido nas noites da unidade
+ * ({@code existsByUnidadeIdAndNightBetween}); antes do índice ficar pronto, a checagem é a consulta de
+ * existência sobre as reservas ativas da unidade.
+ * <p>
+ * As reservas ativas de cada unidade não se sobrepõem e têm as noites gravadas, como as criadas pela
+ * aplicação. A maior parte do histórico é cancelada, como numa base com anos de uso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class AvailabilityQueryBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int UNITS = 200;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int SEEDED_DAYS = 3650;
+    private static final int WINDOWS = 4096;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusYears(1);
+
+    // Caminho anterior à consulta de existência, uma vez por status ativo
+    private static final String OVERLAPPING_BY_STATUS = "SELECT obj FROM Reservation obj WHERE obj.unidadeId = :unitId" +
+            " AND obj.dataInicio <= :endDate AND obj.dataFim >= :startDate AND obj.status = :status";
+
+    private ConfigurableApplicationContext context;
+    private ReservationRepository reservationRepository;
+    private ReservationNightRepository reservationNightRepository;
+    private EntityManager entityManager;
+
+    // Janelas sorteadas uma vez por trial; sortear a cada chamada pesaria nas medições
+    private final int[] units = new int[WINDOWS];
+    private final LocalDate[] starts = new LocalDate[WINDOWS];
+    private final LocalDate[] ends = new LocalDate[WINDOWS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(HotelReservationsApplication.class)
+                .web(WebApplicationType.NONE)
+                // Argumentos de linha de comando: properties() só define padrões, que o application.properties sobrescreve
+                .run("--spring.datasource.url=jdbc:h2:mem:availability-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+        reservationRepository = context.getBean(ReservationRepository.class);
+        reservationNightRepository = context.getBean(ReservationNightRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        Random random = new Random(42);
+        new Seeder(context.getBean(JdbcTemplate.class)).seed(random);
+        for (int i = 0; i < WINDOWS; i++) {
+            units[i] = 1 + random.nextInt(UNITS);
+            starts[i] = FIRST_DAY.plusDays(random.nextInt(SEEDED_DAYS));
+            ends[i] = starts[i].plusDays(random.nextInt(7));
+            boolean doubleQuery = doubleQuery(units[i], starts[i], ends[i]);
+            if (doubleQuery != existsQuery(units[i], starts[i], ends[i]) || doubleQuery != nightsQuery(units[i], starts[i], ends[i])) {
+                throw new IllegalStateException("As consultas discordam para a unidade " + units[i] + " de " + starts[i] + " a " + ends[i]);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean doubleQuery() {
+        int i = advance();
+        return doubleQuery(units[i], starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public boolean existsQuery() {
+        int i = advance();
+        return existsQuery(units[i], starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public boolean nightsQuery() {
+        int i = advance();
+        return nightsQuery(units[i], starts[i], ends[i]);
+    }
+
+    private boolean doubleQuery(int unitId, LocalDate start, LocalDate end) {
+        List<Reservation> confirmed = overlapping(unitId, start, end, ReservationStatus.CONFIRMADA);
+        List<Reservation> pending = overlapping(unitId, start, end, ReservationStatus.PENDENTE);
+        return !confirmed.isEmpty() || !pending.isEmpty();
+    }
+
+    private List<Reservation> overlapping(int unitId, LocalDate start, LocalDate end, ReservationStatus status) {
+        return entityManager.createQuery(OVERLAPPING_BY_STATUS, Reservation.class)
+                .setParameter("unitId", unitId)
+                .setParameter("endDate", end)
+                .setParameter("startDate", start)
+                .setParameter("status", status)
+                .getResultList();
+    }
+
+    private boolean existsQuery(int unitId, LocalDate start, LocalDate end) {
+        return reservationRepository.existsByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusIn(
+                unitId, end, start, ReservationService.ACTIVE_STATUSES);
+    }
+
+    private boolean nightsQuery(int unitId, LocalDate start, LocalDate end) {
+        return reservationNightRepository.existsByUnidadeIdAndNightBetween(unitId, start, end);
+    }
+
+    private int advance() {
+        next = (next + 1) & (WINDOWS - 1);
+        return next;
+    }
+
+    private static final class Seeder {
+        private final JdbcTemplate jdbcTemplate;
+        private final List<Object[]> reservations = new ArrayList<>(INSERT_BATCH);
+        private final List<Object[]> nights = new ArrayList<>(INSERT_BATCH);
+        private int nextId = 1;
+
+        Seeder(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        void seed(Random random) {
+            List<Object[]> units = new ArrayList<>();
+            for (int unitId = 2; unitId <= UNITS; unitId++) {
+                units.add(new Object[]{unitId, "Unidade " + unitId});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO unit (id, nome) VALUES (?, ?)", units);
+
+            // Ativas em sequência em cada unidade, com intervalos livres entre elas
+            for (int unitId = 1; unitId <= UNITS; unitId++) {
+                LocalDate start = FIRST_DAY.plusDays(random.nextInt(10));
+                while (start.isBefore(FIRST_DAY.plusDays(SEEDED_DAYS))) {
+                    LocalDate end = start.plusDays(random.nextInt(14));
+                    add(unitId, start, end, random.nextBoolean() ? ReservationStatus.CONFIRMADA : ReservationStatus.PENDENTE, random);
+                    start = end.plusDays(1 + random.nextInt(10));
+                }
+            }
+            // O restante é histórico cancelado, em qualquer data
+            while (nextId <= ROWS) {
+                LocalDate start = FIRST_DAY.plusDays(random.nextInt(SEEDED_DAYS));
+                add(1 + random.nextInt(UNITS), start, start.plusDays(random.nextInt(14)), ReservationStatus.CANCELADA, random);
+            }
+            flush();
+        }
+
+        private void add(int unitId, LocalDate start, LocalDate end, ReservationStatus status, Random random) {
+            int id = nextId++;
+            reservations.add(new Object[]{id, "Hospede " + id, Date.valueOf(start), Date.valueOf(end),
+                    1 + random.nextInt(6), status.name(), unitId});
+            if (status != ReservationStatus.CANCELADA) {
+                for (LocalDate night = start; !night.isAfter(end); night = night.plusDays(1)) {
+                    nights.add(new Object[]{unitId, Date.valueOf(night), id});
+                }
+            }
+            if (reservations.size() >= INSERT_BATCH || nights.size() >= INSERT_BATCH) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO reservation (id, nome_hospede, data_inicio, data_fim, quantidade_pessoas, status, version, unidade_id) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, 0, ?)",
+                    reservations);
+            jdbcTemplate.batchUpdate("INSERT INTO reservation_night (unidade_id, night, reservation_id) VALUES (?, ?, ?)", nights);
+            reservations.clear();
+            nights.clear();
+        }
+    }
+}
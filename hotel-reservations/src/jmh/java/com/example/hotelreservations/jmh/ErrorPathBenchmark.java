@@ -0,0 +1,111 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.controller.ReservationController;
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.controller.exceptions.ControllerHandler;
+import com.example.hotelreservations.controller.exceptions.StandardError;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.service.ReservationService;
+import com.example.hotelreservations.service.exceptions.DateIsAlreadyBookedException;
+import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Custo do caminho de erro: exceção do serviço tratada pelo {@link ControllerHandler} e serializada
+ * como {@link StandardError}, comparado com a mesma rota no caminho feliz. O serviço é um stub em
+ * memória, então só o trabalho do MVC, da exceção e do Jackson entra na medida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final String RESERVATION_JSON = "{\"nomeHospede\":\"Joao\",\"dataInicio\":\"2030-01-01\","
+            + "\"dataFim\":\"2030-01-03\",\"quantidadePessoas\":2,\"status\":\"CONFIRMADA\"}";
+
+    private MockMvc mockMvc;
+    private ControllerHandler handler;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Reservation reservation = new Reservation(1, "Joao", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 3), 2, ReservationStatus.CONFIRMADA);
+
+        ReservationService stub = new ReservationService(null, null, null, null, null, null, null, null, null, null, null) {
+            @Override
+            public Reservation getReservationById(Integer id) {
+                if (id == 1) {
+                    return reservation;
+                }
+                throw new ObjectNotFoundException("Reserva não encontrada com o ID: " + id);
+            }
+
+            @Override
+            public Reservation createReservation(ReservationDTO reservationDTO) {
+                throw new DateIsAlreadyBookedException("Data indisponível para reserva.");
+            }
+        };
+        ReservationController controller = new ReservationController();
+        ReflectionTestUtils.setField(controller, "reservationService", stub);
+        ReflectionTestUtils.setField(controller, "objectMapper", objectMapper);
+
+        handler = new ControllerHandler();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(handler)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+        request = new MockHttpServletRequest();
+    }
+
+    @Benchmark
+    public MvcResult getFound() throws Exception {
+        return mockMvc.perform(get("/reservas/1")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getNotFound() throws Exception {
+        return mockMvc.perform(get("/reservas/2")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createConflict() throws Exception {
+        return mockMvc.perform(post("/reservas").contentType(MediaType.APPLICATION_JSON).content(RESERVATION_JSON)).andReturn();
+    }
+
+    // Só a exceção e o handler, sem despacho MVC nem serialização
+    @Benchmark
+    public ResponseEntity<StandardError> handlerOnly() {
+        return handler.handleObjectNotFoundException(new ObjectNotFoundException("Reserva não encontrada com o ID: 2"), request);
+    }
+}
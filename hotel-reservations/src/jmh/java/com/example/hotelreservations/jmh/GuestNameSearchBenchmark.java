@@ -0,0 +1,68 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.service.GuestNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por nome direto sobre o {@link GuestNameIndex}, sem Spring nem banco, com nomes montados a partir
+ * de nomes e sobrenomes brasileiros comuns (com acentos), de modo que trigramas como "ana" e "silva"
+ * aparecem em boa parte das reservas. Mede a busca de 20 resultados, como GET /reservas/busca sem limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class GuestNameSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"João", "Maria", "Ana", "José", "Antônio", "Francisca", "Luíza", "Mariana",
+            "Conceição", "Sebastião", "Juliana", "Fábio", "Luciana", "Márcio", "Letícia", "Rafael", "Vitória", "Caio",
+            "Débora", "Gonçalo", "Inês", "Otávio", "Bárbara", "Érica", "Júlio", "Lúcia", "Mônica", "Rogério", "Sônia", "Tânia"};
+    private static final String[] LAST_NAMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves",
+            "Pereira", "Lima", "Gomes", "Araújo", "Ribeiro", "Carvalho", "Conceição", "Simões", "Magalhães", "Brandão",
+            "Falcão", "Guimarães", "Assunção", "Nóbrega", "Damasceno", "Quintanilha", "Vasconcelos", "Zimmermann"};
+
+    @Param({"1000000"})
+    public int reservationCount;
+
+    @Param({"jo", "ana", "silva", "conceicao", "maria so", "iana", "xyz"})
+    public String query;
+
+    private GuestNameIndex index;
+    private String normalizedQuery;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        SplittableRandom random = new SplittableRandom(3);
+        index = new GuestNameIndex();
+        for (int id = 1; id <= reservationCount; id++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            index.load(id, name);
+        }
+        index.markReady();
+        normalizedQuery = GuestNameIndex.normalize(query);
+    }
+
+    @Benchmark
+    public List<Integer> search() {
+        return index.search(normalizedQuery, 20);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização Jackson das entidades e DTOs que passam pela API, com o mesmo
+ * {@link ObjectMapper} que o Spring Boot monta (JavaTimeModule, datas em ISO-8601).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectWriter reservationWriter;
+    private ObjectWriter pageWriter;
+    private ObjectReader dtoReader;
+    private Reservation reservation;
+    private List<Reservation> page;
+    private byte[] dtoJson;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reservationWriter = objectMapper.writerFor(Reservation.class);
+        pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Reservation.class));
+        dtoReader = objectMapper.readerFor(ReservationDTO.class);
+
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        reservation = new Reservation(1, "Fulano de Tal", start, start.plusDays(5), 4, ReservationStatus.CONFIRMADA);
+        page = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            page.add(new Reservation(i, "Hospede " + i, start.plusDays(3L * i), start.plusDays(3L * i + 1), 2, ReservationStatus.PENDENTE));
+        }
+        dtoJson = objectMapper.writeValueAsBytes(new ReservationDTO("Fulano de Tal", start, start.plusDays(5), 4, ReservationStatus.CONFIRMADA));
+    }
+
+    @Benchmark
+    public byte[] serializeReservation() throws IOException {
+        return reservationWriter.writeValueAsBytes(reservation);
+    }
+
+    // Uma página padrão de GET /reservas
+    @Benchmark
+    public byte[] serializeReservationPage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public ReservationDTO deserializeReservationDTO() throws IOException {
+        return dtoReader.readValue(dtoJson);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.domain.PricingRule;
+import com.example.hotelreservations.dto.PriceQuoteDTO;
+import com.example.hotelreservations.dto.PricingRuleType;
+import com.example.hotelreservations.service.PriceCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cotação de 30 noites pela tabela compilada do {@link PriceCalendar} contra a avaliação das regras
+ * noite a noite, que é o que a cotação fazia sem a tabela (e o que ainda faz fora do horizonte). As
+ * regras são uma base, fins de semana, descontos de estadia e uma temporada por mês.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PriceQuoteBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+    private static final int HORIZON_DAYS = 730;
+    private static final int NIGHTS = 30;
+
+    @Param({"12", "120"})
+    public int seasonCount;
+
+    private PriceCalendar calendar;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        SplittableRandom random = new SplittableRandom(5);
+        List<PricingRule> rules = new ArrayList<>();
+        int id = 1;
+        rules.add(new PricingRule(id++, PricingRuleType.BASE, new BigDecimal("189.90")));
+        for (DayOfWeek weekend : List.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY)) {
+            PricingRule rule = new PricingRule(id++, PricingRuleType.DIA_SEMANA, new BigDecimal("20"));
+            rule.setDiaSemana(weekend);
+            rules.add(rule);
+        }
+        for (int minimumNights : new int[]{7, 14, 28}) {
+            PricingRule rule = new PricingRule(id++, PricingRuleType.ESTADIA, BigDecimal.valueOf(minimumNights / 2));
+            rule.setMinimoNoites(minimumNights);
+            rules.add(rule);
+        }
+        for (int i = 0; i < seasonCount; i++) {
+            PricingRule rule = new PricingRule(id++, PricingRuleType.TEMPORADA, BigDecimal.valueOf(random.nextInt(-20, 60)));
+            rule.setDataInicio(FIRST_DAY.plusDays(random.nextInt(HORIZON_DAYS)));
+            rule.setDataFim(rule.getDataInicio().plusDays(3 + random.nextInt(20)));
+            rules.add(rule);
+        }
+        calendar = PriceCalendar.compile(rules, FIRST_DAY, HORIZON_DAYS, Instant.now());
+    }
+
+    // Estadias sorteadas uma vez por trial, como em UnitSearchBenchmark.Searches
+    @State(Scope.Thread)
+    public static class Stays {
+        private static final int SIZE = 4096;
+
+        private final LocalDate[] starts = new LocalDate[SIZE];
+        private int next;
+
+        @Setup(Level.Trial)
+        public void prepare() {
+            SplittableRandom random = new SplittableRandom(7);
+            for (int i = 0; i < SIZE; i++) {
+                starts[i] = FIRST_DAY.plusDays(random.nextInt(HORIZON_DAYS - NIGHTS));
+            }
+        }
+
+        LocalDate advance() {
+            next = (next + 1) & (SIZE - 1);
+            return starts[next];
+        }
+    }
+
+    @Benchmark
+    public PriceQuoteDTO compiledQuote(Stays stays) {
+        LocalDate start = stays.advance();
+        return calendar.quote(start, start.plusDays(NIGHTS - 1), 3);
+    }
+
+    @Benchmark
+    public long evaluatedRates(Stays stays) {
+        long startDay = stays.advance().toEpochDay();
+        long total = 0;
+        for (long day = startDay; day < startDay + NIGHTS; day++) {
+            total += calendar.evaluateRate(day);
+        }
+        return total;
+    }
+}
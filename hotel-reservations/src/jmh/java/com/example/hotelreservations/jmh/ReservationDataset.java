@@ -0,0 +1,94 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.HotelReservationsApplication;
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.service.ReservationService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Aplicação completa sobre um H2 em arquivo (em {@code target/jmh-db}, recriado a cada trial),
+ * semeada com {@code datasetSize} reservas. Em memória, 10M de linhas não cabem junto com o heap.
+ * <p>
+ * A reserva {@code i} começa em {@link #FIRST_DAY} + 3i e dura uma ou duas noites, então as ativas
+ * nunca se sobrepõem. Metade do histórico é cancelada. As datas depois de {@link #lastSeededDay()}
+ * ficam livres para os benchmarks de escrita. As noites da semente não são gravadas: o índice em
+ * memória já cobre a checagem, e a tabela de noites só recebe o que os benchmarks criam.
+ */
+@State(Scope.Benchmark)
+public class ReservationDataset {
+
+    static final LocalDate FIRST_DAY = LocalDate.now().plusYears(1);
+
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int datasetSize;
+
+    ConfigurableApplicationContext context;
+    ReservationService reservationService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(HotelReservationsApplication.class)
+                .web(WebApplicationType.NONE)
+                // Argumentos de linha de comando: properties() só define padrões, que o application.properties sobrescreve
+                .run("--spring.datasource.url=jdbc:h2:file:./target/jmh-db/reservas;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--reservas.horizonte=P100000Y",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        reservationService = context.getBean(ReservationService.class);
+        reservationService.loadAvailabilityIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    LocalDate lastSeededDay() {
+        return FIRST_DAY.plusDays(3L * datasetSize);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < datasetSize; i++) {
+            LocalDate start = FIRST_DAY.plusDays(3L * i);
+            ReservationStatus status = random.nextBoolean() ? ReservationStatus.CANCELADA
+                    : (random.nextBoolean() ? ReservationStatus.CONFIRMADA : ReservationStatus.PENDENTE);
+            batch.add(new Object[]{"Hospede " + i, Date.valueOf(start), Date.valueOf(start.plusDays(random.nextInt(2))),
+                    1 + random.nextInt(6), status.name()});
+            if (batch.size() == INSERT_BATCH) {
+                insert(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(jdbcTemplate, batch);
+        }
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO reservation (id, nome_hospede, data_inicio, data_fim, quantidade_pessoas, status, version, unidade_id) " +
+                        "VALUES (NEXT VALUE FOR reservation_seq, ?, ?, ?, ?, ?, 0, 1)",
+                batch);
+    }
+}
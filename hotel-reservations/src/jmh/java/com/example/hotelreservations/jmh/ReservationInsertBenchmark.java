@@ -0,0 +1,118 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.HotelReservationsApplication;
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.dto.BatchReservationResult;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.repository.ReservationNightRepository;
+import com.example.hotelreservations.repository.ReservationRepository;
+import com.example.hotelreservations.service.ReservationService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de INSERT com e sem lote JDBC, com o id vindo de uma sequência pooled-lo.
+ * O tamanho do lote é trocado por sessão ({@link Session#setJdbcBatchSize}), então as duas
+ * variantes rodam sobre o mesmo esquema e a mesma configuração. As tabelas são esvaziadas a cada
+ * iteração para que o volume já gravado não pese nas medições seguintes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class ReservationInsertBenchmark {
+
+    private static final int IMPORT_ROWS = 1_000;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private ReservationRepository reservationRepository;
+    private ReservationNightRepository reservationNightRepository;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private LocalDate nextFreeDay;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(HotelReservationsApplication.class)
+                .web(WebApplicationType.NONE)
+                // Argumentos de linha de comando: properties() só define padrões, que o application.properties sobrescreve
+                .run("--spring.datasource.url=jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--reservas.horizonte=P100000Y",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+        reservationService = context.getBean(ReservationService.class);
+        reservationRepository = context.getBean(ReservationRepository.class);
+        reservationNightRepository = context.getBean(ReservationNightRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        reservationNightRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        reservationService.loadAvailabilityIndex();
+        nextFreeDay = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Estadias de um dia em dias alternados, sem conflito entre si nem com as importações anteriores
+    @Benchmark
+    public List<BatchReservationResult> importReservations() {
+        List<ReservationDTO> rows = new ArrayList<>(IMPORT_ROWS);
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            LocalDate day = nextFreeDay.plusDays(2L * i);
+            rows.add(new ReservationDTO("Hospede " + i, day, day, 2, ReservationStatus.CONFIRMADA));
+        }
+        nextFreeDay = nextFreeDay.plusDays(2L * IMPORT_ROWS);
+        return transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            return reservationService.importReservations(rows);
+        });
+    }
+
+    // Estadias de 3 noites: cada reserva grava 1 linha de reserva e 4 de noites
+    @Benchmark
+    public Integer createReservation() {
+        LocalDate day = nextFreeDay;
+        nextFreeDay = day.plusDays(5);
+        ReservationDTO reservationDTO = new ReservationDTO("Hospede", day, day.plusDays(3), 2, ReservationStatus.CONFIRMADA);
+        return transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            return reservationService.createReservation(reservationDTO).getId();
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationView;
+import com.example.hotelreservations.repository.ReservationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura e serialização de uma página de GET /reservas e das listagens por status, comparando as
+ * projeções {@link ReservationView} com as entidades gerenciadas que essas rotas devolviam antes.
+ * As duas variantes usam o mesmo caminho (EntityManager numa transação somente leitura), então a
+ * diferença é só a projeção. Rodar com {@code -prof gc} para ver os bytes alocados por página.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx3g"})
+public class ReservationListingBenchmark {
+
+    private static final String FIRST_PAGE = " ORDER BY obj.dataInicio, obj.id";
+    private static final String STATUS_PAGE = " WHERE obj.status = :status ORDER BY obj.dataInicio, obj.id";
+    private static final String SELECT_ENTITY = "SELECT obj FROM Reservation obj";
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private ObjectWriter entityWriter;
+    private ObjectWriter viewWriter;
+
+    @Setup(Level.Trial)
+    public void prepare(ReservationDataset dataset) {
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(dataset.context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(dataset.context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        ObjectMapper objectMapper = dataset.context.getBean(ObjectMapper.class);
+        entityWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Reservation.class));
+        viewWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, ReservationView.class));
+    }
+
+    // Como era antes: entidades no contexto de persistência, serializadas depois do commit
+    @Benchmark
+    public byte[] firstPageEntities() throws IOException {
+        return entityWriter.writeValueAsBytes(page(SELECT_ENTITY + FIRST_PAGE, Reservation.class, null));
+    }
+
+    @Benchmark
+    public byte[] firstPageViews() throws IOException {
+        return viewWriter.writeValueAsBytes(page(ReservationRepository.SELECT_VIEW + FIRST_PAGE, ReservationView.class, null));
+    }
+
+    @Benchmark
+    public byte[] statusPageEntities() throws IOException {
+        return entityWriter.writeValueAsBytes(page(SELECT_ENTITY + STATUS_PAGE, Reservation.class, ReservationStatus.CONFIRMADA));
+    }
+
+    @Benchmark
+    public byte[] statusPageViews() throws IOException {
+        return viewWriter.writeValueAsBytes(page(ReservationRepository.SELECT_VIEW + STATUS_PAGE, ReservationView.class, ReservationStatus.CONFIRMADA));
+    }
+
+    // Mesmo formato do serviço: uma linha a mais para saber se há próxima página
+    private <T> List<T> page(String jpql, Class<T> type, ReservationStatus status) {
+        List<T> rows = readOnlyTransaction.execute(tx -> {
+            TypedQuery<T> query = entityManager.createQuery(jpql, type).setMaxResults(pageSize + 1);
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            return query.getResultList();
+        });
+        return rows.subList(0, Math.min(pageSize, rows.size()));
+    }
+}
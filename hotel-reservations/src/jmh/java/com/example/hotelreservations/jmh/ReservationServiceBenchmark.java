@@ -0,0 +1,105 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes do {@link ReservationService} sobre o H2, com a base semeada em {@link ReservationDataset}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx3g"})
+public class ReservationServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Writes {
+        private LocalDate nextFreeDay;
+        private Integer movingId;
+        private LocalDate slotA;
+        private LocalDate slotB;
+        private boolean onSlotA = true;
+
+        @Setup(Level.Trial)
+        public void prepare(ReservationDataset dataset) {
+            slotA = dataset.lastSeededDay().plusDays(10);
+            slotB = slotA.plusDays(10);
+            nextFreeDay = slotB.plusDays(10);
+            movingId = dataset.reservationService.createReservation(
+                    new ReservationDTO("Hospede", slotA, slotA.plusDays(2), 2, ReservationStatus.CONFIRMADA)).getId();
+        }
+    }
+
+    // Janelas sorteadas uma vez por trial; um @Setup por invocação distorceria operações de microssegundos
+    @State(Scope.Thread)
+    public static class Windows {
+        private static final int SIZE = 4096;
+
+        private final LocalDate[] starts = new LocalDate[SIZE];
+        private final LocalDate[] ends = new LocalDate[SIZE];
+        private int next;
+
+        @Setup(Level.Trial)
+        public void prepare(ReservationDataset dataset) {
+            SplittableRandom random = new SplittableRandom(7);
+            for (int i = 0; i < SIZE; i++) {
+                starts[i] = ReservationDataset.FIRST_DAY.plusDays(random.nextLong(3L * dataset.datasetSize));
+                ends[i] = starts[i].plusDays(1 + random.nextInt(7));
+            }
+        }
+
+        int advance() {
+            next = (next + 1) & (SIZE - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public boolean isDateAvailable(ReservationDataset dataset, Windows windows) {
+        int i = windows.advance();
+        return dataset.reservationService.isDateAvailable(windows.starts[i], windows.ends[i]);
+    }
+
+    @Benchmark
+    public Reservation createReservation(ReservationDataset dataset, Writes writes) {
+        LocalDate start = writes.nextFreeDay;
+        writes.nextFreeDay = start.plusDays(3);
+        return dataset.reservationService.createReservation(
+                new ReservationDTO("Hospede", start, start.plusDays(1), 2, ReservationStatus.CONFIRMADA));
+    }
+
+    // Só muda dados do hóspede: sem lock de datas nem regravação das noites
+    @Benchmark
+    public Reservation updateReservationDetails(ReservationDataset dataset, Writes writes) {
+        Reservation current = dataset.reservationService.getReservationById(writes.movingId);
+        return dataset.reservationService.updateReservation(writes.movingId, new ReservationDTO("Hospede",
+                current.getDataInicio(), current.getDataFim(), current.getQuantidadePessoas() % 6 + 1, ReservationStatus.CONFIRMADA));
+    }
+
+    // Alterna a reserva entre duas janelas livres: checagem, lock e regravação das noites
+    @Benchmark
+    public Reservation updateReservationDates(ReservationDataset dataset, Writes writes) {
+        writes.onSlotA = !writes.onSlotA;
+        LocalDate start = writes.onSlotA ? writes.slotA : writes.slotB;
+        return dataset.reservationService.updateReservation(writes.movingId,
+                new ReservationDTO("Hospede", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.service.BookingHorizon;
+import com.example.hotelreservations.service.ReservationAvailabilityIndex;
+import com.example.hotelreservations.service.UnitService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca de unidades livres em todo o portfólio, direto sobre o {@link ReservationAvailabilityIndex},
+ * sem Spring nem banco. Cada unidade tem um ano de reservas de uma a sete noites com intervalos
+ * sorteados, o que dá cerca de 70% das noites ocupadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class UnitSearchBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+    private static final int SEEDED_DAYS = 365;
+
+    @Param({"100", "1000", "10000"})
+    public int unitCount;
+
+    private ReservationAvailabilityIndex index;
+    private UnitService unitService;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        SplittableRandom random = new SplittableRandom(11);
+        List<Unit> units = new ArrayList<>(unitCount);
+        List<Reservation> reservations = new ArrayList<>();
+        int reservationId = 1;
+        for (int unitId = 1; unitId <= unitCount; unitId++) {
+            units.add(new Unit(unitId, "Unidade " + unitId, "QUARTO", 2 + random.nextInt(5)));
+            int day = random.nextInt(3);
+            while (day < SEEDED_DAYS) {
+                int nights = 1 + random.nextInt(7);
+                Reservation reservation = new Reservation(reservationId++, "Hospede", FIRST_DAY.plusDays(day),
+                        FIRST_DAY.plusDays(day + nights - 1), 2, ReservationStatus.CONFIRMADA);
+                reservation.setUnidadeId(unitId);
+                reservations.add(reservation);
+                day += nights + random.nextInt(4);
+            }
+        }
+        index = new ReservationAvailabilityIndex();
+        index.rebuild(units, reservations);
+        // Com o índice pronto o serviço não consulta o repositório
+        unitService = new UnitService(null, null, index, new BookingHorizon(Period.ofYears(10)));
+    }
+
+    // Buscas sorteadas uma vez por trial, como em ReservationServiceBenchmark.Windows
+    @State(Scope.Thread)
+    public static class Searches {
+        private static final int SIZE = 4096;
+
+        private final LocalDate[] starts = new LocalDate[SIZE];
+        private final LocalDate[] ends = new LocalDate[SIZE];
+        private final int[] guests = new int[SIZE];
+        private int next;
+
+        @Setup(Level.Trial)
+        public void prepare() {
+            SplittableRandom random = new SplittableRandom(7);
+            for (int i = 0; i < SIZE; i++) {
+                starts[i] = FIRST_DAY.plusDays(random.nextInt(SEEDED_DAYS - 7));
+                ends[i] = starts[i].plusDays(1 + random.nextInt(7));
+                guests[i] = 1 + random.nextInt(4);
+            }
+        }
+
+        int advance() {
+            next = (next + 1) & (SIZE - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public List<Unit> searchFreeUnits(Searches searches) {
+        int i = searches.advance();
+        return index.searchFreeUnits(searches.starts[i], searches.ends[i], searches.guests[i]);
+    }
+
+    // Primeira página de 20, como GET /unidades/busca sem page e size
+    @Benchmark
+    public Slice<Unit> searchFirstPage(Searches searches) {
+        int i = searches.advance();
+        return unitService.searchUnits(searches.starts[i], searches.ends[i], searches.guests[i], 0, 20);
+    }
+}
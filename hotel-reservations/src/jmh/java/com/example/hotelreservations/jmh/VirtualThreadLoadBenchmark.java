@@ -0,0 +1,149 @@
+package com.example.hotelreservations.jmh;
+
+import com.example.hotelreservations.HotelReservationsApplication;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latência (p50/p99 do modo SampleTime) e vazão da API por HTTP com threads de plataforma, o padrão do
+ * Tomcat, e com {@code reservas.threads.virtual=true}. Cada modo sobe a aplicação numa porta aleatória e
+ * recebe a mesma carga: 200 clientes concorrentes, metade criando reservas e metade lendo uma por id.
+ * Os contadores {@code rejected} (503 da espera por conexão) e {@code failed} (sem resposta HTTP)
+ * saem junto com o resultado.
+ * <p>
+ * O modo virtual só sobe num JDK 21+; em versões anteriores essa variante falha no setup e o JMH
+ * segue com a outra.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI reservations;
+    private URI readTarget;
+
+    // Cada criação usa um dia ainda livre; dias alternados, então estadias de uma noite nunca se encostam
+    private final AtomicLong nextDay = new AtomicLong();
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long rejected;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rejected = 0;
+            failed = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void start() throws IOException, InterruptedException {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("reservas.threads.virtual=true exige JDK 21 ou superior");
+        }
+        context = new SpringApplicationBuilder(HotelReservationsApplication.class)
+                // Argumentos de linha de comando: properties() só define padrões, que o application.properties sobrescreve
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--reservas.horizonte=P100000Y",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--reservas.threads.virtual=" + virtualThreads);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        reservations = URI.create("http://localhost:" + port + "/reservas");
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+        HttpResponse<String> created = client.send(createRequest(), HttpResponse.BodyHandlers.ofString());
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("Reserva de leitura não foi criada: " + created.statusCode() + " " + created.body());
+        }
+        readTarget = created.headers().firstValue("Location").map(URI::create)
+                .orElseThrow(() -> new IllegalStateException("Criação sem cabeçalho Location"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(100)
+    public int createReservation(Outcomes outcomes) {
+        return send(createRequest(), outcomes);
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(100)
+    public int getReservation(Outcomes outcomes) {
+        return send(HttpRequest.newBuilder(readTarget).GET().build(), outcomes);
+    }
+
+    private int send(HttpRequest request, Outcomes outcomes) {
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status == 503) {
+                outcomes.rejected++;
+            }
+            return status;
+        } catch (IOException e) {
+            outcomes.failed++;
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcomes.failed++;
+            return -1;
+        }
+    }
+
+    private HttpRequest createRequest() {
+        LocalDate day = LocalDate.now().plusDays(1 + 2 * nextDay.getAndIncrement());
+        String body = "{\"nomeHospede\":\"Hospede\",\"dataInicio\":\"" + day + "\",\"dataFim\":\"" + day
+                + "\",\"quantidadePessoas\":2,\"status\":\"CONFIRMADA\"}";
+        return HttpRequest.newBuilder(reservations)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
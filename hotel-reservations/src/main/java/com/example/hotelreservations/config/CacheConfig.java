@@ -0,0 +1,58 @@
+package com.example.hotelreservations.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RESERVATIONS_CACHE = "reservas";
+
+    // Nome do bean opcional usado como segundo nível (ex.: um RedisCache em implantações com vários nós)
+    public static final String SECOND_LEVEL_CACHE_BEAN = "reservationSecondLevelCache";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${reservas.cache.tamanho-maximo:10000}") long maximumSize,
+            @Value("${reservas.cache.ttl:5m}") Duration ttl,
+            @Value("${reservas.cache.local.ttl:2s}") Duration localTtl,
+            @Qualifier(SECOND_LEVEL_CACHE_BEAN) ObjectProvider<Cache> secondLevelCache
+    ) {
+        /*
+         * Com o segundo nível, o cache local não vê as escritas dos outros nós: o prazo curto limita por
+         * quanto tempo um nó ainda serve a versão anterior (e o ETag dela) de uma reserva alterada em outro.
+         */
+        Cache shared = secondLevelCache.getIfAvailable();
+        Duration localExpiry = shared == null || localTtl.compareTo(ttl) > 0 ? ttl : localTtl;
+        Cache reservations = new CaffeineCache(RESERVATIONS_CACHE, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(localExpiry)
+                .recordStats()
+                .build(), false);
+
+        if (shared != null) {
+            reservations = new TwoLevelCache(reservations, shared);
+        }
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(reservations));
+        cacheManager.initializeCaches();
+
+        // Escritas e invalidações só chegam ao cache depois do commit; um rollback não deixa dado fantasma
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
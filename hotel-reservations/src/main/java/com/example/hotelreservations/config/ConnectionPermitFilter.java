@@ -0,0 +1,121 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.controller.exceptions.StandardError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita as requisições em andamento às conexões do pool que sobram para elas. Quem não consegue uma
+ * permissão dentro do tempo máximo recebe 503, em vez de ficar parado dentro do Hikari.
+ * Em requisições assíncronas (streaming) a permissão só é devolvida quando a resposta termina.
+ * O feed SSE fica de fora: não usa conexão do banco e cada assinante ficaria com uma permissão.
+ */
+public class ConnectionPermitFilter extends OncePerRequestFilter {
+
+    static final String EVENTS_PATH = "/reservas/eventos";
+
+    private final Semaphore permits;
+    private final Duration maximumWait;
+    private final ObjectMapper objectMapper;
+
+    public ConnectionPermitFilter(int maximumConcurrentRequests, Duration maximumWait, ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maximumConcurrentRequests, true);
+        this.maximumWait = maximumWait;
+        this.objectMapper = objectMapper;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return EVENTS_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maximumWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectRequest(response);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private void rejectRequest(HttpServletResponse response) throws IOException {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servidor sem conexões disponíveis no momento. Tente novamente.");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static class ReleasingAsyncListener implements AsyncListener {
+
+        private final Runnable release;
+
+        ReleasingAsyncListener(Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
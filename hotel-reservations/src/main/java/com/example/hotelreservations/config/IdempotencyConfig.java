@@ -0,0 +1,43 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.repository.IdempotencyKeyRepository;
+import com.example.hotelreservations.service.DatabaseIdempotencyStore;
+import com.example.hotelreservations.service.IdempotencyStore;
+import com.example.hotelreservations.service.InMemoryIdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento das respostas de POST /reservas com Idempotency-Key: em memória por padrão, ou na
+ * tabela idempotency_key com {@code reservas.idempotencia.armazenamento=banco}, para que uma repetição
+ * que caia em outro nó também seja reconhecida.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    public static final String STORAGE_PROPERTY = "reservas.idempotencia.armazenamento";
+
+    @Bean
+    @ConditionalOnProperty(name = STORAGE_PROPERTY, havingValue = "memoria", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(
+            @Value("${reservas.idempotencia.tamanho-maximo:100000}") long maximumSize,
+            @Value("${reservas.idempotencia.ttl:24h}") Duration ttl,
+            @Value("${reservas.idempotencia.lease:PT1M}") Duration lease
+    ) {
+        return new InMemoryIdempotencyStore(maximumSize, ttl, lease);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = STORAGE_PROPERTY, havingValue = "banco")
+    public IdempotencyStore databaseIdempotencyStore(
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            @Value("${reservas.idempotencia.ttl:24h}") Duration ttl,
+            @Value("${reservas.idempotencia.lease:PT1M}") Duration lease
+    ) {
+        return new DatabaseIdempotencyStore(idempotencyKeyRepository, ttl, lease);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.service.InMemoryIndexRefresher;
+import com.example.hotelreservations.service.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Atualização dos índices em memória com as escritas de outros nós. Com um único nó pode ser
+ * desligada com {@code reservas.indices.atualizacao.ativo=false}: as escritas dele já entram nos
+ * índices no commit.
+ */
+@Configuration
+public class InMemoryIndexConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "reservas.indices.atualizacao.ativo", havingValue = "true", matchIfMissing = true)
+    public InMemoryIndexRefresher inMemoryIndexRefresher(
+            ReservationService reservationService,
+            @Value("${reservas.indices.atualizacao:PT5S}") Duration refreshInterval,
+            MeterRegistry meterRegistry
+    ) {
+        return new InMemoryIndexRefresher(reservationService, refreshInterval, meterRegistry);
+    }
+}
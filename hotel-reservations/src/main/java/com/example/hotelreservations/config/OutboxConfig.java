@@ -0,0 +1,70 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.domain.OutboxEvent;
+import com.example.hotelreservations.repository.OutboxEventRepository;
+import com.example.hotelreservations.repository.OutboxPartitionRepository;
+import com.example.hotelreservations.service.InMemoryOutboxSink;
+import com.example.hotelreservations.service.LogFileOutboxSink;
+import com.example.hotelreservations.service.OutboxRelay;
+import com.example.hotelreservations.service.OutboxSink;
+import com.example.hotelreservations.service.WebhookOutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Destino dos eventos do outbox ({@code reservas.outbox.destino}): memória (padrão, no lugar dos
+ * sistemas externos), arquivo NDJSON ou webhook HTTP. O relay pode ser desligado num nó com
+ * {@code reservas.outbox.relay.ativo=false}; as linhas continuam sendo gravadas e outro nó entrega.
+ */
+@Configuration
+public class OutboxConfig {
+
+    public static final String SINK_PROPERTY = "reservas.outbox.destino";
+
+    @Bean
+    @ConditionalOnProperty(name = SINK_PROPERTY, havingValue = "memoria", matchIfMissing = true)
+    public OutboxSink inMemoryOutboxSink(@Value("${reservas.outbox.memoria.tamanho-maximo:10000}") int maximumSize) {
+        return new InMemoryOutboxSink(maximumSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = SINK_PROPERTY, havingValue = "arquivo")
+    public OutboxSink logFileOutboxSink(@Value("${reservas.outbox.arquivo:reservas-eventos.ndjson}") Path file,
+                                        ObjectMapper objectMapper) {
+        return new LogFileOutboxSink(file, objectMapper.writerFor(OutboxEvent.class));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = SINK_PROPERTY, havingValue = "webhook")
+    public OutboxSink webhookOutboxSink(@Value("${reservas.outbox.webhook.url}") URI url,
+                                        @Value("${reservas.outbox.webhook.timeout:5s}") Duration timeout,
+                                        ObjectMapper objectMapper) {
+        return new WebhookOutboxSink(url, timeout, objectMapper.writer());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "reservas.outbox.relay.ativo", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            OutboxPartitionRepository outboxPartitionRepository,
+            OutboxSink outboxSink,
+            TransactionTemplate transactionTemplate,
+            @Value("${reservas.outbox.lote:100}") int batchSize,
+            @Value("${reservas.outbox.intervalo:PT1S}") Duration pollInterval,
+            @Value("${reservas.outbox.paralelismo:2}") int parallelism,
+            @Value("${reservas.outbox.lease:PT30S}") Duration lease,
+            MeterRegistry meterRegistry
+    ) {
+        return new OutboxRelay(outboxEventRepository, outboxPartitionRepository, outboxSink, transactionTemplate,
+                batchSize, pollInterval, parallelism, lease, meterRegistry);
+    }
+}
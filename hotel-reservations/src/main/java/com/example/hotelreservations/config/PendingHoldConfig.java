@@ -0,0 +1,36 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.service.PendingHoldReaper;
+import com.example.hotelreservations.service.PendingHolds;
+import com.example.hotelreservations.service.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Reaper das reservas PENDENTE vencidas. O prazo em si ({@code reservas.pendente.prazo}) fica em
+ * {@link PendingHolds}; desligando o reaper num nó com {@code reservas.pendente.reaper.ativo=false},
+ * as reservas continuam recebendo prazo e o reaper de outro nó as libera, já que as vencidas são
+ * liberadas pelo banco e os outros nós as conhecem pela atualização dos índices.
+ */
+@Configuration
+public class PendingHoldConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "reservas.pendente.reaper.ativo", havingValue = "true", matchIfMissing = true)
+    public PendingHoldReaper pendingHoldReaper(
+            ReservationService reservationService,
+            PendingHolds pendingHolds,
+            CacheManager cacheManager,
+            @Value("${reservas.pendente.lote:100}") int batchSize,
+            @Value("${reservas.pendente.verificacao:PT1M}") Duration checkInterval,
+            MeterRegistry meterRegistry
+    ) {
+        return new PendingHoldReaper(reservationService, pendingHolds, cacheManager, batchSize, checkInterval, meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.service.ReservationEventBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+
+/**
+ * Feed SSE de GET /reservas/eventos. O heartbeat e a verificação de envios travados do
+ * {@link ReservationEventBroadcaster} são tarefas agendadas, assim como a limpeza das chaves de
+ * idempotência no banco.
+ */
+@Configuration
+@EnableScheduling
+public class ReservationEventsConfig {
+
+    @Bean
+    public ReservationEventBroadcaster reservationEventBroadcaster(
+            @Value("${reservas.eventos.replay:1000}") int replaySize,
+            @Value("${reservas.eventos.timeout:30m}") Duration timeout,
+            @Value("${reservas.eventos.envio-timeout:PT5S}") Duration sendTimeout,
+            @Value("${reservas.eventos.threads:4}") int senderThreads
+    ) {
+        return new ReservationEventBroadcaster(replaySize, timeout, sendTimeout, senderThreads);
+    }
+}
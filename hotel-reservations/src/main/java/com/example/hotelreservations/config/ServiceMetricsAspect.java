@@ -0,0 +1,69 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.service.exceptions.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Timer {@value #METRIC_NAME} em cada método público do ReservationService, com as tags
+ * {@code method}, {@code outcome} e {@code exception}. O count do timer é o contador por resultado.
+ * <p>
+ * Roda antes do interceptor de transação, então o tempo medido inclui o commit e uma falha de
+ * constraint no flush aparece com o resultado certo.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "reservas.service";
+
+    private static final Map<Class<? extends RuntimeException>, String> OUTCOMES = Map.of(
+            DateIsAlreadyBookedException.class, "date_already_booked",
+            DateInPastException.class, "date_in_past",
+            InvalidDateRangeException.class, "invalid_date_range",
+            ReservationUpdateException.class, "update_rejected",
+            ObjectNotFoundException.class, "not_found",
+            InvalidCursorException.class, "invalid_cursor",
+            ReservationVersionMismatchException.class, "version_mismatch",
+            InvalidSearchQueryException.class, "invalid_search_query",
+            InvalidUnitException.class, "invalid_unit",
+            ObjectOptimisticLockingFailureException.class, "concurrent_update"
+    );
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.example.hotelreservations.service.ReservationService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = OUTCOMES.getOrDefault(e.getClass(), "error");
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Chamadas ao ReservationService por método e resultado")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
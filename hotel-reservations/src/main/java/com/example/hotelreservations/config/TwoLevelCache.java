@@ -0,0 +1,102 @@
+package com.example.hotelreservations.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache em dois níveis: o local (Caffeine) atende a maior parte das leituras e o segundo nível,
+ * compartilhado entre os nós, evita ir ao banco quando o item já foi carregado por outra instância.
+ * Escritas e invalidações são propagadas para os dois, mas só no nó que as fez: o nível local dos
+ * outros nós só enxerga a nova versão quando a entrada dele vence, em {@code reservas.cache.local.ttl}
+ * (padrão 2s). Até lá, esse nó responde com a versão e o ETag anteriores.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final Cache local;
+    private final Cache shared;
+
+    public TwoLevelCache(Cache local, Cache shared) {
+        this.local = local;
+        this.shared = shared;
+    }
+
+    public Cache getLocal() {
+        return local;
+    }
+
+    public Cache getShared() {
+        return shared;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = shared.get(key);
+        if (value != null) {
+            local.put(key, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Valor em cache para " + key + " não é do tipo " + type.getName());
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        try {
+            T loaded = valueLoader.call();
+            put(key, loaded);
+            return loaded;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        shared.put(key, value);
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        shared.evict(key);
+        local.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        shared.clear();
+        local.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.service.DatabaseIdempotencyStore;
+import com.example.hotelreservations.service.InMemoryIndexRefresher;
+import com.example.hotelreservations.service.OutboxRelay;
+import com.example.hotelreservations.service.PendingHoldReaper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo opcional (Java 21+) em que o Tomcat atende cada requisição numa virtual thread.
+ * As chamadas {@code @Transactional} do serviço rodam na própria thread da requisição, então
+ * também passam a ser virtuais. Ativado com {@code reservas.threads.virtual=true}.
+ * <p>
+ * Virtual threads são baratas, mas o pool do Hikari não: o {@link ConnectionPermitFilter} limita
+ * as requisições simultâneas, em todas as rotas menos o feed SSE, às conexões que sobram no pool
+ * depois das dos trabalhos em segundo plano (relay do outbox, reaper, atualização dos índices e
+ * limpeza das chaves de idempotência), e devolve 503 em vez de empilhar threads à espera de conexão.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reservas.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    private final ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // O streaming NDJSON continua fora da thread do Tomcat; usa o mesmo executor virtual
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConnectionPermitFilter> connectionPermitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${reservas.threads.virtual.espera-conexao:2s}") Duration maximumWait,
+            ObjectMapper objectMapper,
+            ObjectProvider<OutboxRelay> outboxRelay,
+            ObjectProvider<PendingHoldReaper> pendingHoldReaper,
+            ObjectProvider<InMemoryIndexRefresher> inMemoryIndexRefresher,
+            ObjectProvider<DatabaseIdempotencyStore> databaseIdempotencyStore
+    ) {
+        int backgroundConnections = outboxRelay.stream().mapToInt(OutboxRelay::backgroundConnections).sum()
+                + (int) pendingHoldReaper.stream().count()
+                + (int) inMemoryIndexRefresher.stream().count()
+                + (int) databaseIdempotencyStore.stream().count();
+        int permits = requestPermits(maximumPoolSize, backgroundConnections);
+        if (maximumPoolSize <= backgroundConnections) {
+            log.warn("Pool de {} conexões não cobre os {} trabalhos em segundo plano; as requisições ficam com {} permissão",
+                    maximumPoolSize, backgroundConnections, permits);
+        }
+        FilterRegistrationBean<ConnectionPermitFilter> registration =
+                new FilterRegistrationBean<>(new ConnectionPermitFilter(permits, maximumWait, objectMapper));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    // Pelo menos uma: um pool menor que os trabalhos em segundo plano ainda atende, devagar
+    static int requestPermits(int maximumPoolSize, int backgroundConnections) {
+        return Math.max(1, maximumPoolSize - backgroundConnections);
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor só existe a partir do Java 21; o projeto ainda compila com 17
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("reservas.threads.virtual=true exige Java 21 ou superior (atual: "
+                    + Runtime.version().feature() + ")", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.hotelreservations.controller;
+
+import com.example.hotelreservations.config.TwoLevelCache;
+import com.example.hotelreservations.dto.CacheStatisticsDTO;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheStatisticsController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @GetMapping("/estatisticas")
+    public ResponseEntity<List<CacheStatisticsDTO>> getStatistics() {
+        List<CacheStatisticsDTO> statistics = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = unwrap(cacheManager.getCache(name));
+            if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                CacheStats stats = caffeine.stats();
+                statistics.add(new CacheStatisticsDTO(name, stats.hitCount(), stats.missCount(),
+                        stats.evictionCount(), stats.hitRate(), caffeine.estimatedSize()));
+            }
+        }
+        return ResponseEntity.ok(statistics);
+    }
+
+    // As estatísticas são as do nível local, que é onde ocorrem os acertos e as remoções por tamanho/TTL
+    private Cache unwrap(Cache cache) {
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            cache = twoLevelCache.getLocal();
+        }
+        return cache;
+    }
+}
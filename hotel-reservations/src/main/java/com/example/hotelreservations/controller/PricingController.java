@@ -0,0 +1,55 @@
+package com.example.hotelreservations.controller;
+
+import com.example.hotelreservations.domain.PricingRule;
+import com.example.hotelreservations.dto.PriceQuoteDTO;
+import com.example.hotelreservations.dto.PricingRuleDTO;
+import com.example.hotelreservations.service.PricingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/precos")
+public class PricingController {
+
+    @Autowired
+    private PricingService pricingService;
+
+    @GetMapping("/regras")
+    public ResponseEntity<List<PricingRule>> getRules() {
+        return ResponseEntity.ok(pricingService.getRules());
+    }
+
+    @PostMapping("/regras")
+    public ResponseEntity<PricingRule> createRule(@RequestBody PricingRuleDTO ruleDTO) {
+        PricingRule createdRule = pricingService.createRule(ruleDTO);
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(createdRule.getId())
+                .toUri();
+        return ResponseEntity.created(uri).body(createdRule);
+    }
+
+    @DeleteMapping("/regras/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Integer id) {
+        pricingService.deleteRule(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Preço das noites de from a to, inclusive, para pessoas hóspedes, calculado pela tabela de diárias compilada
+    @GetMapping("/cotacao")
+    public ResponseEntity<PriceQuoteDTO> quote(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "1") int pessoas
+    ) {
+        return ResponseEntity.ok(pricingService.quote(from, to, Math.max(1, pessoas)));
+    }
+}
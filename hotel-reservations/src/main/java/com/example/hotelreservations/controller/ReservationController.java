@@ -1,14 +1,42 @@
 package com.example.hotelreservations.controller;
 
 import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.AvailabilityCalendarDTO;
+import com.example.hotelreservations.dto.BatchReservationResult;
+import com.example.hotelreservations.dto.CursorPage;
+import com.example.hotelreservations.dto.ReservationCursor;
 import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.dto.ReservationView;
+import com.example.hotelreservations.domain.IdempotencyKey;
+import com.example.hotelreservations.service.IdempotencyService;
+import com.example.hotelreservations.service.ReservationEventBroadcaster;
 import com.example.hotelreservations.service.ReservationService;
+import com.example.hotelreservations.service.exceptions.ReservationVersionMismatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @CrossOrigin("*")
@@ -16,63 +44,275 @@ import java.util.List;
 @RequestMapping("/reservas")
 public class ReservationController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    // A importação valida o lote inteiro de uma vez, então as linhas ficam todas em memória
+    public static final int MAX_BATCH_LINES = 10_000;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 200;
+
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ReservationEventBroadcaster eventBroadcaster;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Com Idempotency-Key, repetições da mesma requisição recebem a resposta da primeira sem criar outra reserva
     @PostMapping
-    public ResponseEntity<Reservation> createReservation(@RequestBody ReservationDTO reservationDTO) {
-        Reservation createdReservation = reservationService.createReservation(reservationDTO);
+    public ResponseEntity<Reservation> createReservation(
+            @RequestBody ReservationDTO reservationDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        Reservation createdReservation;
+        boolean replayed = false;
+        if (idempotencyKey == null) {
+            createdReservation = reservationService.createReservation(reservationDTO);
+        } else {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyKey.MAX_KEY_LENGTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Idempotency-Key deve ter entre 1 e " + IdempotencyKey.MAX_KEY_LENGTH + " caracteres.");
+            }
+            IdempotencyService.Result<Reservation> result = idempotencyService.execute(idempotencyKey, reservationDTO,
+                    Reservation.class, () -> reservationService.createReservation(reservationDTO));
+            createdReservation = result.getValue();
+            replayed = result.isReplayed();
+        }
 
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
                 .buildAndExpand(createdReservation.getId())
                 .toUri();
 
-        return ResponseEntity.created(uri).body(createdReservation);
+        ResponseEntity.BodyBuilder response = ResponseEntity.created(uri);
+        if (replayed) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(createdReservation);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchReservationResult>> importReservations(@RequestBody List<ReservationDTO> reservationDTOs) {
+        if (reservationDTOs.size() > MAX_BATCH_LINES) {
+            throw batchTooLarge();
+        }
+        return ResponseEntity.ok(reservationService.importReservations(reservationDTOs));
+    }
+
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BatchReservationResult>> importReservationsNdjson(InputStream body) throws IOException {
+        List<ReservationDTO> reservationDTOs = new ArrayList<>();
+        // Linha a linha: o corpo deixa de ser lido assim que passa do limite
+        try (MappingIterator<ReservationDTO> lines = objectMapper.readerFor(ReservationDTO.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                if (reservationDTOs.size() == MAX_BATCH_LINES) {
+                    throw batchTooLarge();
+                }
+                reservationDTOs.add(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Linha NDJSON inválida: " + e.getOriginalMessage(), e);
+        }
+        return ResponseEntity.ok(reservationService.importReservations(reservationDTOs));
     }
 
     @GetMapping
-    public ResponseEntity<List<Reservation>> getAllReservations() {
-        List<Reservation> reservations = reservationService.getAllReservations();
-        return ResponseEntity.ok().body(reservations);
+    public ResponseEntity<List<ReservationView>> getAllReservations(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest webRequest
+    ) {
+        if (isCollectionNotModified(webRequest)) {
+            return null;
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ReservationCursor cursor = after == null || after.isBlank() ? null : ReservationCursor.decode(after);
+        CursorPage<ReservationView> page = reservationService.getReservations(cursor, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            String nextCursor = page.getNextCursor().encode();
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("limit", pageSize)
+                    .build()
+                    .toUri();
+            response.header("X-Next-Cursor", nextCursor)
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getContent());
+    }
+
+    // Modo opcional: todas as reservas em NDJSON, escritas à medida que são lidas do banco
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllReservations() {
+        ObjectWriter writer = objectMapper.writerFor(ReservationView.class);
+        StreamingResponseBody body = outputStream -> reservationService.streamAllReservations(reservation -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(reservation));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    // Feed de alterações em SSE, no lugar do polling das listagens; Last-Event-ID retoma de onde o cliente parou
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReservationEvents(
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId
+    ) {
+        Long resumeAfter = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, LAST_EVENT_ID_HEADER + " inválido.", e);
+            }
+        }
+        return eventBroadcaster.subscribe(resumeAfter);
     }
 
+    // Calendário de dias livres e ocupados de uma unidade (por padrão, a unidade padrão), servido do índice em memória
+    @GetMapping("/disponibilidade")
+    public ResponseEntity<AvailabilityCalendarDTO> getAvailabilityCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "" + Unit.DEFAULT_ID) Integer unidadeId
+    ) {
+        return ResponseEntity.ok(reservationService.getAvailabilityCalendar(unidadeId, from, to));
+    }
+
+    // Reservas cujo nomeHospede contém q, ignorando maiúsculas e acentos; quem tem uma palavra começando por q vem antes
+    @GetMapping("/busca")
+    public ResponseEntity<List<ReservationView>> searchReservations(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit
+    ) {
+        return ResponseEntity.ok(reservationService.searchByGuestName(q, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT))));
+    }
+
+    // Com If-None-Match igual à versão atual a resposta é 304, sem serializar o corpo
     @GetMapping("/{id}")
     public ResponseEntity<Reservation> getReservationById(@PathVariable Integer id) {
         Reservation reservation = reservationService.getReservationById(id);
-        return ResponseEntity.ok().body(reservation);
+        return ResponseEntity.ok().eTag(eTag(reservation)).body(reservation);
     }
 
     @GetMapping("/confirmadas")
-    public ResponseEntity<List<Reservation>> getConfirmedReservations() {
-        List<Reservation> reservations = reservationService.findAllConfirmedReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationView>> getConfirmedReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            WebRequest webRequest
+    ) {
+        return getReservationsByStatus(ReservationStatus.CONFIRMADA, from, to, page, size, webRequest);
     }
 
     @GetMapping("/pendentes")
-    public ResponseEntity<List<Reservation>> getPendingReservations() {
-        List<Reservation> reservations = reservationService.findAllPendingReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationView>> getPendingReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            WebRequest webRequest
+    ) {
+        return getReservationsByStatus(ReservationStatus.PENDENTE, from, to, page, size, webRequest);
     }
 
     @GetMapping("/canceladas")
-    public ResponseEntity<List<Reservation>> getCancelledReservations() {
-        List<Reservation> reservations = reservationService.findAllCancelledReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationView>> getCancelledReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            WebRequest webRequest
+    ) {
+        return getReservationsByStatus(ReservationStatus.CANCELADA, from, to, page, size, webRequest);
+    }
+
+    private ResponseEntity<List<ReservationView>> getReservationsByStatus(
+            ReservationStatus status, LocalDate from, LocalDate to, int page, int size, WebRequest webRequest) {
+        if (isCollectionNotModified(webRequest)) {
+            return null;
+        }
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Slice<ReservationView> reservations = reservationService.findReservationsByStatus(status, from, to, pageNumber, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (reservations.hasNext()) {
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", pageNumber + 1)
+                    .replaceQueryParam("size", pageSize)
+                    .build()
+                    .toUri();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(reservations.getContent());
     }
 
+    // Com If-Match a atualização só é aplicada se a reserva ainda estiver na versão do ETag; senão, 412
     @PutMapping("/{id}")
     public ResponseEntity<Reservation> updateReservation(
             @PathVariable Integer id,
-            @RequestBody ReservationDTO reservationDTO
+            @RequestBody ReservationDTO reservationDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        Reservation updatedReservation = reservationService.updateReservation(id, reservationDTO);
-        return ResponseEntity.ok().body(updatedReservation);
+        Reservation updatedReservation = ifMatch == null || ifMatch.trim().equals("*")
+                ? reservationService.updateReservation(id, reservationDTO)
+                : reservationService.updateReservation(id, reservationDTO, parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(updatedReservation)).body(updatedReservation);
     }
 
     @DeleteMapping("/{id}/cancelar")
     public ResponseEntity<Reservation> cancelReservation(@PathVariable Integer id) {
         Reservation canceledReservation = reservationService.cancelReservation(id);
-        return ResponseEntity.ok(canceledReservation);
+        return ResponseEntity.ok().eTag(eTag(canceledReservation)).body(canceledReservation);
+    }
+
+    /*
+     * As listagens usam como ETag a soma dos contadores de alterações das unidades, lida antes da consulta:
+     * uma escrita entre as duas leituras só faz o próximo polling receber 200 de novo, nunca um 304
+     * desatualizado.
+     */
+    private boolean isCollectionNotModified(WebRequest webRequest) {
+        return reservationService.getChangeCounter()
+                .map(counter -> webRequest.checkNotModified("\"" + counter + "\""))
+                .orElse(false);
+    }
+
+    private static ResponseStatusException batchTooLarge() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "A importação aceita no máximo " + MAX_BATCH_LINES + " reservas por requisição.");
+    }
+
+    private static String eTag(Reservation reservation) {
+        return reservation == null || reservation.getVersion() == null ? null : "\"" + reservation.getVersion() + "\"";
+    }
+
+    // If-Match exige comparação forte: ETags fracos (W/) ou malformados nunca casam
+    private static Integer parseVersion(String ifMatch) {
+        String tag = ifMatch.split(",")[0].trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Integer.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // segue para a exceção abaixo
+            }
+        }
+        throw new ReservationVersionMismatchException("If-Match não corresponde a nenhuma versão da reserva.");
     }
 }
@@ -0,0 +1,82 @@
+package com.example.hotelreservations.controller;
+
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.UnitDTO;
+import com.example.hotelreservations.service.UnitService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/unidades")
+public class UnitController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private UnitService unitService;
+
+    @PostMapping
+    public ResponseEntity<Unit> createUnit(@RequestBody UnitDTO unitDTO) {
+        Unit createdUnit = unitService.createUnit(unitDTO);
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(createdUnit.getId())
+                .toUri();
+        return ResponseEntity.created(uri).body(createdUnit);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Unit>> getUnits() {
+        return ResponseEntity.ok(unitService.getUnits());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Unit> getUnitById(@PathVariable Integer id) {
+        return ResponseEntity.ok(unitService.getUnitById(id));
+    }
+
+    // Unidades sem nenhuma noite ocupada entre from e to, servidas do índice em memória
+    @GetMapping("/disponiveis")
+    public ResponseEntity<List<Unit>> getAvailableUnits(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(unitService.findAvailableUnits(from, to));
+    }
+
+    // Unidades livres de from a to que comportam pessoas, ranqueadas pela capacidade mais justa; Link aponta a próxima página
+    @GetMapping("/busca")
+    public ResponseEntity<List<Unit>> searchUnits(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "1") int pessoas,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Slice<Unit> units = unitService.searchUnits(from, to, Math.max(1, pessoas), pageNumber, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (units.hasNext()) {
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", pageNumber + 1)
+                    .replaceQueryParam("size", pageSize)
+                    .build()
+                    .toUri();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(units.getContent());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.hotelreservations.controller.exceptions;
 
 import com.example.hotelreservations.service.exceptions.*;
 import jakarta.servlet.ServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -45,5 +46,61 @@ public class ControllerHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidUnitException.class)
+    public ResponseEntity<StandardError> handleInvalidUnitException(
+            InvalidUnitException e, ServletRequest request) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidPricingRuleException.class)
+    public ResponseEntity<StandardError> handleInvalidPricingRuleException(
+            InvalidPricingRuleException e, ServletRequest request) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidSearchQueryException.class)
+    public ResponseEntity<StandardError> handleInvalidSearchQueryException(
+            InvalidSearchQueryException e, ServletRequest request) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<StandardError> handleInvalidCursorException(
+            InvalidCursorException e, ServletRequest request) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<StandardError> handleIdempotencyKeyInProgressException(
+            IdempotencyKeyInProgressException e, ServletRequest request) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.CONFLICT.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).header("Retry-After", "1").body(error);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<StandardError> handleIdempotencyKeyReusedException(
+            IdempotencyKeyReusedException e, ServletRequest request) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
+    @ExceptionHandler(ReservationVersionMismatchException.class)
+    public ResponseEntity<StandardError> handleReservationVersionMismatchException(
+            ReservationVersionMismatchException e, ServletRequest request) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.PRECONDITION_FAILED.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    // Duas escritas simultâneas na mesma reserva: a @Version rejeita a que fez o flush por último
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<StandardError> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException e, ServletRequest request) {
+        StandardError error = new StandardError(LocalDateTime.now(), HttpStatus.CONFLICT.value(),
+                "A reserva foi alterada por outra requisição. Consulte a versão atual e tente novamente.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
 }
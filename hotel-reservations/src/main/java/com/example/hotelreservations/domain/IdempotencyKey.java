@@ -0,0 +1,101 @@
+package com.example.hotelreservations.domain;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Resposta guardada para um cabeçalho Idempotency-Key. Enquanto a primeira execução não termina,
+ * {@link #responseBody} fica nulo e a chave funciona como uma trava: a chave primária impede que
+ * duas instâncias da aplicação executem a mesma requisição.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_created_at", columnList = "createdAt")
+})
+public class IdempotencyKey implements Persistable<String>, Serializable {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Id
+    @Column(length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    // SHA-256 do corpo da requisição, em hexadecimal
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(length = 4000)
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Sempre INSERT: um merge tomaria a chave de outra requisição em vez de violar a chave primária
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyKey(String idempotencyKey, String requestHash, String responseBody, Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.responseBody = responseBody;
+        this.createdAt = createdAt;
+    }
+
+    public IdempotencyKey() {
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public boolean isCompleted() {
+        return responseBody != null;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.hotelreservations.domain;
+
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Evento de reserva a entregar aos sistemas externos (governança, faturamento, channel manager).
+ * É gravado na mesma transação da alteração da reserva e apagado pelo relay depois de entregue;
+ * o payload é o JSON da reserva como ficou, com a {@code version} para o consumidor descartar
+ * eventos fora de ordem.
+ *
+ * A partição (reservation_id módulo {@value #PARTITIONS}) é gravada junto, com índice, para o relay
+ * ler o próximo lote de uma partição sem varrer a tabela. O número de partições é fixo e não depende
+ * do paralelismo de cada nó.
+ *
+ * O id sai da sequence de um em um, sem blocos por nó: a reserva só é alterada a partir da versão já
+ * confirmada (a {@code version} recusa as concorrentes), então o evento da versão seguinte sempre
+ * recebe um id maior, qualquer que seja o nó, e o relay pode entregar em ordem de id.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_partition", columnList = "partitionKey, id")
+})
+public class OutboxEvent implements Serializable {
+
+    public static final int PARTITIONS = 16;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationEventType eventType;
+
+    @Column(nullable = false)
+    private Integer reservationId;
+
+    @Column(nullable = false)
+    private Integer partitionKey;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public OutboxEvent(ReservationEventType eventType, Integer reservationId, String payload, Instant createdAt) {
+        this.eventType = eventType;
+        this.reservationId = reservationId;
+        this.partitionKey = partitionOf(reservationId);
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public OutboxEvent() {
+    }
+
+    public static int partitionOf(int reservationId) {
+        return Math.floorMod(reservationId, PARTITIONS);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ReservationEventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(ReservationEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Integer getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Integer reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    @JsonIgnore
+    public Integer getPartitionKey() {
+        return partitionKey;
+    }
+
+    public void setPartitionKey(Integer partitionKey) {
+        this.partitionKey = partitionKey;
+    }
+
+    // Já é JSON: entra como objeto na mensagem entregue, não como string escapada
+    @JsonRawValue
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.hotelreservations.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Lease de uma partição do outbox. Só o nó em {@code leaseOwner} entrega os eventos da partição até
+ * {@code leaseUntil}; assim os eventos de uma reserva saem em ordem mesmo com o relay em vários nós.
+ * Há uma linha por partição, de 0 a {@link OutboxEvent#PARTITIONS} - 1.
+ */
+@Entity
+@Table(name = "outbox_partition")
+public class OutboxPartition implements Serializable {
+
+    @Id
+    private Integer id;
+
+    @Column(length = 64)
+    private String leaseOwner;
+
+    private Instant leaseUntil;
+
+    public OutboxPartition(Integer id) {
+        this.id = id;
+    }
+
+    public OutboxPartition() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(Instant leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+}
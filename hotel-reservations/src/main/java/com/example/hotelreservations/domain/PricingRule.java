@@ -0,0 +1,121 @@
+package com.example.hotelreservations.domain;
+
+import com.example.hotelreservations.dto.PricingRuleType;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Regra de preço da diária. O significado de {@code valor} depende do tipo:
+ * <ul>
+ *     <li>{@code BASE}: valor da diária; vale a regra BASE mais recente.</li>
+ *     <li>{@code TEMPORADA}: percentual sobre a base nas noites de {@code dataInicio} a {@code dataFim}.</li>
+ *     <li>{@code DIA_SEMANA}: percentual sobre a base nas noites de {@code diaSemana}.</li>
+ *     <li>{@code ESTADIA}: percentual de desconto nas diárias de estadias com pelo menos {@code minimoNoites}.</li>
+ *     <li>{@code PESSOA_EXTRA}: valor por noite de cada pessoa além de {@code pessoasIncluidas}; vale a mais recente.</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "pricing_rule")
+public class PricingRule implements Serializable {
+
+    // Regras mudam raramente, sem alocação em blocos
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pricing_rule_seq")
+    @SequenceGenerator(name = "pricing_rule_seq", sequenceName = "pricing_rule_seq", allocationSize = 1)
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PricingRuleType tipo;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal valor;
+
+    private LocalDate dataInicio;
+
+    private LocalDate dataFim;
+
+    @Enumerated(EnumType.STRING)
+    private DayOfWeek diaSemana;
+
+    private Integer minimoNoites;
+
+    private Integer pessoasIncluidas;
+
+    public PricingRule(Integer id, PricingRuleType tipo, BigDecimal valor) {
+        this.id = id;
+        this.tipo = tipo;
+        this.valor = valor;
+    }
+
+    public PricingRule() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public PricingRuleType getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(PricingRuleType tipo) {
+        this.tipo = tipo;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public DayOfWeek getDiaSemana() {
+        return diaSemana;
+    }
+
+    public void setDiaSemana(DayOfWeek diaSemana) {
+        this.diaSemana = diaSemana;
+    }
+
+    public Integer getMinimoNoites() {
+        return minimoNoites;
+    }
+
+    public void setMinimoNoites(Integer minimoNoites) {
+        this.minimoNoites = minimoNoites;
+    }
+
+    public Integer getPessoasIncluidas() {
+        return pessoasIncluidas;
+    }
+
+    public void setPessoasIncluidas(Integer pessoasIncluidas) {
+        this.pessoasIncluidas = pessoasIncluidas;
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.hotelreservations.domain;
 
 import com.example.hotelreservations.controller.ReservationStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_reservation_status_periodo", columnList = "status, dataInicio, dataFim"),
+        @Index(name = "idx_reservation_data_inicio_id", columnList = "dataInicio, id"),
+        @Index(name = "idx_reservation_unidade_periodo", columnList = "unidadeId, dataInicio, dataFim"),
+        @Index(name = "idx_reservation_status_expira_em", columnList = "status, expiraEm"),
+        @Index(name = "idx_reservation_unidade_alteracao", columnList = "unidadeId, changeCounter")
+})
 public class Reservation implements Serializable {
 
+    // Sequência com alocação em blocos (otimizador pooled-lo): o id sai sem ida ao banco e o Hibernate pode agrupar os INSERTs em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
     private Integer id;
 
     private String nomeHospede;
@@ -21,6 +32,24 @@ public class Reservation implements Serializable {
     @Enumerated(EnumType.STRING)
     private ReservationStatus status;
 
+    // Sem unidade informada, a reserva é da unidade padrão
+    @Column(nullable = false)
+    private Integer unidadeId = Unit.DEFAULT_ID;
+
+    // Só em reservas PENDENTE: depois disso o reaper cancela a reserva e libera as noites
+    private Instant expiraEm;
+
+    // Incrementada pelo Hibernate a cada alteração; é o ETag de GET /reservas/{id} e a base do If-Match no PUT
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
+    // Valor do contador de alterações da unidade na última escrita, gravado por UPDATE no fim da transação;
+    // os outros nós releem só as reservas acima do último valor que viram
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Long changeCounter;
+
     public Reservation(Integer id, String nomeHospede, LocalDate dataInicio, LocalDate dataFim, Integer quantidadePessoas, ReservationStatus status) {
         this.id = id;
         this.nomeHospede = nomeHospede;
@@ -80,4 +109,32 @@ public class Reservation implements Serializable {
     public void setStatus(ReservationStatus status) {
         this.status = status;
     }
+
+    public Integer getUnidadeId() {
+        return unidadeId;
+    }
+
+    public void setUnidadeId(Integer unidadeId) {
+        this.unidadeId = unidadeId;
+    }
+
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(Instant expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public Long getChangeCounter() {
+        return changeCounter;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
 }
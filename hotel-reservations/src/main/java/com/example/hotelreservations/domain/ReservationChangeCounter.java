@@ -0,0 +1,47 @@
+package com.example.hotelreservations.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+
+/**
+ * Contador de alterações nas reservas de uma unidade; o id é o da unidade. Toda transação que cria,
+ * altera ou cancela reservas incrementa, antes do commit, a linha de cada unidade que tocou, então
+ * escritas em unidades diferentes não esperam umas pelas outras. A soma das linhas só cresce e é o
+ * ETag das listagens: um polling sem mudanças responde 304 lendo só esta tabela. Por estar no banco
+ * vale entre vários nós.
+ */
+@Entity
+@Table(name = "reservation_change_counter")
+public class ReservationChangeCounter implements Serializable {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long counter;
+
+    public ReservationChangeCounter(Integer id, Long counter) {
+        this.id = id;
+        this.counter = counter;
+    }
+
+    public ReservationChangeCounter() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getCounter() {
+        return counter;
+    }
+
+    public void setCounter(Long counter) {
+        this.counter = counter;
+    }
+}
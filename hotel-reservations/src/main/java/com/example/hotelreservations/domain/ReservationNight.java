@@ -0,0 +1,82 @@
+package com.example.hotelreservations.domain;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Uma noite de uma unidade ocupada por uma reserva ativa. A chave primária (unidade, noite) impede,
+ * no próprio banco, que duas reservas ocupem a mesma noite da mesma unidade, mesmo com várias
+ * instâncias da aplicação.
+ */
+@Entity
+@IdClass(ReservationNightId.class)
+@Table(name = "reservation_night", indexes = {
+        @Index(name = "idx_reservation_night_reservation", columnList = "reservationId")
+})
+public class ReservationNight implements Persistable<ReservationNightId>, Serializable {
+
+    @Id
+    private Integer unidadeId;
+
+    @Id
+    private LocalDate night;
+
+    @Column(nullable = false)
+    private Integer reservationId;
+
+    // Sempre INSERT: um merge sobrescreveria a noite de outra reserva em vez de violar a chave
+    @Transient
+    private boolean isNew = true;
+
+    public ReservationNight(Integer unidadeId, LocalDate night, Integer reservationId) {
+        this.unidadeId = unidadeId;
+        this.night = night;
+        this.reservationId = reservationId;
+    }
+
+    public ReservationNight() {
+    }
+
+    @Override
+    public ReservationNightId getId() {
+        return new ReservationNightId(unidadeId, night);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public Integer getUnidadeId() {
+        return unidadeId;
+    }
+
+    public void setUnidadeId(Integer unidadeId) {
+        this.unidadeId = unidadeId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    public void setNight(LocalDate night) {
+        this.night = night;
+    }
+
+    public Integer getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Integer reservationId) {
+        this.reservationId = reservationId;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.hotelreservations.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Chave de reservation_night: uma noite de uma unidade
+public class ReservationNightId implements Serializable {
+
+    private Integer unidadeId;
+    private LocalDate night;
+
+    public ReservationNightId(Integer unidadeId, LocalDate night) {
+        this.unidadeId = unidadeId;
+        this.night = night;
+    }
+
+    public ReservationNightId() {
+    }
+
+    public Integer getUnidadeId() {
+        return unidadeId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReservationNightId other)) {
+            return false;
+        }
+        return Objects.equals(unidadeId, other.unidadeId) && Objects.equals(night, other.night);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(unidadeId, night);
+    }
+}
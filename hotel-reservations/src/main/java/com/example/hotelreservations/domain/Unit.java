@@ -0,0 +1,75 @@
+package com.example.hotelreservations.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+
+/**
+ * Unidade reservável (quarto, chalé, apartamento). Cada reserva ocupa uma unidade, e a disponibilidade
+ * é checada por unidade: duas reservas nas mesmas datas só conflitam se forem na mesma unidade.
+ * <p>
+ * A unidade {@value #DEFAULT_ID} é criada junto com o esquema e recebe as reservas sem {@code unidadeId},
+ * então clientes anteriores ao cadastro de unidades continuam reservando o mesmo estoque de antes.
+ */
+@Entity
+@Table(name = "unit", uniqueConstraints = @UniqueConstraint(name = "uk_unit_nome", columnNames = "nome"))
+public class Unit implements Serializable {
+
+    public static final int DEFAULT_ID = 1;
+
+    // Sequência a partir de 2, já que o id 1 é a unidade padrão; unidades são cadastradas raramente, sem alocação em blocos
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "unit_seq")
+    @SequenceGenerator(name = "unit_seq", sequenceName = "unit_seq", initialValue = 2, allocationSize = 1)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String nome;
+
+    private String tipo;
+
+    // Máximo de pessoas; nulo quando a unidade não tem limite (caso da unidade padrão)
+    private Integer capacidade;
+
+    public Unit(Integer id, String nome, String tipo, Integer capacidade) {
+        this.id = id;
+        this.nome = nome;
+        this.tipo = tipo;
+        this.capacidade = capacidade;
+    }
+
+    public Unit() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Integer getCapacidade() {
+        return capacidade;
+    }
+
+    public void setCapacidade(Integer capacidade) {
+        this.capacidade = capacidade;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.hotelreservations.dto;
+
+public class BatchReservationResult {
+    private int index;
+    private boolean success;
+    private Integer id;
+    private String message;
+
+    public BatchReservationResult(int index, boolean success, Integer id, String message) {
+        this.index = index;
+        this.success = success;
+        this.id = id;
+        this.message = message;
+    }
+
+    public BatchReservationResult() {
+    }
+
+    public static BatchReservationResult created(int index, Integer id) {
+        return new BatchReservationResult(index, true, id, null);
+    }
+
+    public static BatchReservationResult rejected(int index, String message) {
+        return new BatchReservationResult(index, false, null, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.hotelreservations.dto;
+
+import java.util.List;
+
+public class CursorPage<T> {
+    private final List<T> content;
+    private final ReservationCursor nextCursor;
+
+    public CursorPage(List<T> content, ReservationCursor nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    // null quando esta é a última página
+    public ReservationCursor getNextCursor() {
+        return nextCursor;
+    }
+}
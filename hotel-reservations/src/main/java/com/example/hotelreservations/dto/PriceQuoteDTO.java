@@ -0,0 +1,94 @@
+package com.example.hotelreservations.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class PriceQuoteDTO {
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private Integer noites;
+    private Integer quantidadePessoas;
+    private BigDecimal diarias;
+    private BigDecimal acrescimoPessoas;
+    private BigDecimal desconto;
+    private BigDecimal total;
+
+    public PriceQuoteDTO(LocalDate dataInicio, LocalDate dataFim, Integer noites, Integer quantidadePessoas,
+                         BigDecimal diarias, BigDecimal acrescimoPessoas, BigDecimal desconto, BigDecimal total) {
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.noites = noites;
+        this.quantidadePessoas = quantidadePessoas;
+        this.diarias = diarias;
+        this.acrescimoPessoas = acrescimoPessoas;
+        this.desconto = desconto;
+        this.total = total;
+    }
+
+    public PriceQuoteDTO() {
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public Integer getNoites() {
+        return noites;
+    }
+
+    public void setNoites(Integer noites) {
+        this.noites = noites;
+    }
+
+    public Integer getQuantidadePessoas() {
+        return quantidadePessoas;
+    }
+
+    public void setQuantidadePessoas(Integer quantidadePessoas) {
+        this.quantidadePessoas = quantidadePessoas;
+    }
+
+    public BigDecimal getDiarias() {
+        return diarias;
+    }
+
+    public void setDiarias(BigDecimal diarias) {
+        this.diarias = diarias;
+    }
+
+    public BigDecimal getAcrescimoPessoas() {
+        return acrescimoPessoas;
+    }
+
+    public void setAcrescimoPessoas(BigDecimal acrescimoPessoas) {
+        this.acrescimoPessoas = acrescimoPessoas;
+    }
+
+    public BigDecimal getDesconto() {
+        return desconto;
+    }
+
+    public void setDesconto(BigDecimal desconto) {
+        this.desconto = desconto;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
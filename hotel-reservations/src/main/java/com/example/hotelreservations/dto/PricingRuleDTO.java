@@ -0,0 +1,79 @@
+package com.example.hotelreservations.dto;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public class PricingRuleDTO {
+    private PricingRuleType tipo;
+    private BigDecimal valor;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private DayOfWeek diaSemana;
+    private Integer minimoNoites;
+    private Integer pessoasIncluidas;
+
+    public PricingRuleDTO(PricingRuleType tipo, BigDecimal valor) {
+        this.tipo = tipo;
+        this.valor = valor;
+    }
+
+    public PricingRuleDTO() {
+    }
+
+    public PricingRuleType getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(PricingRuleType tipo) {
+        this.tipo = tipo;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public DayOfWeek getDiaSemana() {
+        return diaSemana;
+    }
+
+    public void setDiaSemana(DayOfWeek diaSemana) {
+        this.diaSemana = diaSemana;
+    }
+
+    public Integer getMinimoNoites() {
+        return minimoNoites;
+    }
+
+    public void setMinimoNoites(Integer minimoNoites) {
+        this.minimoNoites = minimoNoites;
+    }
+
+    public Integer getPessoasIncluidas() {
+        return pessoasIncluidas;
+    }
+
+    public void setPessoasIncluidas(Integer pessoasIncluidas) {
+        this.pessoasIncluidas = pessoasIncluidas;
+    }
+}
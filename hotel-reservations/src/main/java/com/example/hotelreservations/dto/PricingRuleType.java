@@ -0,0 +1,9 @@
+package com.example.hotelreservations.dto;
+
+public enum PricingRuleType {
+    BASE,
+    TEMPORADA,
+    DIA_SEMANA,
+    ESTADIA,
+    PESSOA_EXTRA
+}
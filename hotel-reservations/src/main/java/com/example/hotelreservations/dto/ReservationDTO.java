@@ -10,6 +10,8 @@ public class ReservationDTO {
     private LocalDate dataFim;
     private int quantidadePessoas;
     private ReservationStatus status;
+    // Opcional: sem ela a reserva vai para a unidade padrão (na atualização, fica na unidade atual)
+    private Integer unidadeId;
 
     // Getters, setters e construtor
 
@@ -21,6 +23,12 @@ public class ReservationDTO {
         this.status = status;
     }
 
+    public ReservationDTO(String nomeHospede, LocalDate dataInicio, LocalDate dataFim, int quantidadePessoas,
+                          ReservationStatus status, Integer unidadeId) {
+        this(nomeHospede, dataInicio, dataFim, quantidadePessoas, status);
+        this.unidadeId = unidadeId;
+    }
+
     public ReservationDTO() {
     }
 
@@ -64,4 +72,12 @@ public class ReservationDTO {
         this.status = status;
     }
 
+    public Integer getUnidadeId() {
+        return unidadeId;
+    }
+
+    public void setUnidadeId(Integer unidadeId) {
+        this.unidadeId = unidadeId;
+    }
+
 }
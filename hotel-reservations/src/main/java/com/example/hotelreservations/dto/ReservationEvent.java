@@ -0,0 +1,29 @@
+package com.example.hotelreservations.dto;
+
+/**
+ * Evento do feed de alterações (GET /reservas/eventos), com a reserva como ficou depois do commit.
+ * O id cresce a cada evento e é o valor que o cliente devolve em Last-Event-ID para retomar o feed.
+ */
+public class ReservationEvent {
+    private final long id;
+    private final ReservationEventType type;
+    private final ReservationView reservation;
+
+    public ReservationEvent(long id, ReservationEventType type, ReservationView reservation) {
+        this.id = id;
+        this.type = type;
+        this.reservation = reservation;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public ReservationEventType getType() {
+        return type;
+    }
+
+    public ReservationView getReservation() {
+        return reservation;
+    }
+}
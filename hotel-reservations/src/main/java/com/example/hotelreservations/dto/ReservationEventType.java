@@ -0,0 +1,7 @@
+package com.example.hotelreservations.dto;
+
+public enum ReservationEventType {
+    CRIADA,
+    ATUALIZADA,
+    CANCELADA
+}
@@ -0,0 +1,66 @@
+package com.example.hotelreservations.dto;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção somente leitura de uma reserva, usada nas listagens. É montada pela própria consulta
+ * (expressão de construtor no JPQL), então não entra no contexto de persistência, não tem snapshot
+ * para dirty checking e a serialização não toca em entidades gerenciadas. O JSON é o mesmo da entidade.
+ */
+public class ReservationView {
+    private final Integer id;
+    private final String nomeHospede;
+    private final LocalDate dataInicio;
+    private final LocalDate dataFim;
+    private final Integer quantidadePessoas;
+    private final ReservationStatus status;
+    private final Integer unidadeId;
+
+    public ReservationView(Integer id, String nomeHospede, LocalDate dataInicio, LocalDate dataFim,
+                           Integer quantidadePessoas, ReservationStatus status, Integer unidadeId) {
+        this.id = id;
+        this.nomeHospede = nomeHospede;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.quantidadePessoas = quantidadePessoas;
+        this.status = status;
+        this.unidadeId = unidadeId;
+    }
+
+    public static ReservationView from(Reservation reservation) {
+        return new ReservationView(reservation.getId(), reservation.getNomeHospede(), reservation.getDataInicio(),
+                reservation.getDataFim(), reservation.getQuantidadePessoas(), reservation.getStatus(),
+                reservation.getUnidadeId());
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getNomeHospede() {
+        return nomeHospede;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public Integer getQuantidadePessoas() {
+        return quantidadePessoas;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public Integer getUnidadeId() {
+        return unidadeId;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.hotelreservations.dto;
+
+public class UnitDTO {
+    private String nome;
+    private String tipo;
+    private Integer capacidade;
+
+    public UnitDTO(String nome, String tipo, Integer capacidade) {
+        this.nome = nome;
+        this.tipo = tipo;
+        this.capacidade = capacidade;
+    }
+
+    public UnitDTO() {
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Integer getCapacidade() {
+        return capacidade;
+    }
+
+    public void setCapacidade(Integer capacidade) {
+        this.capacidade = capacidade;
+    }
+}
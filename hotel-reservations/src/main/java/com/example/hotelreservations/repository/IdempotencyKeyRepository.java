@@ -0,0 +1,40 @@
+package com.example.hotelreservations.repository;
+
+import com.example.hotelreservations.domain.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // A reserva da chave é identificada pelo created_at: uma execução que perdeu o lease não grava a resposta
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey obj SET obj.responseBody = :responseBody WHERE obj.idempotencyKey = :idempotencyKey " +
+            "AND obj.createdAt = :claimedAt AND obj.responseBody IS NULL")
+    int complete(@Param("idempotencyKey") String idempotencyKey, @Param("claimedAt") Instant claimedAt,
+                 @Param("responseBody") String responseBody);
+
+    // Só remove a trava de uma execução que não terminou; uma resposta já guardada continua valendo
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey obj WHERE obj.idempotencyKey = :idempotencyKey AND obj.createdAt = :claimedAt " +
+            "AND obj.responseBody IS NULL")
+    int deletePending(@Param("idempotencyKey") String idempotencyKey, @Param("claimedAt") Instant claimedAt);
+
+    // Resposta expirada ou reserva abandonada, lida antes pelo chamador
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey obj WHERE obj.idempotencyKey = :idempotencyKey AND obj.createdAt = :createdAt")
+    int deleteClaim(@Param("idempotencyKey") String idempotencyKey, @Param("createdAt") Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey obj WHERE obj.createdAt < :cutoff")
+    int deleteAllExpired(@Param("cutoff") Instant cutoff);
+
+}
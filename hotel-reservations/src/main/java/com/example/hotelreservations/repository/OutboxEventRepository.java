@@ -0,0 +1,22 @@
+package com.example.hotelreservations.repository;
+
+import com.example.hotelreservations.domain.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Sem trava: só o dono do lease da partição lê e apaga as linhas dela (idx_outbox_event_partition)
+    @Query("SELECT obj FROM OutboxEvent obj WHERE obj.partitionKey = :partition ORDER BY obj.id")
+    List<OutboxEvent> findNextBatch(int partition, Pageable pageable);
+
+    // Uma consulta por ciclo do relay; com o outbox vazio é a única. EXISTS por partição em vez de DISTINCT:
+    // uma busca no índice idx_outbox_event_partition para cada uma das 16, mesmo com a fila grande
+    @Query("SELECT p.id FROM OutboxPartition p" +
+            " WHERE EXISTS (SELECT 1 FROM OutboxEvent obj WHERE obj.partitionKey = p.id)")
+    List<Integer> findPendingPartitions();
+
+}
@@ -0,0 +1,23 @@
+package com.example.hotelreservations.repository;
+
+import com.example.hotelreservations.domain.OutboxPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+public interface OutboxPartitionRepository extends JpaRepository<OutboxPartition, Integer> {
+
+    // Toma ou renova o lease: vale se a partição está livre, vencida ou já é deste nó. Retorna 0 se outro nó a tem
+    @Modifying
+    @Query("UPDATE OutboxPartition obj SET obj.leaseOwner = :owner, obj.leaseUntil = :until" +
+            " WHERE obj.id = :partition AND (obj.leaseOwner IS NULL OR obj.leaseOwner = :owner OR obj.leaseUntil < :now)")
+    int acquire(int partition, String owner, Instant now, Instant until);
+
+    @Modifying
+    @Query("UPDATE OutboxPartition obj SET obj.leaseOwner = NULL, obj.leaseUntil = NULL" +
+            " WHERE obj.id = :partition AND obj.leaseOwner = :owner")
+    int release(int partition, String owner);
+
+}
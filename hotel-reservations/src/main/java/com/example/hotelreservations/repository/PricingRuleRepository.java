@@ -0,0 +1,7 @@
+package com.example.hotelreservations.repository;
+
+import com.example.hotelreservations.domain.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Integer> {
+}
@@ -0,0 +1,20 @@
+package com.example.hotelreservations.repository;
+
+import com.example.hotelreservations.domain.ReservationChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface ReservationChangeCounterRepository extends JpaRepository<ReservationChangeCounter, Integer> {
+
+    @Modifying
+    @Query("UPDATE ReservationChangeCounter obj SET obj.counter = obj.counter + 1 WHERE obj.id = :unitId")
+    int increment(Integer unitId);
+
+    // Vazio sem nenhuma linha (SUM de nada é NULL)
+    @Query("SELECT SUM(obj.counter) FROM ReservationChangeCounter obj")
+    Optional<Long> current();
+
+}
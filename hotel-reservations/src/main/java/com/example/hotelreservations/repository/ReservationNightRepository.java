@@ -0,0 +1,26 @@
+package com.example.hotelreservations.repository;
+
+import com.example.hotelreservations.domain.ReservationNight;
+import com.example.hotelreservations.domain.ReservationNightId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface ReservationNightRepository extends JpaRepository<ReservationNight, ReservationNightId> {
+
+    // Alguma noite de [from, to] já reservada na unidade; só lê a chave primária (unidade, noite)
+    boolean existsByUnidadeIdAndNightBetween(Integer unidadeId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM ReservationNight obj WHERE obj.reservationId = :reservationId")
+    void deleteByReservationId(@Param("reservationId") Integer reservationId);
+
+    @Modifying
+    @Query("DELETE FROM ReservationNight obj WHERE obj.reservationId IN :reservationIds")
+    void deleteByReservationIdIn(@Param("reservationIds") Collection<Integer> reservationIds);
+
+}
@@ -2,30 +2,123 @@ package com.example.hotelreservations.repository;
 
 import com.example.hotelreservations.controller.ReservationStatus;
 import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Integer> {
-    @Query("SELECT obj FROM Reservation obj WHERE obj.status = 'CONFIRMADA'")
-    List<Reservation> findAllConfirmed();
-
-    // Consulta para reservas com status PENDENTE
-    @Query("SELECT obj FROM Reservation obj WHERE obj.status = 'PENDENTE'")
-    List<Reservation> findAllPending();
-
-    // Consulta para reservas com status CANCELADO
-    @Query("SELECT obj FROM Reservation obj WHERE obj.status = 'CANCELADA'")
-    List<Reservation> findAllCancelled();
-
-    @Query("SELECT obj FROM Reservation obj WHERE obj.dataInicio <= :endDate AND obj.dataFim >= :startDate AND obj.status = :status")
-    List<Reservation> findByDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatus(
-            @Param("endDate") LocalDate endDate,
-            @Param("startDate") LocalDate startDate,
-            @Param("status") ReservationStatus status
+    // As listagens devolvem ReservationView direto do SELECT, sem materializar entidades
+    String SELECT_VIEW = "SELECT new com.example.hotelreservations.dto.ReservationView(" +
+            "obj.id, obj.nomeHospede, obj.dataInicio, obj.dataFim, obj.quantidadePessoas, obj.status, obj.unidadeId) FROM Reservation obj";
+
+    /*
+     * Listagem por status com janela opcional em dataInicio, uma consulta por forma da janela. Com um
+     * filtro "(:from IS NULL OR ...)" o plano é preparado sem saber se há limite e não usa o intervalo
+     * do prefixo (status, dataInicio) do índice composto.
+     */
+    @Query(SELECT_VIEW + " WHERE obj.status = :status")
+    Slice<ReservationView> findByStatus(@Param("status") ReservationStatus status, Pageable pageable);
+
+    @Query(SELECT_VIEW + " WHERE obj.status = :status AND obj.dataInicio >= :from")
+    Slice<ReservationView> findByStatusStartingFrom(@Param("status") ReservationStatus status, @Param("from") LocalDate from,
+                                                    Pageable pageable);
+
+    @Query(SELECT_VIEW + " WHERE obj.status = :status AND obj.dataInicio <= :to")
+    Slice<ReservationView> findByStatusStartingUntil(@Param("status") ReservationStatus status, @Param("to") LocalDate to,
+                                                     Pageable pageable);
+
+    @Query(SELECT_VIEW + " WHERE obj.status = :status AND obj.dataInicio BETWEEN :from AND :to")
+    Slice<ReservationView> findByStatusStartingBetween(@Param("status") ReservationStatus status, @Param("from") LocalDate from,
+                                                       @Param("to") LocalDate to, Pageable pageable);
+
+    // Sobreposição numa unidade, servida pelo índice (unidadeId, dataInicio, dataFim)
+    boolean existsByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusIn(
+            Integer unidadeId,
+            LocalDate endDate,
+            LocalDate startDate,
+            Collection<ReservationStatus> statuses
+    );
+
+    List<Reservation> findAllByStatusIn(Collection<ReservationStatus> statuses);
+
+    List<Reservation> findAllByUnidadeIdInAndStatusIn(Collection<Integer> unidadeIds, Collection<ReservationStatus> statuses);
+
+    // Grava nas reservas o contador atual da unidade de cada uma, já incrementado na mesma transação
+    @Modifying
+    @Query("UPDATE Reservation obj SET obj.changeCounter =" +
+            " (SELECT c.counter FROM ReservationChangeCounter c WHERE c.id = obj.unidadeId) WHERE obj.id IN :ids")
+    int stampChangeCounter(Collection<Integer> ids);
+
+    // Reservas da unidade, de qualquer status, gravadas depois do contador informado
+    @Query("SELECT obj FROM Reservation obj WHERE obj.unidadeId = :unitId AND obj.changeCounter > :counter")
+    List<Reservation> findChangedSince(Integer unitId, long counter);
+
+    /*
+     * Próximo lote de reservas PENDENTE vencidas, pelo índice (status, expiraEm), travado até o fim da
+     * transação do reaper. Timeout -2 vira FOR UPDATE SKIP LOCKED onde o dialeto suporta (PostgreSQL):
+     * os reapers de vários nós dividem as vencidas em vez de esperar uns pelos outros. No H2 fica um
+     * FOR UPDATE comum.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT obj FROM Reservation obj WHERE obj.status = :status AND obj.expiraEm <= :now ORDER BY obj.expiraEm, obj.id")
+    List<Reservation> claimExpiredHolds(@Param("status") ReservationStatus status, @Param("now") Instant now, Pageable pageable);
+
+    List<Reservation> findAllByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusInOrderByDataInicio(
+            Integer unidadeId,
+            LocalDate endDate,
+            LocalDate startDate,
+            Collection<ReservationStatus> statuses
+    );
+
+    List<Reservation> findAllByUnidadeIdInAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusInOrderByDataInicio(
+            Collection<Integer> unidadeIds,
+            LocalDate endDate,
+            LocalDate startDate,
+            Collection<ReservationStatus> statuses
     );
 
+    // Paginação por keyset sobre (dataInicio, id), servida pelo índice de mesmo nome
+    @Query(SELECT_VIEW + " ORDER BY obj.dataInicio, obj.id")
+    List<ReservationView> findFirstPage(Pageable pageable);
+
+    @Query(SELECT_VIEW + " WHERE obj.dataInicio > :dataInicio OR (obj.dataInicio = :dataInicio AND obj.id > :id) ORDER BY obj.dataInicio, obj.id")
+    List<ReservationView> findPageAfter(
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("id") Integer id,
+            Pageable pageable
+    );
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VIEW + " ORDER BY obj.dataInicio, obj.id")
+    Stream<ReservationView> streamAll();
+
+    // Carga do índice de nomes em ordem de id, para as listas de cada trigrama crescerem só pelo fim
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VIEW + " ORDER BY obj.id")
+    Stream<ReservationView> streamAllOrderById();
+
+    @Query(SELECT_VIEW + " WHERE obj.id IN :ids")
+    List<ReservationView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Antes da carga do índice de nomes: sem distinção de maiúsculas, mas sensível a acentos
+    @Query(SELECT_VIEW + " WHERE LOWER(obj.nomeHospede) LIKE :pattern ESCAPE '\\' ORDER BY obj.id DESC")
+    List<ReservationView> searchByGuestName(@Param("pattern") String pattern, Pageable pageable);
+
 }
@@ -0,0 +1,29 @@
+package com.example.hotelreservations.repository;
+
+import com.example.hotelreservations.domain.Unit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UnitRepository extends JpaRepository<Unit, Integer> {
+
+    boolean existsByNome(String nome);
+
+    // Antes da carga do índice: unidades sem nenhuma noite ocupada no período, numa única consulta pela chave de reservation_night
+    @Query("SELECT u FROM Unit u WHERE NOT EXISTS (SELECT 1 FROM ReservationNight n " +
+            "WHERE n.unidadeId = u.id AND n.night BETWEEN :startDate AND :endDate) ORDER BY u.id")
+    List<Unit> findAvailable(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Mesma busca com capacidade, na ordem de ReservationAvailabilityIndex.BEST_FIT
+    @Query("SELECT u FROM Unit u WHERE (u.capacidade IS NULL OR u.capacidade >= :guests) AND NOT EXISTS (" +
+            "SELECT 1 FROM ReservationNight n WHERE n.unidadeId = u.id AND n.night BETWEEN :startDate AND :endDate) " +
+            "ORDER BY u.capacidade NULLS LAST, u.id")
+    Slice<Unit> searchAvailable(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                @Param("guests") int guests, Pageable pageable);
+
+}
@@ -0,0 +1,36 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.service.exceptions.InvalidDateRangeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Até quando se pode reservar ({@code reservas.horizonte}, a partir de hoje). Vale para as escritas e
+ * para as consultas servidas pelo índice de disponibilidade, que guarda um bitmap por unidade até a
+ * última noite reservada: sem limite, uma data milhões de anos à frente alocaria centenas de MB.
+ */
+@Component
+public class BookingHorizon {
+
+    private final Period horizon;
+
+    public BookingHorizon(@Value("${reservas.horizonte:P5Y}") Period horizon) {
+        this.horizon = horizon;
+    }
+
+    public LocalDate lastDay() {
+        return LocalDate.now().plus(horizon);
+    }
+
+    public void validate(LocalDate... dates) {
+        LocalDate lastDay = lastDay();
+        for (LocalDate date : dates) {
+            if (date.isAfter(lastDay)) {
+                throw new InvalidDateRangeException("As datas podem ir no máximo até " + lastDay + ".");
+            }
+        }
+    }
+}
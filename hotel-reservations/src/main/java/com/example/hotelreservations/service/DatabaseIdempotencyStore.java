@@ -0,0 +1,65 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.IdempotencyKey;
+import com.example.hotelreservations.repository.IdempotencyKeyRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Respostas na tabela idempotency_key, compartilhada entre os nós. A reserva da chave é um INSERT:
+ * se outro nó chegou antes, a chave primária rejeita e o registro dele é devolvido. Respostas mais
+ * velhas que o TTL e reservas pendentes mais velhas que o lease são substituídas; as primeiras também
+ * são apagadas periodicamente. A resposta e a liberação só valem para a linha com o created_at da
+ * própria reserva, então uma execução que perdeu o lease não sobrescreve nem apaga a de outra.
+ */
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public DatabaseIdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository, Duration ttl, Duration lease) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.ttl = ttl;
+        this.lease = lease;
+    }
+
+    @Override
+    public IdempotencyKey claim(String key, String requestHash, Instant claimedAt) {
+        IdempotencyKey existing = idempotencyKeyRepository.findById(key).orElse(null);
+        if (existing != null) {
+            Duration validity = existing.isCompleted() ? ttl : lease;
+            if (!existing.getCreatedAt().isBefore(claimedAt.minus(validity))) {
+                return existing;
+            }
+            // Só apaga a linha lida: se outro nó já a substituiu, o INSERT abaixo é rejeitado
+            idempotencyKeyRepository.deleteClaim(key, existing.getCreatedAt());
+        }
+        try {
+            idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(key, requestHash, null, claimedAt));
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            // Outro nó reservou a chave entre a leitura e o INSERT; se já liberou, quem chamou tenta de novo
+            return idempotencyKeyRepository.findById(key).orElseGet(() -> new IdempotencyKey(key, requestHash, null, claimedAt));
+        }
+    }
+
+    // Roda na transação da operação (IdempotencyService): se o commit falhar, a resposta volta junto com a reserva
+    @Override
+    public boolean complete(String key, Instant claimedAt, String responseBody) {
+        return idempotencyKeyRepository.complete(key, claimedAt, responseBody) == 1;
+    }
+
+    @Override
+    public void release(String key, Instant claimedAt) {
+        idempotencyKeyRepository.deletePending(key, claimedAt);
+    }
+
+    @Scheduled(fixedDelayString = "${reservas.idempotencia.limpeza:PT1M}")
+    public void purgeExpired() {
+        idempotencyKeyRepository.deleteAllExpired(Instant.now().minus(ttl));
+    }
+}
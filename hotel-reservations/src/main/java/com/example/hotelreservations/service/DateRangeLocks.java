@@ -0,0 +1,78 @@
+package com.example.hotelreservations.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks listrados por unidade e dia: reservas de períodos disjuntos, ou de unidades diferentes,
+ * seguem em paralelo, enquanto reservas que disputam as mesmas noites da mesma unidade são
+ * serializadas dentro da JVM.
+ * <p>
+ * As listras são sempre adquiridas em ordem crescente de índice, o que evita deadlock
+ * entre duas reservas com períodos parcialmente sobrepostos.
+ */
+@Component
+public class DateRangeLocks {
+
+    private static final int DEFAULT_STRIPES = 256;
+
+    private final ReentrantLock[] stripes;
+
+    public DateRangeLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public DateRangeLocks(int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lease lock(Integer unitId, LocalDate startDate, LocalDate endDate) {
+        return lock(List.of(unitId), startDate, endDate);
+    }
+
+    public Lease lock(Collection<Integer> unitIds, LocalDate startDate, LocalDate endDate) {
+        BitSet stripeIndexes = new BitSet(stripes.length);
+        long firstDay = startDate.toEpochDay();
+        long lastDay = endDate.toEpochDay();
+        if ((lastDay - firstDay + 1) * unitIds.size() >= stripes.length) {
+            stripeIndexes.set(0, stripes.length);
+        } else {
+            for (Integer unitId : unitIds) {
+                for (long day = firstDay; day <= lastDay; day++) {
+                    stripeIndexes.set(stripe(unitId, day));
+                }
+            }
+        }
+
+        Deque<ReentrantLock> acquired = new ArrayDeque<>(stripeIndexes.cardinality());
+        for (int i = stripeIndexes.nextSetBit(0); i >= 0; i = stripeIndexes.nextSetBit(i + 1)) {
+            stripes[i].lock();
+            acquired.push(stripes[i]);
+        }
+        return () -> {
+            while (!acquired.isEmpty()) {
+                acquired.pop().unlock();
+            }
+        };
+    }
+
+    // Dias seguidos de uma unidade caem em listras distintas (31 é primo com as 256 listras padrão); o id desloca cada unidade
+    private int stripe(Integer unitId, long day) {
+        return (int) Math.floorMod(31 * day + unitId, stripes.length);
+    }
+
+    @FunctionalInterface
+    public interface Lease {
+        void release();
+    }
+}
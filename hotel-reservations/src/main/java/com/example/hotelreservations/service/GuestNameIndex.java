@@ -0,0 +1,197 @@
+package com.example.hotelreservations.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória de trigramas sobre {@code nomeHospede}, de todas as reservas (inclusive canceladas).
+ * <p>
+ * Os nomes são guardados sem acento, em minúsculas e com as palavras separadas por um único espaço, com
+ * um espaço à frente para a primeira palavra também ter fronteira. Cada trigrama aponta para a lista
+ * ordenada dos ids que o contêm. Nomes em que alguma palavra começa pela consulta vêm antes dos que só a
+ * contêm no meio: cada grupo é uma passada pela lista do trigrama mais raro (de " " + consulta e da
+ * consulta, respectivamente), da reserva mais nova para a mais antiga, conferindo o nome de cada candidata
+ * e parando quando o resultado está completo.
+ */
+@Component
+public class GuestNameIndex {
+
+    // Com duas letras a busca é só por início de palavra, pelo trigrama " " + consulta
+    public static final int MIN_QUERY_LENGTH = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Nome normalizado por id; "" para reservas sem nome. Mapa e não array: os ids vêm em blocos de vários
+    // nós e da variante reativa, então o maior id pode estar muito acima do número de reservas
+    private final Map<Integer, String> namesById = new HashMap<>();
+    private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    // Minúsculas sem acento; o que não é letra nem dígito vira separador de palavras
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    public void put(Integer id, String nomeHospede) {
+        index(id, nomeHospede, false);
+    }
+
+    // Carga inicial: não sobrescreve um nome já gravado por uma escrita que terminou durante a carga
+    public void load(Integer id, String nomeHospede) {
+        index(id, nomeHospede, true);
+    }
+
+    /*
+     * Até limit ids cujo nome contém a consulta (já normalizada), primeiro os que têm uma palavra começando
+     * por ela, cada grupo do id maior para o menor. Consultas de duas letras só casam início de palavra.
+     */
+    public List<Integer> search(String query, int limit) {
+        String wordPrefix = " " + query;
+        List<Integer> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            collect(wordPrefix, null, limit, matches);
+            if (query.length() >= 3 && matches.size() < limit) {
+                collect(query, wordPrefix, limit, matches);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Percorre a lista do trigrama mais raro de pattern e para assim que completa limit
+    private void collect(String pattern, String excluded, int limit, List<Integer> matches) {
+        Postings candidates = null;
+        for (long trigram : trigrams(pattern)) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings == null) {
+                return;
+            }
+            if (candidates == null || postings.size < candidates.size) {
+                candidates = postings;
+            }
+        }
+        if (candidates == null) {
+            return;
+        }
+        for (int i = candidates.size - 1; i >= 0 && matches.size() < limit; i--) {
+            String name = namesById.get(candidates.ids[i]);
+            if (name.contains(pattern) && (excluded == null || !name.contains(excluded))) {
+                matches.add(candidates.ids[i]);
+            }
+        }
+    }
+
+    private void index(Integer id, String nomeHospede, boolean onlyIfAbsent) {
+        if (id == null) {
+            return;
+        }
+        String normalized = normalize(nomeHospede);
+        String name = normalized.isEmpty() ? "" : " " + normalized;
+        lock.writeLock().lock();
+        try {
+            String previous = namesById.get(id);
+            if (name.equals(previous) || (onlyIfAbsent && previous != null)) {
+                return;
+            }
+            Set<Long> previousTrigrams = trigrams(previous);
+            Set<Long> currentTrigrams = trigrams(name);
+            for (long trigram : previousTrigrams) {
+                if (!currentTrigrams.contains(trigram)) {
+                    Postings postings = postingsByTrigram.get(trigram);
+                    postings.remove(id);
+                    if (postings.size == 0) {
+                        postingsByTrigram.remove(trigram);
+                    }
+                }
+            }
+            for (long trigram : currentTrigrams) {
+                if (!previousTrigrams.contains(trigram)) {
+                    postingsByTrigram.computeIfAbsent(trigram, key -> new Postings()).add(id);
+                }
+            }
+            namesById.put(id, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<Long> trigrams(String text) {
+        if (text == null || text.length() < 3) {
+            return Set.of();
+        }
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    // Ids em ordem crescente; reservas novas têm ids maiores, então quase sempre entram no fim
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                position = -position - 1;
+            } else if (position < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.IdempotencyKey;
+import com.example.hotelreservations.service.exceptions.IdempotencyKeyInProgressException;
+import com.example.hotelreservations.service.exceptions.IdempotencyKeyReusedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executa uma operação no máximo uma vez por Idempotency-Key. A resposta da primeira execução fica
+ * no {@link IdempotencyStore} e as repetições são respondidas a partir dela, sem chamar a operação.
+ * <p>
+ * Duplicatas simultâneas no mesmo nó esperam a execução em andamento e recebem o mesmo resultado
+ * (ou a mesma exceção). Se a execução estiver em outro nó, ou demorar mais que a espera configurada,
+ * a repetição recebe {@link IdempotencyKeyInProgressException}. Execuções que falham não são guardadas:
+ * a chave é liberada e uma nova tentativa executa de novo.
+ * <p>
+ * A operação e a gravação da resposta rodam na mesma transação. Se a resposta não puder ser guardada,
+ * a reserva também não é gravada e a chave é liberada, em vez de ficar pendente com a reserva já criada.
+ * Uma chave pendente de um nó que caiu é retomada depois de {@code reservas.idempotencia.lease}, que
+ * precisa ser maior que a execução mais longa.
+ */
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final TransactionOperations transactionOperations;
+    private final Duration maximumWait;
+
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                              TransactionOperations transactionOperations,
+                              @Value("${reservas.idempotencia.espera:10s}") Duration maximumWait) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.transactionOperations = transactionOperations;
+        this.maximumWait = maximumWait;
+    }
+
+    public <T> Result<T> execute(String key, Object request, Class<T> responseType, Supplier<T> operation) {
+        String requestHash = hash(request);
+        InFlight execution = new InFlight(requestHash);
+        InFlight running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            checkSameRequest(running.requestHash, requestHash);
+            return new Result<>(read(running.await(maximumWait), responseType), true);
+        }
+
+        // Em milissegundos: o instante identifica a reserva da chave e precisa voltar igual do banco
+        Instant claimedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        try {
+            IdempotencyKey stored = idempotencyStore.claim(key, requestHash, claimedAt);
+            if (stored != null) {
+                checkSameRequest(stored.getRequestHash(), requestHash);
+                if (!stored.isCompleted()) {
+                    throw new IdempotencyKeyInProgressException("Requisição com esta Idempotency-Key ainda em processamento.");
+                }
+                execution.response.complete(stored.getResponseBody());
+                return new Result<>(read(stored.getResponseBody(), responseType), true);
+            }
+
+            Completed<T> completed;
+            try {
+                completed = transactionOperations.execute(status -> {
+                    T value = operation.get();
+                    String responseBody = write(value);
+                    if (!idempotencyStore.complete(key, claimedAt, responseBody)) {
+                        throw new IdempotencyKeyInProgressException("Requisição com esta Idempotency-Key ainda em processamento.");
+                    }
+                    return new Completed<>(value, responseBody);
+                });
+            } catch (RuntimeException e) {
+                idempotencyStore.release(key, claimedAt);
+                throw e;
+            }
+            execution.response.complete(completed.responseBody);
+            return new Result<>(completed.value, false);
+        } catch (RuntimeException e) {
+            execution.response.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    private static void checkSameRequest(String expectedHash, String requestHash) {
+        if (!expectedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key já usada com outro corpo de requisição.");
+        }
+    }
+
+    // O corpo é reserializado pelo Jackson, então espaços e ordem dos campos no JSON original não mudam o hash
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T read(String responseBody, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static class Result<T> {
+
+        private final T value;
+        private final boolean replayed;
+
+        public Result(T value, boolean replayed) {
+            this.value = value;
+            this.replayed = replayed;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        // true quando a resposta veio de uma execução anterior (ou simultânea) com a mesma chave
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    private static class Completed<T> {
+
+        private final T value;
+        private final String responseBody;
+
+        Completed(T value, String responseBody) {
+            this.value = value;
+            this.responseBody = responseBody;
+        }
+    }
+
+    private static class InFlight {
+
+        private final String requestHash;
+        private final CompletableFuture<String> response = new CompletableFuture<>();
+
+        InFlight(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        String await(Duration maximumWait) {
+            try {
+                return response.get(maximumWait.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (TimeoutException e) {
+                throw new IdempotencyKeyInProgressException("Requisição com esta Idempotency-Key ainda em processamento.", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyKeyInProgressException("Requisição com esta Idempotency-Key ainda em processamento.", e);
+            }
+        }
+    }
+}
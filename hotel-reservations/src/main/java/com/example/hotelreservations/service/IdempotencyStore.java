@@ -0,0 +1,27 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.IdempotencyKey;
+
+import java.time.Instant;
+
+/**
+ * Onde ficam as respostas de requisições com Idempotency-Key. A implementação padrão é em memória
+ * ({@link InMemoryIdempotencyStore}); com vários nós, {@link DatabaseIdempotencyStore} guarda na tabela
+ * idempotency_key.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserva a chave para uma nova execução iniciada em {@code claimedAt}, que identifica a reserva nas
+     * chamadas seguintes. Devolve {@code null} quando a chave foi reservada agora, ou o registro existente,
+     * que pode ainda estar em andamento ({@link IdempotencyKey#isCompleted()}). Uma reserva pendente há
+     * mais que o lease é de uma execução abandonada (o nó caiu no meio dela) e é tomada pela nova.
+     */
+    IdempotencyKey claim(String key, String requestHash, Instant claimedAt);
+
+    // Guarda a resposta; false se a chave não está mais reservada para esta execução (o lease foi tomado)
+    boolean complete(String key, Instant claimedAt, String responseBody);
+
+    // A execução falhou: libera a chave, se ainda for desta execução, para que uma nova tentativa execute de novo
+    void release(String key, Instant claimedAt);
+}
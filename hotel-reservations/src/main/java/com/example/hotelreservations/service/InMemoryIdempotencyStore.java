@@ -0,0 +1,64 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.IdempotencyKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Respostas em um cache Caffeine limitado por tamanho e expiradas pelo TTL. Cada nó enxerga só as
+ * próprias chaves, então em implantações com vários nós use {@link DatabaseIdempotencyStore}.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotencyKey> entries;
+    private final Duration lease;
+
+    public InMemoryIdempotencyStore(long maximumSize, Duration ttl, Duration lease) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.lease = lease;
+    }
+
+    @Override
+    public IdempotencyKey claim(String key, String requestHash, Instant claimedAt) {
+        ConcurrentMap<String, IdempotencyKey> map = entries.asMap();
+        IdempotencyKey claim = new IdempotencyKey(key, requestHash, null, claimedAt);
+        IdempotencyKey existing = map.putIfAbsent(key, claim);
+        // Troca só a reserva abandonada que foi lida; se outra execução a tomou antes, devolve a lida, ainda pendente
+        if (existing != null && !existing.isCompleted() && existing.getCreatedAt().isBefore(claimedAt.minus(lease))
+                && map.replace(key, existing, claim)) {
+            return null;
+        }
+        return existing;
+    }
+
+    @Override
+    public boolean complete(String key, Instant claimedAt, String responseBody) {
+        boolean[] completed = new boolean[1];
+        entries.asMap().computeIfPresent(key, (k, entry) -> {
+            if (entry.isCompleted() || !entry.getCreatedAt().equals(claimedAt)) {
+                return entry;
+            }
+            completed[0] = true;
+            return new IdempotencyKey(k, entry.getRequestHash(), responseBody, claimedAt);
+        });
+        return completed[0];
+    }
+
+    // Remove também uma resposta desta execução: ela foi guardada antes de um commit que falhou
+    @Override
+    public void release(String key, Instant claimedAt) {
+        entries.asMap().computeIfPresent(key, (k, entry) -> entry.getCreatedAt().equals(claimedAt) ? null : entry);
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+}
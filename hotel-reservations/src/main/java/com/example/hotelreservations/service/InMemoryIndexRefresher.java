@@ -0,0 +1,72 @@
+package com.example.hotelreservations.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Atualiza os índices em memória (disponibilidade, calendário, busca de unidades e de hóspedes) com as
+ * escritas de outros nós, a cada {@code reservas.indices.atualizacao}. Cada ciclo lê só os contadores
+ * de alterações por unidade e, nas unidades cujo contador mudou, só as reservas alteradas; ver
+ * {@link ReservationService#refreshInMemoryIndexes()}.
+ */
+public class InMemoryIndexRefresher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryIndexRefresher.class);
+
+    private final ReservationService reservationService;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter reloadedUnits;
+    private final Counter failures;
+
+    public InMemoryIndexRefresher(ReservationService reservationService, Duration refreshInterval, MeterRegistry meterRegistry) {
+        this.reservationService = reservationService;
+        this.refreshInterval = refreshInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservas-indices");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.reloadedUnits = Counter.builder("reservas.indices.unidades.relidas")
+                .description("Unidades com alterações lidas do banco para atualizar os índices em memória")
+                .register(meterRegistry);
+        this.failures = Counter.builder("reservas.indices.falhas")
+                .description("Atualizações dos índices em memória que falharam")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Uma falha só adia a atualização para o próximo ciclo; os contadores lidos não são guardados
+    void refresh() {
+        try {
+            reloadedUnits.increment(reservationService.refreshInMemoryIndexes());
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Falha ao atualizar os índices em memória: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+            scheduler.shutdownNow();
+        }
+    }
+}
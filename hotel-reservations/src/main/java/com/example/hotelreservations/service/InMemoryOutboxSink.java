@@ -0,0 +1,36 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.OutboxEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Destino em memória, no lugar dos sistemas externos em desenvolvimento e nos testes. Guarda só
+ * os últimos eventos entregues.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int maximumSize;
+    private final Deque<OutboxEvent> delivered = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            if (delivered.size() == maximumSize) {
+                delivered.removeFirst();
+            }
+            delivered.addLast(event);
+        }
+    }
+
+    public synchronized List<OutboxEvent> delivered() {
+        return new ArrayList<>(delivered);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Acrescenta cada evento como uma linha JSON (NDJSON) num arquivo, para outro processo consumir.
+ */
+public class LogFileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final ObjectWriter writer;
+
+    public LogFileOutboxSink(Path file, ObjectWriter writer) {
+        this.file = file;
+        this.writer = writer;
+    }
+
+    // Sincronizado: as partições do relay escrevem no mesmo arquivo e as linhas não podem se misturar
+    @Override
+    public synchronized void deliver(List<OutboxEvent> events) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                out.write(writer.writeValueAsString(event));
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.OutboxEvent;
+import com.example.hotelreservations.repository.OutboxEventRepository;
+import com.example.hotelreservations.repository.OutboxPartitionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Entrega as linhas de outbox_event ao {@link OutboxSink} configurado, fora das requisições.
+ *
+ * Os eventos são divididos em {@value OutboxEvent#PARTITIONS} partições pela coluna partition_key. A
+ * cada ciclo uma única consulta lista as partições com eventos pendentes, e só essas são entregues, por
+ * {@code reservas.outbox.paralelismo} threads: uma partição lenta não segura as outras, e com o outbox
+ * vazio o ciclo custa um SELECT.
+ *
+ * Antes de entregar uma partição o nó toma o lease dela em outbox_partition, numa transação curta já
+ * confirmada; com vários nós, só o dono do lease lê a partição, então os eventos de uma reserva saem
+ * na ordem em que foram gravados. O lease é mantido até vencer e só é renovado quando passa da metade,
+ * sem ida ao banco a cada ciclo. A entrega roda fora de transação, e cada lote entregue é apagado junto
+ * com a renovação do lease. Se a entrega falhar, o lote fica na tabela para o próximo ciclo; se o nó
+ * cair, o lease vence depois de {@code reservas.outbox.lease} e outro nó retoma a partição. A entrega é
+ * pelo menos uma vez: o consumidor deve descartar ids repetidos.
+ */
+public class OutboxRelay implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPartitionRepository outboxPartitionRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final int parallelism;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+
+    // Partições com entrega em andamento neste nó, para o ciclo seguinte não enfileirar a mesma de novo
+    private final Set<Integer> draining = ConcurrentHashMap.newKeySet();
+
+    // Até quando (System.nanoTime) o lease de cada partição é deste nó; 0 = não é
+    private final AtomicLongArray leaseDeadlines;
+
+    // Criação do evento mais antigo ainda pendente em cada partição (0 = partição vazia), para o gauge de atraso
+    private final AtomicLongArray oldestPendingMillis;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer deliveryTime;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxPartitionRepository outboxPartitionRepository,
+                       OutboxSink sink, TransactionTemplate transactionTemplate, int batchSize, Duration pollInterval,
+                       int parallelism, Duration lease, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxPartitionRepository = outboxPartitionRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        // Mais threads que partições ficariam sem trabalho
+        this.parallelism = Math.min(parallelism, OutboxEvent.PARTITIONS);
+        this.lease = lease;
+        this.oldestPendingMillis = new AtomicLongArray(OutboxEvent.PARTITIONS);
+        this.leaseDeadlines = new AtomicLongArray(OutboxEvent.PARTITIONS);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(relayThreadFactory("reservas-outbox-ciclo"));
+        this.workers = Executors.newFixedThreadPool(this.parallelism, relayThreadFactory("reservas-outbox"));
+
+        this.published = Counter.builder("reservas.outbox.entregues")
+                .description("Eventos do outbox entregues ao destino")
+                .register(meterRegistry);
+        this.failures = Counter.builder("reservas.outbox.falhas")
+                .description("Lotes do outbox que falharam e voltaram para a fila")
+                .register(meterRegistry);
+        this.deliveryTime = Timer.builder("reservas.outbox.envio")
+                .description("Tempo de entrega de um lote ao destino")
+                .register(meterRegistry);
+        this.lag = Timer.builder("reservas.outbox.atraso")
+                .description("Tempo entre a gravação do evento e a entrega")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("reservas.outbox.pendente.idade", this, relay -> relay.oldestPendingAge().toMillis() / 1000.0)
+                .description("Idade, em segundos, do evento pendente mais antigo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void poll() {
+        Set<Integer> pending;
+        try {
+            pending = new HashSet<>(outboxEventRepository.findPendingPartitions());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao consultar as partições pendentes do outbox: {}", e.getMessage());
+            return;
+        }
+        for (int partition = 0; partition < OutboxEvent.PARTITIONS; partition++) {
+            if (!pending.contains(partition)) {
+                oldestPendingMillis.set(partition, 0);
+            } else if (draining.add(partition)) {
+                int current = partition;
+                try {
+                    workers.execute(() -> {
+                        try {
+                            drainPartition(current);
+                        } finally {
+                            draining.remove(current);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Encerrando
+                    draining.remove(current);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Lotes cheios indicam fila: segue sem esperar o próximo ciclo até a partição esvaziar
+    void drainPartition(int partition) {
+        try {
+            if (!holdLease(partition)) {
+                // Outro nó está entregando esta partição e mede o atraso dela
+                oldestPendingMillis.set(partition, 0);
+                return;
+            }
+            while (relayBatch(partition) && !workers.isShutdown()) {
+                // próximo lote
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Falha ao entregar eventos do outbox da partição {}: {}", partition, e.getMessage());
+        }
+    }
+
+    // Conexões que o relay pode ocupar ao mesmo tempo: uma por thread de entrega e a do ciclo
+    public int backgroundConnections() {
+        return parallelism + 1;
+    }
+
+    Duration oldestPendingAge() {
+        long oldest = 0;
+        for (int i = 0; i < oldestPendingMillis.length(); i++) {
+            long value = oldestPendingMillis.get(i);
+            if (value != 0 && (oldest == 0 || value < oldest)) {
+                oldest = value;
+            }
+        }
+        return oldest == 0 ? Duration.ZERO : Duration.ofMillis(Math.max(0, System.currentTimeMillis() - oldest));
+    }
+
+    // Retorna true quando o lote veio cheio e o lease continua com este nó
+    private boolean relayBatch(int partition) {
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(partition, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            oldestPendingMillis.set(partition, 0);
+            return false;
+        }
+        oldestPendingMillis.set(partition, batch.get(0).getCreatedAt().toEpochMilli());
+
+        Timer.Sample sample = Timer.start();
+        try {
+            sink.deliver(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sample.stop(deliveryTime);
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        Instant now = Instant.now();
+        for (OutboxEvent event : batch) {
+            ids.add(event.getId());
+            lag.record(Duration.between(event.getCreatedAt(), now));
+        }
+        // Se a entrega passou do lease e outro nó pegou a partição, ele pode reenviar este lote; apagar continua certo
+        Boolean stillOwner = transactionTemplate.execute(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(ids);
+            return acquireLease(partition);
+        });
+        published.increment(batch.size());
+        if (batch.size() < batchSize) {
+            oldestPendingMillis.set(partition, 0);
+            return false;
+        }
+        return Boolean.TRUE.equals(stillOwner);
+    }
+
+    // Só vai ao banco quando o lease não é deste nó ou já passou da metade
+    private boolean holdLease(int partition) {
+        long deadline = leaseDeadlines.get(partition);
+        if (deadline != 0 && deadline - System.nanoTime() > lease.toNanos() / 2) {
+            return true;
+        }
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> acquireLease(partition)));
+    }
+
+    // O prazo local conta do instante antes do UPDATE, então nunca passa do gravado no banco
+    private boolean acquireLease(int partition) {
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        boolean acquired = outboxPartitionRepository.acquire(partition, owner, now, now.plus(lease)) == 1;
+        leaseDeadlines.set(partition, acquired ? started + lease.toNanos() : 0);
+        return acquired;
+    }
+
+    /*
+     * Para no início do fechamento do contexto, antes de o DataSource e o esquema irem embora, e solta
+     * os leases deste nó para outro nó retomar as partições sem esperar o vencimento.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        releaseLeases();
+    }
+
+    void releaseLeases() {
+        for (int partition = 0; partition < OutboxEvent.PARTITIONS; partition++) {
+            if (leaseDeadlines.getAndSet(partition, 0) == 0) {
+                continue;
+            }
+            int current = partition;
+            try {
+                transactionTemplate.executeWithoutResult(status -> outboxPartitionRepository.release(current, owner));
+            } catch (RuntimeException e) {
+                log.warn("Falha ao soltar o lease da partição {} do outbox: {}", partition, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (!workers.isShutdown()) {
+            stop();
+        }
+    }
+
+    private static ThreadFactory relayThreadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
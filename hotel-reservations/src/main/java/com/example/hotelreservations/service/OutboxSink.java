@@ -0,0 +1,15 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino dos eventos do outbox. Recebe um lote por vez, na ordem dos ids; se lançar exceção o
+ * lote inteiro volta para o outbox e é entregue de novo no próximo ciclo do relay.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxEvent> events) throws IOException;
+}
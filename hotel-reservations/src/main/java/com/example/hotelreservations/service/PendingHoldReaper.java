@@ -0,0 +1,125 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.config.CacheConfig;
+import com.example.hotelreservations.domain.Reservation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancela as reservas PENDENTE cujo prazo venceu, em lotes de {@code reservas.pendente.lote}. A thread
+ * dorme até o primeiro prazo da fila em memória de {@link PendingHolds} e então libera no banco todas
+ * as vencidas até o instante, pelo índice (status, expira_em). Sem prazo na fila, o banco só é
+ * consultado a cada {@code reservas.pendente.verificacao}, para pegar o que a fila não viu: lotes que
+ * falharam e pendentes de outros nós com a atualização dos índices desligada.
+ * <p>
+ * Vários nós podem ter o mesmo prazo na fila e acordar juntos: cada lote trava as linhas que leu e os
+ * outros nós pulam essas linhas, então cada reserva é liberada por um só nó. As noites liberadas entram
+ * no índice de disponibilidade no commit do lote. Se o lote falhar (por exemplo, a reserva foi alterada
+ * ao mesmo tempo), as reservas continuam vencidas no banco e são lidas de novo na verificação seguinte.
+ */
+public class PendingHoldReaper implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingHoldReaper.class);
+
+    private final ReservationService reservationService;
+    private final PendingHolds pendingHolds;
+    private final Cache reservationsCache;
+    private final int batchSize;
+    private final Duration checkInterval;
+    private final ExecutorService worker;
+    private volatile boolean stopped;
+
+    private final Counter released;
+    private final Counter failures;
+
+    public PendingHoldReaper(ReservationService reservationService, PendingHolds pendingHolds, CacheManager cacheManager,
+                             int batchSize, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.reservationService = reservationService;
+        this.pendingHolds = pendingHolds;
+        this.reservationsCache = cacheManager.getCache(CacheConfig.RESERVATIONS_CACHE);
+        this.batchSize = batchSize;
+        this.checkInterval = checkInterval;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservas-pendente-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.released = Counter.builder("reservas.pendente.liberadas")
+                .description("Reservas pendentes canceladas por prazo vencido")
+                .register(meterRegistry);
+        this.failures = Counter.builder("reservas.pendente.falhas")
+                .description("Lotes de reservas vencidas que falharam e ficaram para o próximo ciclo")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.execute(this::run);
+    }
+
+    // Os prazos até o instante saem da fila antes da consulta: o que ela não liberar fica para a verificação periódica
+    private void run() {
+        while (!stopped) {
+            try {
+                pendingHolds.awaitDue(checkInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (stopped) {
+                return;
+            }
+            Instant now = Instant.now();
+            pendingHolds.forgetDue(now);
+            reap(now);
+        }
+    }
+
+    void reap() {
+        reap(Instant.now());
+    }
+
+    // Lotes cheios indicam que há mais vencidas: segue sem esperar o próximo prazo
+    private void reap(Instant now) {
+        List<Reservation> expired;
+        do {
+            try {
+                expired = reservationService.releaseExpiredHolds(now, batchSize);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Falha ao liberar reservas pendentes vencidas: {}", e.getMessage());
+                return;
+            }
+            for (Reservation reservation : expired) {
+                if (reservationsCache != null) {
+                    reservationsCache.put(reservation.getId(), reservation);
+                }
+                released.increment();
+            }
+        } while (expired.size() == batchSize && !stopped);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        stopped = true;
+        pendingHolds.wakeUp();
+        worker.shutdown();
+        if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+            worker.shutdownNow();
+        }
+    }
+}
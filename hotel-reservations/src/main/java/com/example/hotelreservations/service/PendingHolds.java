@@ -0,0 +1,133 @@
+package com.example.hotelreservations.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prazo das reservas PENDENTE ({@code reservas.pendente.prazo}) e a fila, em ordem de prazo, das
+ * pendentes que este nó conhece: carregadas na subida com os índices em memória, gravadas por este nó
+ * ou lidas na atualização dos índices (escritas de outros nós). O {@link PendingHoldReaper} dorme até o
+ * primeiro prazo da fila; quem libera de fato é o banco, pela coluna {@code expira_em}, então a fila só
+ * decide quando consultar.
+ */
+@Component
+public class PendingHolds {
+
+    private final Duration holdDuration;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final TreeSet<Hold> queue = new TreeSet<>(Comparator.comparing(Hold::expiresAt).thenComparing(Hold::id));
+    private final Map<Integer, Hold> holdsById = new HashMap<>();
+    private boolean wakeUpRequested;
+
+    public PendingHolds(@Value("${reservas.pendente.prazo:PT15M}") Duration holdDuration) {
+        this.holdDuration = holdDuration;
+    }
+
+    public Instant expiryFrom(Instant now) {
+        return now.plus(holdDuration);
+    }
+
+    // Prazo null tira a reserva da fila (confirmada, cancelada ou sem prazo)
+    public void track(Integer id, Instant expiresAt) {
+        lock.lock();
+        try {
+            Hold previous = expiresAt == null ? holdsById.remove(id) : holdsById.put(id, new Hold(id, expiresAt));
+            if (previous != null) {
+                queue.remove(previous);
+            }
+            if (expiresAt != null) {
+                queue.add(holdsById.get(id));
+                // Prazo novo à frente da fila: o reaper pode estar dormindo até um prazo posterior
+                if (queue.first().id() == id) {
+                    changed.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            queue.clear();
+            holdsById.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Espera até o primeiro prazo da fila vencer, no máximo maxWait, ou até wakeUp. Retorna true se há
+     * prazo vencido.
+     */
+    boolean awaitDue(Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        lock.lock();
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (!queue.isEmpty()) {
+                    long untilDue = Duration.between(Instant.now(), queue.first().expiresAt()).toNanos();
+                    if (untilDue <= 0) {
+                        return true;
+                    }
+                    remaining = Math.min(remaining, untilDue);
+                }
+                if (remaining <= 0 || wakeUpRequested) {
+                    wakeUpRequested = false;
+                    return false;
+                }
+                changed.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Faz awaitDue voltar já, sem prazo vencido; usado para parar o reaper
+    void wakeUp() {
+        lock.lock();
+        try {
+            wakeUpRequested = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Tira da fila os prazos até now, antes da consulta que libera as vencidas no banco
+    void forgetDue(Instant now) {
+        lock.lock();
+        try {
+            while (!queue.isEmpty() && !queue.first().expiresAt().isAfter(now)) {
+                holdsById.remove(queue.pollFirst().id());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Hold(int id, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.PricingRule;
+import com.example.hotelreservations.dto.PriceQuoteDTO;
+import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Regras de preço compiladas numa tabela de diárias, em centavos, de {@code firstDay} até o horizonte.
+ * <p>
+ * A tabela guarda somas acumuladas, então as diárias de qualquer período dentro do horizonte saem de
+ * duas posições do array, sem avaliar regra nenhuma. Noites fora do horizonte (datas passadas ou muito
+ * à frente) são calculadas pelas regras, noite a noite, e dão o mesmo valor. A instância é imutável:
+ * quando as regras mudam, {@link PricingService} descarta a tabela e compila outra.
+ */
+public final class PriceCalendar {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final Instant compiledAt;
+    private final long firstDay;
+    private final int days;
+    // Diárias somadas das noites firstDay .. firstDay + i - 1 na posição i
+    private final long[] cumulativeRates;
+
+    private final BigDecimal baseRate;
+    private final BigDecimal[] weekdayPercents = new BigDecimal[DayOfWeek.values().length];
+    private final List<PricingRule> seasons = new ArrayList<>();
+    // Desconto pelo mínimo de noites; vale a maior faixa alcançada pela estadia
+    private final NavigableMap<Integer, BigDecimal> stayDiscounts = new TreeMap<>();
+    private final int includedGuests;
+    private final long extraGuestCents;
+
+    // As regras chegam em ordem de id: entre BASE (ou PESSOA_EXTRA) repetidas, vale a última
+    private PriceCalendar(Collection<PricingRule> rules, LocalDate firstDay, int days, Instant compiledAt) {
+        this.compiledAt = compiledAt;
+        this.firstDay = firstDay.toEpochDay();
+        this.days = days;
+        Arrays.fill(weekdayPercents, BigDecimal.ZERO);
+
+        BigDecimal base = null;
+        PricingRule extraGuest = null;
+        for (PricingRule rule : rules) {
+            switch (rule.getTipo()) {
+                case BASE -> base = rule.getValor();
+                case TEMPORADA -> seasons.add(rule);
+                case DIA_SEMANA -> {
+                    int weekday = rule.getDiaSemana().ordinal();
+                    weekdayPercents[weekday] = weekdayPercents[weekday].add(rule.getValor());
+                }
+                case ESTADIA -> stayDiscounts.put(rule.getMinimoNoites(), rule.getValor());
+                case PESSOA_EXTRA -> extraGuest = rule;
+            }
+        }
+        if (base == null) {
+            throw new ObjectNotFoundException("Nenhuma tarifa BASE cadastrada.");
+        }
+        this.baseRate = base;
+        this.includedGuests = extraGuest != null ? extraGuest.getPessoasIncluidas() : Integer.MAX_VALUE;
+        this.extraGuestCents = extraGuest != null ? toCents(extraGuest.getValor()) : 0;
+
+        this.cumulativeRates = new long[days + 1];
+        for (int i = 0; i < days; i++) {
+            cumulativeRates[i + 1] = cumulativeRates[i] + evaluateRate(this.firstDay + i);
+        }
+    }
+
+    public static PriceCalendar compile(Collection<PricingRule> rules, LocalDate firstDay, int days, Instant compiledAt) {
+        return new PriceCalendar(rules, firstDay, days, compiledAt);
+    }
+
+    public Instant getCompiledAt() {
+        return compiledAt;
+    }
+
+    // Noites de startDate a endDate, inclusive, como as noites ocupadas por uma reserva
+    public PriceQuoteDTO quote(LocalDate startDate, LocalDate endDate, int guests) {
+        int nights = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        long rates = sumRates(startDate.toEpochDay(), endDate.toEpochDay());
+        long surcharge = extraGuestCents * Math.max(0, guests - includedGuests) * nights;
+
+        // O desconto de estadia incide só sobre as diárias, não sobre o acréscimo por pessoa
+        Map.Entry<Integer, BigDecimal> stayDiscount = stayDiscounts.floorEntry(nights);
+        long discount = stayDiscount == null ? 0 : BigDecimal.valueOf(rates)
+                .multiply(stayDiscount.getValue())
+                .divide(HUNDRED, 0, RoundingMode.HALF_UP)
+                .longValueExact();
+
+        return new PriceQuoteDTO(startDate, endDate, nights, guests, fromCents(rates), fromCents(surcharge),
+                fromCents(discount), fromCents(rates + surcharge - discount));
+    }
+
+    // Soma pela tabela a parte do período dentro do horizonte; o que sobra é avaliado noite a noite
+    long sumRates(long startDay, long endDay) {
+        long lastDay = firstDay + days - 1;
+        long total = 0;
+        long from = Math.max(startDay, firstDay);
+        long to = Math.min(endDay, lastDay);
+        if (from <= to) {
+            total += cumulativeRates[(int) (to - firstDay) + 1] - cumulativeRates[(int) (from - firstDay)];
+        }
+        for (long day = startDay; day <= endDay && day < firstDay; day++) {
+            total += evaluateRate(day);
+        }
+        for (long day = Math.max(startDay, lastDay + 1); day <= endDay; day++) {
+            total += evaluateRate(day);
+        }
+        return total;
+    }
+
+    // Diária de uma noite avaliada pelas regras, sem a tabela: base ajustada pela soma dos percentuais de
+    // dia da semana e das temporadas que cobrem a noite
+    public long evaluateRate(long epochDay) {
+        LocalDate night = LocalDate.ofEpochDay(epochDay);
+        BigDecimal percent = weekdayPercents[night.getDayOfWeek().ordinal()];
+        for (PricingRule season : seasons) {
+            if (!night.isBefore(season.getDataInicio()) && !night.isAfter(season.getDataFim())) {
+                percent = percent.add(season.getValor());
+            }
+        }
+        BigDecimal rate = baseRate.multiply(HUNDRED.add(percent)).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+        return Math.max(0, toCents(rate));
+    }
+
+    private static long toCents(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.PricingRule;
+import com.example.hotelreservations.dto.PriceQuoteDTO;
+import com.example.hotelreservations.dto.PricingRuleDTO;
+import com.example.hotelreservations.repository.PricingRuleRepository;
+import com.example.hotelreservations.service.exceptions.InvalidDateRangeException;
+import com.example.hotelreservations.service.exceptions.InvalidPricingRuleException;
+import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class PricingService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final int horizonDays;
+    private final Duration validity;
+
+    private final Object compileLock = new Object();
+    // Incrementada a cada alteração de regra, para não publicar uma tabela compilada com as regras de antes dela
+    private final AtomicLong generation = new AtomicLong();
+    private volatile PriceCalendar calendar;
+
+    @Autowired
+    public PricingService(PricingRuleRepository pricingRuleRepository,
+                          @Value("${reservas.preco.horizonte:730}") int horizonDays,
+                          @Value("${reservas.preco.validade:PT5M}") Duration validity) {
+        this.pricingRuleRepository = pricingRuleRepository;
+        this.horizonDays = horizonDays;
+        this.validity = validity;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PricingRule> getRules() {
+        return pricingRuleRepository.findAll(Sort.by("id"));
+    }
+
+    @Transactional
+    public PricingRule createRule(PricingRuleDTO ruleDTO) {
+        validate(ruleDTO);
+        PricingRule rule = new PricingRule(null, ruleDTO.getTipo(), ruleDTO.getValor());
+        rule.setDataInicio(ruleDTO.getDataInicio());
+        rule.setDataFim(ruleDTO.getDataFim());
+        rule.setDiaSemana(ruleDTO.getDiaSemana());
+        rule.setMinimoNoites(ruleDTO.getMinimoNoites());
+        rule.setPessoasIncluidas(ruleDTO.getPessoasIncluidas());
+        PricingRule savedRule = pricingRuleRepository.save(rule);
+        invalidateAfterCommit();
+        return savedRule;
+    }
+
+    @Transactional
+    public void deleteRule(Integer id) {
+        PricingRule rule = pricingRuleRepository.findById(id)
+                .orElseThrow(() -> new ObjectNotFoundException("Regra de preço não encontrada com o ID: " + id));
+        pricingRuleRepository.delete(rule);
+        invalidateAfterCommit();
+    }
+
+    /*
+     * Sem @Transactional: com a tabela compilada a cotação é uma subtração de somas acumuladas. O banco
+     * só é lido para compilar, depois de uma alteração de regra ou quando a tabela passa de
+     * reservas.preco.validade (alterações feitas em outros nós).
+     */
+    public PriceQuoteDTO quote(LocalDate startDate, LocalDate endDate, int guests) {
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidDateRangeException("A data de início da viagem não pode ser posterior à data de fim da viagem.");
+        }
+        // Noites fora do horizonte são avaliadas uma a uma: o período cotado tem o mesmo limite de uma reserva
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= ReservationService.MAX_STAY_NIGHTS) {
+            throw new InvalidDateRangeException("Uma cotação pode cobrir no máximo " + ReservationService.MAX_STAY_NIGHTS + " noites.");
+        }
+        return calendar().quote(startDate, endDate, guests);
+    }
+
+    private PriceCalendar calendar() {
+        PriceCalendar current = calendar;
+        Instant now = Instant.now();
+        if (current != null && now.isBefore(current.getCompiledAt().plus(validity))) {
+            return current;
+        }
+        synchronized (compileLock) {
+            current = calendar;
+            if (current != null && now.isBefore(current.getCompiledAt().plus(validity))) {
+                return current;
+            }
+            long compiledGeneration = generation.get();
+            current = PriceCalendar.compile(pricingRuleRepository.findAll(Sort.by("id")), LocalDate.now(), horizonDays, now);
+            if (generation.get() == compiledGeneration) {
+                calendar = current;
+            }
+            return current;
+        }
+    }
+
+    // Como o índice de disponibilidade, a tabela só muda depois do commit
+    private void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        calendar = null;
+    }
+
+    private static void validate(PricingRuleDTO ruleDTO) {
+        if (ruleDTO.getTipo() == null) {
+            throw new InvalidPricingRuleException("O tipo da regra de preço é obrigatório.");
+        }
+        BigDecimal valor = ruleDTO.getValor();
+        if (valor == null) {
+            throw new InvalidPricingRuleException("O valor da regra de preço é obrigatório.");
+        }
+        switch (ruleDTO.getTipo()) {
+            case BASE -> {
+                if (valor.signum() < 0) {
+                    throw new InvalidPricingRuleException("O valor da diária base não pode ser negativo.");
+                }
+            }
+            case TEMPORADA -> {
+                if (ruleDTO.getDataInicio() == null || ruleDTO.getDataFim() == null) {
+                    throw new InvalidPricingRuleException("A temporada precisa de dataInicio e dataFim.");
+                }
+                if (ruleDTO.getDataInicio().isAfter(ruleDTO.getDataFim())) {
+                    throw new InvalidDateRangeException("A data de início da temporada não pode ser posterior à data de fim.");
+                }
+            }
+            case DIA_SEMANA -> {
+                if (ruleDTO.getDiaSemana() == null) {
+                    throw new InvalidPricingRuleException("A regra de dia da semana precisa de diaSemana.");
+                }
+            }
+            case ESTADIA -> {
+                if (ruleDTO.getMinimoNoites() == null || ruleDTO.getMinimoNoites() < 1) {
+                    throw new InvalidPricingRuleException("O desconto de estadia precisa de minimoNoites de pelo menos uma noite.");
+                }
+                if (valor.signum() < 0 || valor.compareTo(HUNDRED) > 0) {
+                    throw new InvalidPricingRuleException("O desconto de estadia deve ser um percentual entre 0 e 100.");
+                }
+            }
+            case PESSOA_EXTRA -> {
+                if (ruleDTO.getPessoasIncluidas() == null || ruleDTO.getPessoasIncluidas() < 1) {
+                    throw new InvalidPricingRuleException("O acréscimo por pessoa precisa de pessoasIncluidas de pelo menos uma pessoa.");
+                }
+                if (valor.signum() < 0) {
+                    throw new InvalidPricingRuleException("O acréscimo por pessoa não pode ser negativo.");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.DateRangeDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Índice em memória dos dias ocupados por reservas ativas, por unidade, indexado pelo epoch day.
+ * <p>
+ * Cada unidade tem seu bitmap de dias ocupados; dias cobertos por mais de uma reserva da mesma unidade
+ * (dados legados sobrepostos) guardam a contagem excedente em {@code overlapCounts}, para que remover
+ * uma das reservas não libere o dia. A checagem de uma unidade é um {@code nextSetBit}, e a lista de
+ * unidades livres num período é uma checagem dessas por unidade, sem nenhum acesso ao banco.
+ */
+@Component
+public class ReservationAvailabilityIndex {
+
+    // Abaixo disso dividir a busca entre threads custa mais que checar as unidades em sequência
+    static final int PARALLEL_SEARCH_THRESHOLD = 1024;
+
+    // Menor capacidade que comporta o grupo primeiro, para não ocupar uma unidade grande com poucas pessoas;
+    // unidades sem limite por último
+    static final Comparator<Unit> BEST_FIT = Comparator
+            .comparing(Unit::getCapacidade, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Unit::getId);
+
+    // Último dia representável: as varreduras olham o dia seguinte ao intervalo (rangeEnd + 1)
+    static final long LAST_DAY = Integer.MAX_VALUE - 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Ordenadas por id, para a lista de unidades livres sair sempre na mesma ordem
+    private final Map<Integer, Unit> units = new TreeMap<>();
+    private final Map<Integer, UnitDays> daysByUnit = new HashMap<>();
+    // Por reserva: {unidade, primeiro dia, último dia}
+    private final Map<Integer, int[]> intervalsById = new HashMap<>();
+
+    // Unidades em ordem de BEST_FIT, com bitmap e capacidade na mesma posição; refeitos só quando unidades mudam
+    private Unit[] rankedUnits = new Unit[0];
+    private UnitDays[] rankedDays = new UnitDays[0];
+    private int[] rankedCapacities = new int[0];
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(Collection<Unit> allUnits, Collection<Reservation> activeReservations) {
+        lock.writeLock().lock();
+        try {
+            units.clear();
+            daysByUnit.clear();
+            intervalsById.clear();
+            for (Unit unit : allUnits) {
+                units.put(unit.getId(), unit);
+            }
+            for (Reservation reservation : activeReservations) {
+                add(reservation.getId(), reservation.getUnidadeId(),
+                        dayIndex(reservation.getDataInicio()), dayIndex(reservation.getDataFim()));
+            }
+            rank();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Troca as reservas ativas das unidades pelas lidas do banco, para refletir as escritas de outros
+     * nós. As demais unidades não mudam; uma reserva que veio de outra unidade sai de lá.
+     */
+    public void replaceUnits(Collection<Unit> changedUnits, Collection<Reservation> activeReservations) {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> unitIds = new HashSet<>();
+            for (Unit unit : changedUnits) {
+                units.put(unit.getId(), unit);
+                unitIds.add(unit.getId());
+                daysByUnit.put(unit.getId(), new UnitDays());
+            }
+            intervalsById.values().removeIf(interval -> unitIds.contains(interval[0]));
+            for (Reservation reservation : activeReservations) {
+                removeInterval(reservation.getId());
+                add(reservation.getId(), reservation.getUnidadeId(),
+                        dayIndex(reservation.getDataInicio()), dayIndex(reservation.getDataFim()));
+            }
+            rank();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putUnit(Unit unit) {
+        lock.writeLock().lock();
+        try {
+            units.put(unit.getId(), unit);
+            rank();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isAvailable(Integer unitId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            return isFree(daysByUnit.get(unitId), dayIndex(startDate), dayIndex(endDate));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Unidades sem nenhum dia ocupado em [startDate, endDate], em ordem de id
+    public List<Unit> freeUnits(LocalDate startDate, LocalDate endDate) {
+        int first = dayIndex(startDate);
+        int last = dayIndex(endDate);
+        List<Unit> free = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Unit unit : units.values()) {
+                if (isFree(daysByUnit.get(unit.getId()), first, last)) {
+                    free.add(unit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return free;
+    }
+
+    /*
+     * Unidades livres em [startDate, endDate] que comportam guests pessoas, em ordem de BEST_FIT. As
+     * pequenas demais ficam antes no ranking e são puladas por busca binária; o resto é só um filtro que
+     * preserva a ordem. Com muitas candidatas o filtro roda em paralelo no pool comum do fork-join: as
+     * threads dele só leem os bitmaps, e a leitura do chamador impede qualquer escrita até a busca terminar.
+     */
+    public List<Unit> searchFreeUnits(LocalDate startDate, LocalDate endDate, int guests) {
+        int first = dayIndex(startDate);
+        int last = dayIndex(endDate);
+        lock.readLock().lock();
+        try {
+            Unit[] candidates = rankedUnits;
+            UnitDays[] days = rankedDays;
+            int start = firstFitting(rankedCapacities, guests);
+            IntStream positions = IntStream.range(start, candidates.length);
+            if (candidates.length - start >= PARALLEL_SEARCH_THRESHOLD) {
+                positions = positions.parallel();
+            }
+            return positions
+                    .filter(i -> isFree(days[i], first, last))
+                    .mapToObj(i -> candidates[i])
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Faixas contínuas de dias ocupados da unidade dentro de [startDate, endDate], recortadas nas bordas
+    public List<DateRangeDTO> occupiedRanges(Integer unitId, LocalDate startDate, LocalDate endDate) {
+        int first = dayIndex(startDate);
+        int last = dayIndex(endDate);
+        List<DateRangeDTO> ranges = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            UnitDays days = daysByUnit.get(unitId);
+            if (days == null) {
+                return ranges;
+            }
+            int rangeStart = days.occupied.nextSetBit(first);
+            while (rangeStart >= 0 && rangeStart <= last) {
+                int rangeEnd = Math.min(days.occupied.nextClearBit(rangeStart) - 1, last);
+                ranges.add(new DateRangeDTO(LocalDate.ofEpochDay(rangeStart), LocalDate.ofEpochDay(rangeEnd)));
+                rangeStart = days.occupied.nextSetBit(rangeEnd + 1);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ranges;
+    }
+
+    public void put(Integer id, Integer unitId, LocalDate startDate, LocalDate endDate) {
+        lock.writeLock().lock();
+        try {
+            removeInterval(id);
+            add(id, unitId, dayIndex(startDate), dayIndex(endDate));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeInterval(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Todas as unidades ganham um bitmap aqui, mesmo sem reserva, para o ranking apontar direto para ele
+    private void rank() {
+        rankedUnits = units.values().stream().sorted(BEST_FIT).toArray(Unit[]::new);
+        rankedDays = new UnitDays[rankedUnits.length];
+        rankedCapacities = new int[rankedUnits.length];
+        for (int i = 0; i < rankedUnits.length; i++) {
+            rankedDays[i] = daysByUnit.computeIfAbsent(rankedUnits[i].getId(), key -> new UnitDays());
+            Integer capacity = rankedUnits[i].getCapacidade();
+            rankedCapacities[i] = capacity == null ? Integer.MAX_VALUE : capacity;
+        }
+    }
+
+    // Primeira posição com capacidade >= guests; as capacidades estão em ordem crescente
+    private static int firstFitting(int[] capacities, int guests) {
+        int position = Arrays.binarySearch(capacities, guests);
+        if (position < 0) {
+            return -position - 1;
+        }
+        while (position > 0 && capacities[position - 1] == guests) {
+            position--;
+        }
+        return position;
+    }
+
+    private static boolean isFree(UnitDays days, int first, int last) {
+        if (days == null) {
+            return true;
+        }
+        int nextOccupied = days.occupied.nextSetBit(first);
+        return nextOccupied < 0 || nextOccupied > last;
+    }
+
+    private void add(Integer id, Integer unitId, int startDay, int endDay) {
+        intervalsById.put(id, new int[]{unitId, startDay, endDay});
+        UnitDays days = daysByUnit.computeIfAbsent(unitId, key -> new UnitDays());
+        for (int day = startDay; day <= endDay; day++) {
+            if (days.occupied.get(day)) {
+                days.overlapCounts.merge(day, 1, Integer::sum);
+            } else {
+                days.occupied.set(day);
+            }
+        }
+    }
+
+    private void removeInterval(Integer id) {
+        int[] interval = intervalsById.remove(id);
+        if (interval == null) {
+            return;
+        }
+        UnitDays days = daysByUnit.get(interval[0]);
+        for (int day = interval[1]; day <= interval[2]; day++) {
+            Integer extra = days.overlapCounts.get(day);
+            if (extra == null) {
+                days.occupied.clear(day);
+            } else if (extra == 1) {
+                days.overlapCounts.remove(day);
+            } else {
+                days.overlapCounts.put(day, extra - 1);
+            }
+        }
+    }
+
+    /*
+     * Datas anteriores a 1970 não podem mais ser reservadas, então são agrupadas no dia 0. O tamanho do
+     * bitmap é limitado pelo horizonte de reservas, validado no serviço; uma data além de LAST_DAY falha
+     * aqui em vez de virar um dia negativo no cast.
+     */
+    private static int dayIndex(LocalDate date) {
+        long day = date.toEpochDay();
+        if (day > LAST_DAY) {
+            throw new IllegalArgumentException("Data fora do alcance do índice de disponibilidade: " + date);
+        }
+        return Math.toIntExact(Math.max(0, day));
+    }
+
+    private static final class UnitDays {
+        private final BitSet occupied = new BitSet();
+        private final Map<Integer, Integer> overlapCounts = new HashMap<>();
+    }
+}
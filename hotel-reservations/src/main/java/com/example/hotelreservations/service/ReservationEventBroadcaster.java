@@ -0,0 +1,335 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.dto.ReservationEvent;
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.example.hotelreservations.dto.ReservationView;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fan-out dos eventos de reserva para os assinantes de GET /reservas/eventos.
+ *
+ * Os eventos ficam num anel de tamanho fixo ({@code reservas.eventos.replay}), que é ao mesmo tempo
+ * o buffer de replay do Last-Event-ID e a fila de cada assinante: o assinante guarda só o id do
+ * último evento que recebeu, então publicar não copia o evento nem espera por ninguém. O envio roda
+ * num pool pequeno, um assinante por vez. Quem fica tão atrás que o anel já sobrescreveu o próximo
+ * evento dele é desconectado; ao reconectar, recebe {@value #RESET_EVENT} e volta a acompanhar dali.
+ *
+ * Um envio que passa de {@code reservas.eventos.envio-timeout} (cliente que parou de ler com a janela
+ * TCP cheia) também desconecta o assinante. A thread presa na escrita só volta quando o container
+ * desiste dela, então o pool ganha uma thread extra até lá, para os demais assinantes não esperarem.
+ */
+public class ReservationEventBroadcaster implements MeterBinder, DisposableBean {
+
+    public static final String RESET_EVENT = "RECARREGAR";
+
+    private final AtomicReferenceArray<ReservationEvent> ring;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+    private final Executor senders;
+    private final int maxExtraSenders;
+    private final AtomicInteger extraSenders = new AtomicInteger();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong slowSubscribersDisconnected = new AtomicLong();
+    private final Object publishLock = new Object();
+
+    // Ids a partir do instante de subida, para um Last-Event-ID de antes de um restart nunca casar com um evento novo
+    private final long firstId = System.currentTimeMillis() * 1000;
+    private volatile long lastId = firstId - 1;
+
+    public ReservationEventBroadcaster(int replaySize, Duration timeout, Duration sendTimeout, int senderThreads) {
+        this(replaySize, timeout, sendTimeout,
+                Executors.newFixedThreadPool(senderThreads, senderThreadFactory()), senderThreads * 3);
+    }
+
+    ReservationEventBroadcaster(int replaySize, Duration timeout, Duration sendTimeout, Executor senders, int maxExtraSenders) {
+        this.ring = new AtomicReferenceArray<>(replaySize);
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senders = senders;
+        this.maxExtraSenders = maxExtraSenders;
+    }
+
+    public void publish(ReservationEventType type, ReservationView reservation) {
+        synchronized (publishLock) {
+            long id = lastId + 1;
+            ring.set(slot(id), new ReservationEvent(id, type, reservation));
+            lastId = id;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.signal();
+        }
+    }
+
+    /*
+     * Com Last-Event-ID ainda dentro do anel, o assinante recebe os eventos perdidos antes dos novos.
+     * Fora do anel (ou de antes de um restart), recebe RECARREGAR para reler as listagens.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        long latest = lastId;
+        boolean resumable = lastEventId != null && lastEventId >= firstId - 1 && lastEventId <= latest
+                && latest - lastEventId <= ring.length();
+        Subscriber subscriber = new Subscriber(emitter, resumable ? lastEventId : latest);
+        subscriber.resetPending = lastEventId != null && !resumable;
+        // Os cabeçalhos só saem com a primeira escrita; sem isso o cliente esperaria o primeiro evento para ver o 200
+        subscriber.heartbeatDue.set(true);
+
+        emitter.onCompletion(subscriber::release);
+        subscribers.add(subscriber);
+        subscriber.signal();
+        return emitter;
+    }
+
+    // Comentário periódico: mantém a conexão aberta em proxies e descobre clientes que já foram embora
+    @Scheduled(fixedDelayString = "${reservas.eventos.heartbeat:PT15S}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue.set(true);
+            subscriber.signal();
+        }
+    }
+
+    // Desconecta quem está há mais de reservas.eventos.envio-timeout num único envio; não toca no emitter, que está travado
+    @Scheduled(fixedDelayString = "${reservas.eventos.envio-timeout:PT5S}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.dropIfStalled(now);
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    long slowSubscribersDisconnected() {
+        return slowSubscribersDisconnected.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("reservas.eventos.assinantes", subscribers, Set::size)
+                .description("Conexões abertas em GET /reservas/eventos")
+                .register(registry);
+        FunctionCounter.builder("reservas.eventos.desconectados", slowSubscribersDisconnected, AtomicLong::get)
+                .description("Assinantes desconectados por não acompanharem o feed ou travarem um envio")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) ring.length());
+    }
+
+    // Só um pool próprio cresce; com outro Executor o envio travado apenas ocupa a thread dele
+    private boolean addSender() {
+        if (!(senders instanceof ThreadPoolExecutor pool)) {
+            return false;
+        }
+        synchronized (pool) {
+            if (extraSenders.get() >= maxExtraSenders) {
+                return false;
+            }
+            extraSenders.incrementAndGet();
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() + 1);
+            pool.setCorePoolSize(pool.getCorePoolSize() + 1);
+        }
+        return true;
+    }
+
+    private void removeSender() {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) senders;
+        synchronized (pool) {
+            extraSenders.decrementAndGet();
+            pool.setCorePoolSize(pool.getCorePoolSize() - 1);
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() - 1);
+        }
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "reservas-eventos-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private volatile boolean resetPending;
+        private volatile boolean closed;
+        // Início (System.nanoTime) do envio em andamento, 0 fora de um envio; o resto do estado do envio é guardado por this
+        private long sendStartedAt;
+        private boolean stalled;
+        private boolean replacedInPool;
+        // Id do último evento enviado; só o envio em andamento o altera
+        private volatile long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void signal() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        /*
+         * Chamado pelo container ao encerrar a requisição, logo antes de reciclar a resposta para outra
+         * conexão. Depois do close nenhum envio novo começa (send confere closed); espera o envio em
+         * andamento terminar, para nenhum byte dele cair na conexão seguinte, mas no máximo
+         * reservas.eventos.envio-timeout, para um envio travado não prender a thread do container.
+         */
+        void release() {
+            close();
+            long deadline = System.nanoTime() + sendTimeoutNanos;
+            synchronized (this) {
+                long remaining;
+                while (sendStartedAt != 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        synchronized void dropIfStalled(long now) {
+            if (sendStartedAt == 0 || stalled || now - sendStartedAt < sendTimeoutNanos) {
+                return;
+            }
+            stalled = true;
+            slowSubscribersDisconnected.incrementAndGet();
+            close();
+            replacedInPool = addSender();
+        }
+
+        // Um envio por assinante de cada vez; o que chegar durante o envio é pego na volta do laço
+        private void drain() {
+            do {
+                try {
+                    sendPending();
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado ou emitter já encerrado; o container completa a requisição
+                    close();
+                }
+                scheduled.set(false);
+            } while (!closed && hasPending() && scheduled.compareAndSet(false, true));
+            if (isStalled()) {
+                // O envio travado acabou voltando; encerra a conexão que o watchdog já tinha descartado
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    // Já encerrado pelo container
+                }
+            }
+        }
+
+        private synchronized boolean isStalled() {
+            return stalled;
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Assinante já encerrado");
+                }
+                sendStartedAt = System.nanoTime();
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                synchronized (this) {
+                    sendStartedAt = 0;
+                    notifyAll();
+                    if (replacedInPool) {
+                        replacedInPool = false;
+                        removeSender();
+                    }
+                }
+            }
+        }
+
+        private boolean hasPending() {
+            return resetPending || cursor < lastId || heartbeatDue.get();
+        }
+
+        private void sendPending() throws IOException {
+            if (resetPending) {
+                resetPending = false;
+                send(SseEmitter.event().name(RESET_EVENT)
+                        .data("Eventos anteriores não estão mais disponíveis. Recarregue as listagens."));
+            }
+            while (!closed && cursor < lastId) {
+                long next = cursor + 1;
+                ReservationEvent event = ring.get(slot(next));
+                if (event == null || event.getId() != next) {
+                    // O anel já sobrescreveu o próximo evento deste assinante: consumidor lento
+                    slowSubscribersDisconnected.incrementAndGet();
+                    close();
+                    emitter.complete();
+                    return;
+                }
+                send(SseEmitter.event()
+                        .id(Long.toString(next))
+                        .name(event.getType().name())
+                        .data(event.getReservation(), MediaType.APPLICATION_JSON));
+                cursor = next;
+            }
+            if (heartbeatDue.getAndSet(false) && !closed) {
+                send(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+}
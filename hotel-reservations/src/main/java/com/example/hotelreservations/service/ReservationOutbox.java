@@ -0,0 +1,47 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.OutboxEvent;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.example.hotelreservations.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grava os eventos de reserva em outbox_event. Chamado dentro da transação da escrita: a linha do
+ * outbox e a alteração da reserva vão para o banco juntas ou nenhuma das duas. A entrega fica com
+ * o {@link OutboxRelay}, fora da requisição.
+ */
+@Component
+public class ReservationOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public ReservationOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void record(ReservationEventType type, List<Reservation> reservations) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            events.add(new OutboxEvent(type, reservation.getId(), toJson(reservation), now));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    private String toJson(Reservation reservation) {
+        try {
+            return objectMapper.writeValueAsString(reservation);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a reserva " + reservation.getId(), e);
+        }
+    }
+}
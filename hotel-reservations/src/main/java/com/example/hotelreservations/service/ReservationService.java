@@ -1,51 +1,373 @@
 package com.example.hotelreservations.service;
 
+import com.example.hotelreservations.config.CacheConfig;
 import com.example.hotelreservations.controller.ReservationStatus;
 import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.domain.ReservationChangeCounter;
+import com.example.hotelreservations.domain.ReservationNight;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.AvailabilityCalendarDTO;
+import com.example.hotelreservations.dto.BatchReservationResult;
+import com.example.hotelreservations.dto.CursorPage;
+import com.example.hotelreservations.dto.DateRangeDTO;
+import com.example.hotelreservations.dto.ReservationCursor;
 import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.example.hotelreservations.dto.ReservationView;
+import com.example.hotelreservations.repository.ReservationChangeCounterRepository;
+import com.example.hotelreservations.repository.ReservationNightRepository;
 import com.example.hotelreservations.repository.ReservationRepository;
+import com.example.hotelreservations.repository.UnitRepository;
 import com.example.hotelreservations.service.exceptions.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class ReservationService {
 
+    // Status que bloqueiam as datas da reserva
+    public static final Set<ReservationStatus> ACTIVE_STATUSES = EnumSet.of(ReservationStatus.CONFIRMADA, ReservationStatus.PENDENTE);
+
+    public static final int MAX_CALENDAR_DAYS = 1830;
+
+    // Noites de uma estadia; cada noite vira uma linha em reservation_night
+    public static final int MAX_STAY_NIGHTS = 365;
+
     private final ReservationRepository reservationRepository;
+    private final ReservationAvailabilityIndex availabilityIndex;
+    private final ReservationNightRepository reservationNightRepository;
+    private final DateRangeLocks dateRangeLocks;
+    private final ReservationChangeCounterRepository changeCounterRepository;
+    private final ReservationEventBroadcaster eventBroadcaster;
+    private final ReservationOutbox outbox;
+    private final UnitRepository unitRepository;
+    private final PendingHolds pendingHolds;
+    private final GuestNameIndex guestNameIndex;
+    private final BookingHorizon bookingHorizon;
+
+    // Contadores de alterações por unidade já refletidos nos índices em memória
+    private final Map<Integer, Long> indexedChangeCounters = new ConcurrentHashMap<>();
 
     @Autowired
-    public ReservationService(ReservationRepository reservationRepository) {
+    public ReservationService(ReservationRepository reservationRepository,
+                              ReservationAvailabilityIndex availabilityIndex,
+                              ReservationNightRepository reservationNightRepository,
+                              DateRangeLocks dateRangeLocks,
+                              ReservationChangeCounterRepository changeCounterRepository,
+                              ReservationEventBroadcaster eventBroadcaster,
+                              ReservationOutbox outbox,
+                              UnitRepository unitRepository,
+                              PendingHolds pendingHolds,
+                              GuestNameIndex guestNameIndex,
+                              BookingHorizon bookingHorizon) {
         this.reservationRepository = reservationRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.reservationNightRepository = reservationNightRepository;
+        this.dateRangeLocks = dateRangeLocks;
+        this.changeCounterRepository = changeCounterRepository;
+        this.eventBroadcaster = eventBroadcaster;
+        this.outbox = outbox;
+        this.unitRepository = unitRepository;
+        this.pendingHolds = pendingHolds;
+        this.guestNameIndex = guestNameIndex;
+        this.bookingHorizon = bookingHorizon;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadAvailabilityIndex() {
+        // Lidos antes das reservas: uma escrita no meio da carga só volta a ser aplicada na primeira atualização
+        Map<Integer, Long> counters = changeCounters();
+        List<Reservation> activeReservations = reservationRepository.findAllByStatusIn(ACTIVE_STATUSES);
+        availabilityIndex.rebuild(unitRepository.findAll(), activeReservations);
+        pendingHolds.clear();
+        activeReservations.forEach(reservation -> pendingHolds.track(reservation.getId(), holdExpiry(reservation)));
+        indexedChangeCounters.clear();
+        indexedChangeCounters.putAll(counters);
+    }
+
+    /*
+     * Reflete nos índices em memória as escritas feitas em outros nós. Toda escrita grava nas reservas
+     * o contador de alterações da unidade (recordChange); para cada unidade cujo contador mudou, só as
+     * reservas gravadas acima do último valor visto são relidas e aplicadas uma a uma, como as escritas
+     * deste nó, que também voltam aqui sem diferença. Os prazos das pendentes vão para a fila do reaper.
+     * Uma unidade ainda sem contador visto (criada em outro nó) é carregada inteira. Retorna o número de
+     * unidades atualizadas.
+     */
+    @Transactional(readOnly = true)
+    public int refreshInMemoryIndexes() {
+        if (!availabilityIndex.isReady() || !guestNameIndex.isReady()) {
+            return 0;
+        }
+        Map<Integer, Long> counters = changeCounters();
+        List<Integer> newUnitIds = new ArrayList<>();
+        int changedUnits = 0;
+        for (Map.Entry<Integer, Long> counter : counters.entrySet()) {
+            Long indexedCounter = indexedChangeCounters.get(counter.getKey());
+            if (indexedCounter == null) {
+                newUnitIds.add(counter.getKey());
+            } else if (!counter.getValue().equals(indexedCounter)) {
+                changedUnits++;
+                for (Reservation reservation : reservationRepository.findChangedSince(counter.getKey(), indexedCounter)) {
+                    if (ACTIVE_STATUSES.contains(reservation.getStatus())) {
+                        availabilityIndex.put(reservation.getId(), reservation.getUnidadeId(),
+                                reservation.getDataInicio(), reservation.getDataFim());
+                    } else {
+                        availabilityIndex.remove(reservation.getId());
+                    }
+                    guestNameIndex.put(reservation.getId(), reservation.getNomeHospede());
+                    pendingHolds.track(reservation.getId(), holdExpiry(reservation));
+                }
+            }
+        }
+        if (!newUnitIds.isEmpty()) {
+            List<Reservation> activeReservations = reservationRepository.findAllByUnidadeIdInAndStatusIn(newUnitIds, ACTIVE_STATUSES);
+            availabilityIndex.replaceUnits(unitRepository.findAllById(newUnitIds), activeReservations);
+            for (Reservation reservation : activeReservations) {
+                guestNameIndex.put(reservation.getId(), reservation.getNomeHospede());
+                pendingHolds.track(reservation.getId(), holdExpiry(reservation));
+            }
+        }
+        indexedChangeCounters.putAll(counters);
+        return changedUnits + newUnitIds.size();
+    }
+
+    private Map<Integer, Long> changeCounters() {
+        Map<Integer, Long> counters = new HashMap<>();
+        for (ReservationChangeCounter counter : changeCounterRepository.findAll()) {
+            counters.put(counter.getId(), counter.getCounter());
+        }
+        return counters;
+    }
+
+    // Todas as reservas, inclusive canceladas, lidas por cursor; escritas feitas durante a carga já entram no índice
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadGuestNameIndex() {
+        try (Stream<ReservationView> reservations = reservationRepository.streamAllOrderById()) {
+            reservations.forEach(reservation -> guestNameIndex.load(reservation.getId(), reservation.getNomeHospede()));
+        }
+        guestNameIndex.markReady();
     }
 
     @Transactional
+    @CachePut(cacheNames = CacheConfig.RESERVATIONS_CACHE, key = "#result.id")
     public Reservation createReservation(ReservationDTO reservationDTO) {
         validateDateRange(reservationDTO.getDataInicio(), reservationDTO.getDataFim());
         validateDateNotInPast(reservationDTO.getDataInicio(), reservationDTO.getDataFim());
+        Integer unitId = resolveUnit(reservationDTO.getUnidadeId(), reservationDTO.getQuantidadePessoas());
+
+        Reservation createdReservation = withDateRangeLock(List.of(unitId), reservationDTO.getDataInicio(), reservationDTO.getDataFim(), () -> {
+            if (!isDateAvailable(unitId, reservationDTO.getDataInicio(), reservationDTO.getDataFim())) {
+                throw new DateIsAlreadyBookedException("Data indisponível para reserva.");
+            }
+
+            Reservation reservation = new Reservation();
+            reservation.setNomeHospede(reservationDTO.getNomeHospede());
+            reservation.setDataInicio(reservationDTO.getDataInicio());
+            reservation.setDataFim(reservationDTO.getDataFim());
+            reservation.setQuantidadePessoas(reservationDTO.getQuantidadePessoas());
+            // PENDENTE segura as datas só até o prazo, enquanto o hóspede conclui o checkout
+            if (ReservationStatus.PENDENTE.equals(reservationDTO.getStatus())) {
+                reservation.setStatus(ReservationStatus.PENDENTE);
+                reservation.setExpiraEm(pendingHolds.expiryFrom(Instant.now()));
+            } else {
+                reservation.setStatus(ReservationStatus.CONFIRMADA);
+            }
+            reservation.setUnidadeId(unitId);
+
+            Reservation savedReservation = reservationRepository.save(reservation);
+            reserveNights(savedReservation, "Data indisponível para reserva.");
+            updateInMemoryIndexesAfterCommit(savedReservation);
+            return savedReservation;
+        });
+        recordChange(List.of(createdReservation.getUnidadeId()), List.of(createdReservation));
+        recordEvents(ReservationEventType.CRIADA, List.of(createdReservation));
+        return createdReservation;
+    }
 
-        if (!isDateAvailable(reservationDTO.getDataInicio(), reservationDTO.getDataFim())) {
-            throw new DateIsAlreadyBookedException("Data indisponível para reserva.");
+    /*
+     * Importação em lote: valida todas as linhas entre si e contra as reservas ativas do período
+     * numa única varredura ordenada por dataInicio para cada unidade, e grava as aceitas com INSERTs
+     * em lote. Linhas rejeitadas não impedem as demais.
+     */
+    @Transactional
+    public List<BatchReservationResult> importReservations(List<ReservationDTO> reservationDTOs) {
+        BatchReservationResult[] results = new BatchReservationResult[reservationDTOs.size()];
+        Integer[] unitIds = new Integer[reservationDTOs.size()];
+        Map<Integer, Unit> knownUnits = findUnits(reservationDTOs);
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < reservationDTOs.size(); i++) {
+            ReservationDTO reservationDTO = reservationDTOs.get(i);
+            if (reservationDTO.getDataInicio() == null || reservationDTO.getDataFim() == null) {
+                results[i] = BatchReservationResult.rejected(i, "As datas de início e fim são obrigatórias.");
+                continue;
+            }
+            Integer unidadeId = reservationDTO.getUnidadeId() == null ? Unit.DEFAULT_ID : reservationDTO.getUnidadeId();
+            Unit unit = knownUnits.get(unidadeId);
+            if (unit == null) {
+                results[i] = BatchReservationResult.rejected(i, "Unidade não encontrada com o ID: " + unidadeId);
+                continue;
+            }
+            unitIds[i] = unidadeId;
+            try {
+                validateDateRange(reservationDTO.getDataInicio(), reservationDTO.getDataFim());
+                validateDateNotInPast(reservationDTO.getDataInicio(), reservationDTO.getDataFim());
+                validateCapacity(unit, reservationDTO.getQuantidadePessoas());
+                candidates.add(i);
+            } catch (InvalidDateRangeException | DateInPastException | InvalidUnitException e) {
+                results[i] = BatchReservationResult.rejected(i, e.getMessage());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Arrays.asList(results);
         }
 
-        Reservation reservation = new Reservation();
-        reservation.setNomeHospede(reservationDTO.getNomeHospede());
-        reservation.setDataInicio(reservationDTO.getDataInicio());
-        reservation.setDataFim(reservationDTO.getDataFim());
-        reservation.setQuantidadePessoas(reservationDTO.getQuantidadePessoas());
-        reservation.setStatus(ReservationStatus.CONFIRMADA);
+        candidates.sort(Comparator.comparing((Integer i) -> reservationDTOs.get(i).getDataInicio()).thenComparing(i -> i));
+        LocalDate windowStart = reservationDTOs.get(candidates.get(0)).getDataInicio();
+        LocalDate windowEnd = candidates.stream().map(i -> reservationDTOs.get(i).getDataFim()).max(Comparator.naturalOrder()).get();
+
+        // Linhas agrupadas por unidade, cada grupo ainda em ordem de dataInicio
+        Map<Integer, List<Integer>> candidatesByUnit = new TreeMap<>();
+        for (Integer i : candidates) {
+            candidatesByUnit.computeIfAbsent(unitIds[i], unitId -> new ArrayList<>()).add(i);
+        }
+
+        return withDateRangeLock(candidatesByUnit.keySet(), windowStart, windowEnd, () -> {
+            Map<Integer, List<Reservation>> existingByUnit = new HashMap<>();
+            for (Reservation reservation : reservationRepository.findAllByUnidadeIdInAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusInOrderByDataInicio(
+                    candidatesByUnit.keySet(), windowEnd, windowStart, ACTIVE_STATUSES)) {
+                existingByUnit.computeIfAbsent(reservation.getUnidadeId(), unitId -> new ArrayList<>()).add(reservation);
+            }
+
+            List<Integer> accepted = new ArrayList<>();
+            for (Map.Entry<Integer, List<Integer>> unitCandidates : candidatesByUnit.entrySet()) {
+                sweepUnit(reservationDTOs, unitCandidates.getValue(),
+                        existingByUnit.getOrDefault(unitCandidates.getKey(), List.of()), results, accepted);
+            }
+
+            List<Reservation> reservations = new ArrayList<>(accepted.size());
+            for (Integer i : accepted) {
+                ReservationDTO reservationDTO = reservationDTOs.get(i);
+                Reservation reservation = new Reservation();
+                reservation.setNomeHospede(reservationDTO.getNomeHospede());
+                reservation.setDataInicio(reservationDTO.getDataInicio());
+                reservation.setDataFim(reservationDTO.getDataFim());
+                reservation.setQuantidadePessoas(reservationDTO.getQuantidadePessoas());
+                reservation.setStatus(ReservationStatus.CONFIRMADA);
+                reservation.setUnidadeId(unitIds[i]);
+                reservations.add(reservation);
+            }
+            List<Reservation> savedReservations = reservationRepository.saveAll(reservations);
+            reserveNights(savedReservations, "Data indisponível para reserva.");
+
+            for (int k = 0; k < accepted.size(); k++) {
+                Reservation savedReservation = savedReservations.get(k);
+                results[accepted.get(k)] = BatchReservationResult.created(accepted.get(k), savedReservation.getId());
+                updateInMemoryIndexesAfterCommit(savedReservation);
+            }
+            if (!accepted.isEmpty()) {
+                recordChange(savedReservations.stream().map(Reservation::getUnidadeId).toList(), savedReservations);
+                recordEvents(ReservationEventType.CRIADA, savedReservations);
+            }
+            return Arrays.asList(results);
+        });
+    }
+
+    // Varredura de uma unidade: linhas e reservas existentes em ordem de dataInicio, guardando só o maior dataFim de cada lado
+    private static void sweepUnit(List<ReservationDTO> reservationDTOs, List<Integer> candidates, List<Reservation> existing,
+                                  BatchReservationResult[] results, List<Integer> accepted) {
+        LocalDate existingMaxEnd = null;
+        LocalDate acceptedMaxEnd = null;
+        int next = 0;
+        for (Integer i : candidates) {
+            ReservationDTO candidate = reservationDTOs.get(i);
+            while (next < existing.size() && !existing.get(next).getDataInicio().isAfter(candidate.getDataInicio())) {
+                existingMaxEnd = max(existingMaxEnd, existing.get(next).getDataFim());
+                next++;
+            }
+            boolean overlapsExisting = (existingMaxEnd != null && !existingMaxEnd.isBefore(candidate.getDataInicio()))
+                    || (next < existing.size() && !existing.get(next).getDataInicio().isAfter(candidate.getDataFim()));
+            if (overlapsExisting) {
+                results[i] = BatchReservationResult.rejected(i, "Data indisponível para reserva.");
+            } else if (acceptedMaxEnd != null && !acceptedMaxEnd.isBefore(candidate.getDataInicio())) {
+                results[i] = BatchReservationResult.rejected(i, "Data em conflito com outra reserva do lote.");
+            } else {
+                accepted.add(i);
+                acceptedMaxEnd = max(acceptedMaxEnd, candidate.getDataFim());
+            }
+        }
+    }
 
-        return reservationRepository.save(reservation);
+    // Uma consulta para todas as unidades do lote, incluindo a padrão das linhas sem unidadeId
+    private Map<Integer, Unit> findUnits(List<ReservationDTO> reservationDTOs) {
+        Set<Integer> requested = new HashSet<>();
+        for (ReservationDTO reservationDTO : reservationDTOs) {
+            requested.add(reservationDTO.getUnidadeId() == null ? Unit.DEFAULT_ID : reservationDTO.getUnidadeId());
+        }
+        Map<Integer, Unit> existing = new HashMap<>();
+        if (!requested.isEmpty()) {
+            for (Unit unit : unitRepository.findAllById(requested)) {
+                existing.put(unit.getId(), unit);
+            }
+        }
+        return existing;
     }
 
     @Transactional
+    @CachePut(cacheNames = CacheConfig.RESERVATIONS_CACHE, key = "#id")
     public Reservation updateReservation(Integer id, ReservationDTO reservationDTO) {
+        return update(id, reservationDTO, null);
+    }
+
+    // Atualização condicional (If-Match): só aplica se a reserva ainda estiver na versão que o cliente leu
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.RESERVATIONS_CACHE, key = "#id")
+    public Reservation updateReservation(Integer id, ReservationDTO reservationDTO, Integer expectedVersion) {
+        return update(id, reservationDTO, expectedVersion);
+    }
+
+    private Reservation update(Integer id, ReservationDTO reservationDTO, Integer expectedVersion) {
         Reservation oldReservation = getReservationById(id);
 
+        if (expectedVersion != null && !expectedVersion.equals(oldReservation.getVersion())) {
+            throw new ReservationVersionMismatchException("A reserva foi alterada desde a versão informada em If-Match.");
+        }
+
         ReservationStatus newStatus = reservationDTO.getStatus();
 
         if (ReservationStatus.CANCELADA.equals(oldReservation.getStatus())) {
@@ -62,66 +384,417 @@ public class ReservationService {
         validateDateRange(newStartDate, newEndDate);
         validateDateNotInPast(newStartDate, newEndDate);
 
-        if (!newStartDate.isEqual(oldReservation.getDataInicio()) || !newEndDate.isEqual(oldReservation.getDataFim())) {
-            if (!isDateAvailable(newStartDate, newEndDate)) {
-                throw new DateIsAlreadyBookedException("Data indisponível para atualização.");
-            }
+        // Sem unidadeId a reserva continua na unidade atual
+        Integer newUnitId = resolveUnit(reservationDTO.getUnidadeId() == null ? oldReservation.getUnidadeId() : reservationDTO.getUnidadeId(),
+                reservationDTO.getQuantidadePessoas());
+        boolean moved = !newStartDate.isEqual(oldReservation.getDataInicio()) || !newEndDate.isEqual(oldReservation.getDataFim())
+                || !newUnitId.equals(oldReservation.getUnidadeId());
+        Integer oldUnitId = oldReservation.getUnidadeId();
+        Reservation updatedReservation;
+        if (moved) {
+            updatedReservation = withDateRangeLock(List.of(newUnitId), newStartDate, newEndDate, () -> {
+                if (!isDateAvailable(newUnitId, newStartDate, newEndDate)) {
+                    throw new DateIsAlreadyBookedException("Data indisponível para atualização.");
+                }
+                return applyUpdate(oldReservation, reservationDTO, newUnitId, true);
+            });
+        } else {
+            updatedReservation = applyUpdate(oldReservation, reservationDTO, newUnitId, false);
         }
+        recordChange(List.of(oldUnitId, newUnitId), List.of(updatedReservation));
+        recordEvents(ReservationEventType.ATUALIZADA, List.of(updatedReservation));
+        return updatedReservation;
+    }
 
-        oldReservation.setDataInicio(newStartDate);
-        oldReservation.setDataFim(newEndDate);
+    private Reservation applyUpdate(Reservation oldReservation, ReservationDTO reservationDTO, Integer unitId, boolean moved) {
+        boolean wasActive = ACTIVE_STATUSES.contains(oldReservation.getStatus());
+
+        // O prazo corre desde que a reserva ficou pendente; atualizar uma pendente não o renova
+        if (!ReservationStatus.PENDENTE.equals(reservationDTO.getStatus())) {
+            oldReservation.setExpiraEm(null);
+        } else if (!ReservationStatus.PENDENTE.equals(oldReservation.getStatus())) {
+            oldReservation.setExpiraEm(pendingHolds.expiryFrom(Instant.now()));
+        }
+        oldReservation.setDataInicio(reservationDTO.getDataInicio());
+        oldReservation.setDataFim(reservationDTO.getDataFim());
         oldReservation.setNomeHospede(reservationDTO.getNomeHospede());
         oldReservation.setQuantidadePessoas(reservationDTO.getQuantidadePessoas());
-        oldReservation.setStatus(newStatus);
+        oldReservation.setStatus(reservationDTO.getStatus());
+        oldReservation.setUnidadeId(unitId);
 
-        return reservationRepository.save(oldReservation);
+        Reservation savedReservation = reservationRepository.save(oldReservation);
+        boolean isActive = ACTIVE_STATUSES.contains(savedReservation.getStatus());
+        if (moved || wasActive != isActive) {
+            reservationNightRepository.deleteByReservationId(savedReservation.getId());
+            if (isActive) {
+                reserveNights(savedReservation, "Data indisponível para atualização.");
+            }
+        }
+        updateInMemoryIndexesAfterCommit(savedReservation);
+        return savedReservation;
     }
 
 
+    /*
+     * Chamado pelo reaper: cancela até limit reservas PENDENTE vencidas em now, lidas do banco e travadas
+     * até o commit, então uma confirmação ou troca de prazo concorrente espera ou é vista já gravada. As
+     * noites saem num só DELETE. Linhas travadas por outro nó ficam para ele (SKIP LOCKED).
+     */
+    @Transactional
+    public List<Reservation> releaseExpiredHolds(Instant now, int limit) {
+        List<Reservation> expired = reservationRepository.claimExpiredHolds(ReservationStatus.PENDENTE, now, PageRequest.of(0, limit));
+        if (expired.isEmpty()) {
+            return expired;
+        }
+        for (Reservation reservation : expired) {
+            reservation.setStatus(ReservationStatus.CANCELADA);
+        }
+
+        List<Reservation> savedReservations = reservationRepository.saveAll(expired);
+        reservationNightRepository.deleteByReservationIdIn(savedReservations.stream().map(Reservation::getId).toList());
+        for (Reservation savedReservation : savedReservations) {
+            updateInMemoryIndexesAfterCommit(savedReservation);
+        }
+        recordChange(savedReservations.stream().map(Reservation::getUnidadeId).toList(), savedReservations);
+        recordEvents(ReservationEventType.CANCELADA, savedReservations);
+        return savedReservations;
+    }
+
     @Transactional(readOnly = true)
-    public List<Reservation> getAllReservations() {
-        return reservationRepository.findAll();
+    public CursorPage<ReservationView> getReservations(ReservationCursor after, int limit) {
+        // Busca um item a mais para saber se existe próxima página sem precisar de COUNT
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<ReservationView> reservations = after == null
+                ? reservationRepository.findFirstPage(pageRequest)
+                : reservationRepository.findPageAfter(after.getDataInicio(), after.getId(), pageRequest);
+
+        if (reservations.size() <= limit) {
+            return new CursorPage<>(reservations, null);
+        }
+        List<ReservationView> page = reservations.subList(0, limit);
+        return new CursorPage<>(page, ReservationCursor.after(page.get(limit - 1)));
     }
 
+    /*
+     * Percorre todas as reservas com um cursor JDBC limitado pelo fetch size. As projeções não
+     * entram no contexto de persistência, então a memória não cresce com a tabela.
+     */
     @Transactional(readOnly = true)
-    public Reservation getReservationById(Integer id) {
-        Optional<Reservation> optionalReservation = reservationRepository.findById(id);
-        return optionalReservation.orElseThrow(() -> new ObjectNotFoundException("Reserva não encontrada com o ID: " + id));
+    public void streamAllReservations(Consumer<ReservationView> consumer) {
+        try (Stream<ReservationView> reservations = reservationRepository.streamAll()) {
+            reservations.forEach(consumer);
+        }
     }
 
+    /*
+     * Busca por nome do hóspede, sem distinção de maiúsculas nem de acentos. O índice em memória devolve
+     * os ids na ordem do resultado e as reservas são lidas por chave primária numa única consulta.
+     */
     @Transactional(readOnly = true)
-    public List<Reservation> findAllConfirmedReservations() {
-        return reservationRepository.findAllConfirmed();
+    public List<ReservationView> searchByGuestName(String query, int limit) {
+        String normalizedQuery = GuestNameIndex.normalize(query);
+        if (normalizedQuery.length() < GuestNameIndex.MIN_QUERY_LENGTH) {
+            throw new InvalidSearchQueryException("A busca precisa de pelo menos " + GuestNameIndex.MIN_QUERY_LENGTH + " letras ou números.");
+        }
+        if (!guestNameIndex.isReady()) {
+            String pattern = query.trim().toLowerCase(Locale.ROOT).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return reservationRepository.searchByGuestName("%" + pattern + "%", PageRequest.of(0, limit));
+        }
+
+        List<Integer> ids = guestNameIndex.search(normalizedQuery, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, ReservationView> reservationsById = new HashMap<>();
+        for (ReservationView reservation : reservationRepository.findViewsByIdIn(ids)) {
+            reservationsById.put(reservation.getId(), reservation);
+        }
+        List<ReservationView> reservations = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            ReservationView reservation = reservationsById.get(id);
+            if (reservation != null) {
+                reservations.add(reservation);
+            }
+        }
+        return reservations;
     }
 
     @Transactional(readOnly = true)
-    public List<Reservation> findAllPendingReservations() {
-        return reservationRepository.findAllPending();
+    @Cacheable(cacheNames = CacheConfig.RESERVATIONS_CACHE, key = "#id")
+    public Reservation getReservationById(Integer id) {
+        Optional<Reservation> optionalReservation = reservationRepository.findById(id);
+        return optionalReservation.orElseThrow(() -> new ObjectNotFoundException("Reserva não encontrada com o ID: " + id));
     }
 
     @Transactional(readOnly = true)
-    public List<Reservation> findAllCancelledReservations() {
-        return reservationRepository.findAllCancelled();
+    public Slice<ReservationView> findReservationsByStatus(ReservationStatus status, LocalDate from, LocalDate to, int page, int size) {
+        if (from != null && to != null) {
+            validateDateOrder(from, to);
+        }
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("dataInicio", "id"));
+        if (from == null && to == null) {
+            return reservationRepository.findByStatus(status, pageRequest);
+        }
+        if (to == null) {
+            return reservationRepository.findByStatusStartingFrom(status, from, pageRequest);
+        }
+        if (from == null) {
+            return reservationRepository.findByStatusStartingUntil(status, to, pageRequest);
+        }
+        return reservationRepository.findByStatusStartingBetween(status, from, to, pageRequest);
     }
 
     @Transactional
+    @CachePut(cacheNames = CacheConfig.RESERVATIONS_CACHE, key = "#id")
     public Reservation cancelReservation(Integer id) {
         Reservation reservation = getReservationById(id);
         reservation.setStatus(ReservationStatus.CANCELADA);
-        return reservationRepository.save(reservation);
+        Reservation savedReservation = reservationRepository.save(reservation);
+        reservationNightRepository.deleteByReservationId(savedReservation.getId());
+        updateInMemoryIndexesAfterCommit(savedReservation);
+        recordChange(List.of(savedReservation.getUnidadeId()), List.of(savedReservation));
+        recordEvents(ReservationEventType.CANCELADA, List.of(savedReservation));
+        return savedReservation;
+    }
+
+    // Versão da coleção de reservas para o ETag das listagens (soma dos contadores das unidades); vazio sem contadores
+    @Transactional(readOnly = true)
+    public Optional<Long> getChangeCounter() {
+        return changeCounterRepository.current();
+    }
+
+    public AvailabilityCalendarDTO getAvailabilityCalendar(LocalDate from, LocalDate to) {
+        return getAvailabilityCalendar(Unit.DEFAULT_ID, from, to);
+    }
+
+    /*
+     * Sem @Transactional: com o índice pronto o calendário da unidade padrão sai inteiro da memória,
+     * sem pegar conexão (outras unidades só têm a existência conferida pela chave primária).
+     * Antes da carga inicial, cai na consulta de sobreposição e funde os intervalos aqui.
+     */
+    public AvailabilityCalendarDTO getAvailabilityCalendar(Integer unidadeId, LocalDate from, LocalDate to) {
+        validateDateOrder(from, to);
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new InvalidDateRangeException("O calendário pode cobrir no máximo " + MAX_CALENDAR_DAYS + " dias.");
+        }
+        bookingHorizon.validate(to);
+        Integer unitId = resolveUnit(unidadeId);
+
+        List<DateRangeDTO> occupied = availabilityIndex.isReady()
+                ? availabilityIndex.occupiedRanges(unitId, from, to)
+                : occupiedRangesFromDatabase(unitId, from, to);
+
+        List<DateRangeDTO> free = new ArrayList<>();
+        LocalDate nextFree = from;
+        for (DateRangeDTO range : occupied) {
+            if (range.getDataInicio().isAfter(nextFree)) {
+                free.add(new DateRangeDTO(nextFree, range.getDataInicio().minusDays(1)));
+            }
+            nextFree = range.getDataFim().plusDays(1);
+        }
+        if (!nextFree.isAfter(to)) {
+            free.add(new DateRangeDTO(nextFree, to));
+        }
+        return new AvailabilityCalendarDTO(from, to, occupied, free);
     }
 
     public boolean isDateAvailable(LocalDate startDate, LocalDate endDate) {
-        List<Reservation> overlappingReservations = reservationRepository.findByDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatus(
-                endDate, startDate, ReservationStatus.CONFIRMADA);
+        return isDateAvailable(Unit.DEFAULT_ID, startDate, endDate);
+    }
 
-        List<Reservation> overlappingPendingReservations = reservationRepository.findByDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatus(
-                endDate, startDate, ReservationStatus.PENDENTE);
+    /*
+     * O índice só vê as escritas de outros nós na atualização seguinte. Um "livre" desatualizado é barrado
+     * pela chave de reservation_night ao gravar; um "ocupado" pode ser de uma reserva já cancelada ou
+     * movida em outro nó, então é conferido nas noites antes de recusar.
+     */
+    public boolean isDateAvailable(Integer unitId, LocalDate startDate, LocalDate endDate) {
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.isAvailable(unitId, startDate, endDate)
+                    || !reservationNightRepository.existsByUnidadeIdAndNightBetween(unitId, startDate, endDate);
+        }
 
-        return overlappingReservations.isEmpty() && overlappingPendingReservations.isEmpty();
+        return !reservationRepository.existsByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusIn(
+                unitId, endDate, startDate, ACTIVE_STATUSES);
     }
 
+    private List<DateRangeDTO> occupiedRangesFromDatabase(Integer unitId, LocalDate from, LocalDate to) {
+        List<DateRangeDTO> ranges = new ArrayList<>();
+        LocalDate currentStart = null;
+        LocalDate currentEnd = null;
+        for (Reservation reservation : reservationRepository
+                .findAllByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusInOrderByDataInicio(unitId, to, from, ACTIVE_STATUSES)) {
+            LocalDate start = reservation.getDataInicio().isBefore(from) ? from : reservation.getDataInicio();
+            LocalDate end = reservation.getDataFim().isAfter(to) ? to : reservation.getDataFim();
+            if (currentEnd != null && !start.isAfter(currentEnd.plusDays(1))) {
+                currentEnd = max(currentEnd, end);
+            } else {
+                if (currentStart != null) {
+                    ranges.add(new DateRangeDTO(currentStart, currentEnd));
+                }
+                currentStart = start;
+                currentEnd = end;
+            }
+        }
+        if (currentStart != null) {
+            ranges.add(new DateRangeDTO(currentStart, currentEnd));
+        }
+        return ranges;
+    }
+
+    /*
+     * Grava uma linha por noite ocupada da unidade. A chave primária (unidade, noite) em reservation_night
+     * é a garantia final contra reserva dupla: vale entre instâncias que compartilham o banco, onde os
+     * locks da JVM não alcançam.
+     */
+    private void reserveNights(Reservation reservation, String conflictMessage) {
+        reserveNights(List.of(reservation), conflictMessage);
+    }
+
+    private void reserveNights(List<Reservation> reservations, String conflictMessage) {
+        List<ReservationNight> nights = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            for (LocalDate night = reservation.getDataInicio(); !night.isAfter(reservation.getDataFim()); night = night.plusDays(1)) {
+                nights.add(new ReservationNight(reservation.getUnidadeId(), night, reservation.getId()));
+            }
+        }
+        try {
+            reservationNightRepository.saveAllAndFlush(nights);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            throw new DateIsAlreadyBookedException(conflictMessage, e);
+        }
+    }
+
+    /*
+     * Mantém as listras do período nas unidades travadas até o fim da transação, para que a próxima
+     * reserva concorrente só faça a checagem depois do commit (ou rollback) desta.
+     */
+    private <T> T withDateRangeLock(Collection<Integer> unitIds, LocalDate startDate, LocalDate endDate, Supplier<T> action) {
+        DateRangeLocks.Lease lease = dateRangeLocks.lock(unitIds, startDate, endDate);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return action.get();
+            } finally {
+                lease.release();
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lease.release();
+            }
+        });
+        return action.get();
+    }
+
+    /*
+     * Fim de toda escrita; depois dele só se registram os eventos, que não travam nada. O flush envia
+     * antes as alterações das reservas (e incrementa a @Version delas), então as linhas do contador só
+     * ficam travadas entre o UPDATE e o commit. Cada unidade tem a sua linha, incrementadas em ordem de
+     * id para que duas transações com várias unidades não se travem em ordens opostas. Em seguida as
+     * reservas alteradas recebem o contador da sua unidade: como a linha do contador fica travada até o
+     * commit, os valores gravados numa unidade crescem na ordem de commit, e refreshInMemoryIndexes
+     * relê só o que está acima do último valor visto.
+     */
+    private void recordChange(Collection<Integer> unitIds, Collection<Reservation> reservations) {
+        reservationRepository.flush();
+        for (Integer unitId : new TreeSet<>(unitIds)) {
+            changeCounterRepository.increment(unitId);
+        }
+        reservationRepository.stampChangeCounter(reservations.stream().map(Reservation::getId).toList());
+    }
+
+    // Os índices só refletem o que foi de fato gravado, por isso são atualizados após o commit.
+    private void updateInMemoryIndexesAfterCommit(Reservation reservation) {
+        Integer id = reservation.getId();
+        String nomeHospede = reservation.getNomeHospede();
+        Integer unitId = reservation.getUnidadeId();
+        LocalDate startDate = reservation.getDataInicio();
+        LocalDate endDate = reservation.getDataFim();
+        boolean active = ACTIVE_STATUSES.contains(reservation.getStatus());
+        Instant holdExpiry = holdExpiry(reservation);
+
+        afterCommit(() -> {
+            if (active) {
+                availabilityIndex.put(id, unitId, startDate, endDate);
+            } else {
+                availabilityIndex.remove(id);
+            }
+            guestNameIndex.put(id, nomeHospede);
+            pendingHolds.track(id, holdExpiry);
+        });
+    }
+
+    // Prazo que o reaper deve esperar; null tira a reserva da fila dele
+    private static Instant holdExpiry(Reservation reservation) {
+        return reservation.getStatus() == ReservationStatus.PENDENTE ? reservation.getExpiraEm() : null;
+    }
+
+    /*
+     * Depois do flush de recordChange, com a @Version já incrementada. A linha do outbox entra na
+     * mesma transação; o feed SSE só recebe após o commit, então quem acompanha nunca vê uma
+     * alteração desfeita por rollback. O evento leva uma cópia da reserva, não a entidade gerenciada.
+     */
+    private void recordEvents(ReservationEventType type, List<Reservation> reservations) {
+        outbox.record(type, reservations);
+        for (Reservation reservation : reservations) {
+            ReservationView view = ReservationView.from(reservation);
+            afterCommit(() -> eventBroadcaster.publish(type, view));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Sem unidade informada, a padrão; ela é criada com o esquema, então só as outras são conferidas no banco
+    private Integer resolveUnit(Integer unidadeId) {
+        if (unidadeId == null || unidadeId == Unit.DEFAULT_ID) {
+            return Unit.DEFAULT_ID;
+        }
+        if (!unitRepository.existsById(unidadeId)) {
+            throw new ObjectNotFoundException("Unidade não encontrada com o ID: " + unidadeId);
+        }
+        return unidadeId;
+    }
+
+    // Unidade de uma reserva: um grupo acima da capacidade é rejeitado; unidade sem capacidade aceita qualquer grupo
+    private Integer resolveUnit(Integer unidadeId, int guests) {
+        Integer unitId = unidadeId == null ? Unit.DEFAULT_ID : unidadeId;
+        Unit unit = unitRepository.findById(unitId)
+                .orElseThrow(() -> new ObjectNotFoundException("Unidade não encontrada com o ID: " + unitId));
+        validateCapacity(unit, guests);
+        return unitId;
+    }
+
+    private static void validateCapacity(Unit unit, int guests) {
+        if (unit.getCapacidade() != null && guests > unit.getCapacidade()) {
+            throw new InvalidUnitException("A unidade " + unit.getId() + " comporta no máximo " + unit.getCapacidade() + " pessoas.");
+        }
+    }
+
+    private static LocalDate max(LocalDate current, LocalDate candidate) {
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    // Período de uma estadia: datas em ordem, no máximo MAX_STAY_NIGHTS noites e dentro do horizonte de reservas
     private void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        validateDateOrder(startDate, endDate);
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_STAY_NIGHTS) {
+            throw new InvalidDateRangeException("Uma reserva pode cobrir no máximo " + MAX_STAY_NIGHTS + " noites.");
+        }
+        bookingHorizon.validate(endDate);
+    }
+
+    private void validateDateOrder(LocalDate startDate, LocalDate endDate) {
         if (startDate.isAfter(endDate)) {
             throw new InvalidDateRangeException("A data de início da viagem não pode ser posterior à data de fim da viagem.");
         }
@@ -0,0 +1,119 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.ReservationChangeCounter;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.UnitDTO;
+import com.example.hotelreservations.repository.ReservationChangeCounterRepository;
+import com.example.hotelreservations.repository.UnitRepository;
+import com.example.hotelreservations.service.exceptions.InvalidDateRangeException;
+import com.example.hotelreservations.service.exceptions.InvalidUnitException;
+import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+public class UnitService {
+
+    private final UnitRepository unitRepository;
+    private final ReservationChangeCounterRepository changeCounterRepository;
+    private final ReservationAvailabilityIndex availabilityIndex;
+    private final BookingHorizon bookingHorizon;
+
+    @Autowired
+    public UnitService(UnitRepository unitRepository, ReservationChangeCounterRepository changeCounterRepository,
+                       ReservationAvailabilityIndex availabilityIndex, BookingHorizon bookingHorizon) {
+        this.unitRepository = unitRepository;
+        this.changeCounterRepository = changeCounterRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingHorizon = bookingHorizon;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Unit> getUnits() {
+        return unitRepository.findAll(Sort.by("id"));
+    }
+
+    @Transactional(readOnly = true)
+    public Unit getUnitById(Integer id) {
+        return unitRepository.findById(id)
+                .orElseThrow(() -> new ObjectNotFoundException("Unidade não encontrada com o ID: " + id));
+    }
+
+    @Transactional
+    public Unit createUnit(UnitDTO unitDTO) {
+        if (unitDTO.getNome() == null || unitDTO.getNome().isBlank()) {
+            throw new InvalidUnitException("O nome da unidade é obrigatório.");
+        }
+        if (unitDTO.getCapacidade() != null && unitDTO.getCapacidade() < 1) {
+            throw new InvalidUnitException("A capacidade da unidade deve ser de pelo menos uma pessoa.");
+        }
+        if (unitRepository.existsByNome(unitDTO.getNome())) {
+            throw new InvalidUnitException("Já existe uma unidade com o nome: " + unitDTO.getNome());
+        }
+
+        Unit savedUnit = unitRepository.save(new Unit(null, unitDTO.getNome(), unitDTO.getTipo(), unitDTO.getCapacidade()));
+        // Linha do contador de alterações da unidade, que as escritas de reservas nela incrementam
+        changeCounterRepository.save(new ReservationChangeCounter(savedUnit.getId(), 0L));
+        // Como as reservas, a unidade só entra no índice depois do commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    availabilityIndex.putUnit(savedUnit);
+                }
+            });
+        } else {
+            availabilityIndex.putUnit(savedUnit);
+        }
+        return savedUnit;
+    }
+
+    /*
+     * Sem @Transactional: com o índice pronto a resposta sai da memória, uma checagem de bitmap por
+     * unidade. Antes da carga inicial, uma única consulta em reservation_night responde o mesmo.
+     */
+    public List<Unit> findAvailableUnits(LocalDate startDate, LocalDate endDate) {
+        validateStayDates(startDate, endDate);
+        return availabilityIndex.isReady()
+                ? availabilityIndex.freeUnits(startDate, endDate)
+                : unitRepository.findAvailable(startDate, endDate);
+    }
+
+    /*
+     * Busca do hóspede em todo o portfólio: unidades livres no período que comportam o grupo, da que
+     * melhor se ajusta à capacidade para a maior. A página é recortada da lista ranqueada do índice.
+     */
+    public Slice<Unit> searchUnits(LocalDate startDate, LocalDate endDate, int guests, int page, int size) {
+        validateStayDates(startDate, endDate);
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if (!availabilityIndex.isReady()) {
+            return unitRepository.searchAvailable(startDate, endDate, guests, pageRequest);
+        }
+        List<Unit> ranked = availabilityIndex.searchFreeUnits(startDate, endDate, guests);
+        int from = (int) Math.min(pageRequest.getOffset(), ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        return new SliceImpl<>(ranked.subList(from, to), pageRequest, to < ranked.size());
+    }
+
+    // Mesmos limites da estadia em ReservationService
+    private void validateStayDates(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidDateRangeException("A data de início da viagem não pode ser posterior à data de fim da viagem.");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= ReservationService.MAX_STAY_NIGHTS) {
+            throw new InvalidDateRangeException("Uma reserva pode cobrir no máximo " + ReservationService.MAX_STAY_NIGHTS + " noites.");
+        }
+        bookingHorizon.validate(endDate);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.hotelreservations.service.exceptions;
+
+public class InvalidPricingRuleException extends RuntimeException {
+    public InvalidPricingRuleException(String message) {
+        super(message);
+    }
+
+    public InvalidPricingRuleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
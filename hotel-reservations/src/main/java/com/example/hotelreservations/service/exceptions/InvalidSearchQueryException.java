@@ -0,0 +1,11 @@
+package com.example.hotelreservations.service.exceptions;
+
+public class InvalidSearchQueryException extends RuntimeException {
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+
+    public InvalidSearchQueryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
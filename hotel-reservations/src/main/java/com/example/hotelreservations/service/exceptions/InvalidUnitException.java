@@ -0,0 +1,11 @@
+package com.example.hotelreservations.service.exceptions;
+
+public class InvalidUnitException extends RuntimeException {
+    public InvalidUnitException(String message) {
+        super(message);
+    }
+
+    public InvalidUnitException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.hotelreservations.service.exceptions;
+
+public class ReservationVersionMismatchException extends RuntimeException {
+    public ReservationVersionMismatchException(String message) {
+        super(message);
+    }
+
+    public ReservationVersionMismatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
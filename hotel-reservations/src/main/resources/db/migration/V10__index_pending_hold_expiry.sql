@@ -0,0 +1,3 @@
+-- O reaper busca no banco as reservas PENDENTE vencidas em ordem de prazo; o índice evita varrer a
+-- tabela a cada ciclo
+CREATE INDEX idx_reservation_status_expira_em ON reservation (status, expira_em);
@@ -0,0 +1,3 @@
+-- O relay entrega cada partição em ordem de id. Com blocos de 50 por nó, um evento gravado depois
+-- noutro nó podia receber um id menor e sair antes; de um em um, o id segue a ordem de gravação
+ALTER SEQUENCE outbox_event_seq INCREMENT BY 1;
@@ -0,0 +1,6 @@
+-- Valor do contador de alterações da unidade na última escrita de cada reserva. A atualização dos
+-- índices em memória relê só as reservas da unidade acima do último valor visto, em vez de todas as
+-- ativas dela; as linhas antigas ficam NULL, porque já entram na carga inicial dos índices
+ALTER TABLE reservation ADD COLUMN change_counter BIGINT;
+
+CREATE INDEX idx_reservation_unidade_alteracao ON reservation (unidade_id, change_counter);
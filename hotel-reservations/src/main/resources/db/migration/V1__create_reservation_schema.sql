@@ -0,0 +1,29 @@
+-- Esquema inicial, equivalente ao que o Hibernate gera a partir das entidades
+
+CREATE SEQUENCE reservation_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE reservation (
+    id                 INTEGER      NOT NULL,
+    nome_hospede       VARCHAR(255),
+    data_inicio        DATE,
+    data_fim           DATE,
+    quantidade_pessoas INTEGER,
+    status             VARCHAR(255),
+    CONSTRAINT pk_reservation PRIMARY KEY (id),
+    CONSTRAINT ck_reservation_status CHECK (status IN ('CONFIRMADA', 'PENDENTE', 'CANCELADA'))
+);
+
+-- Checagem de sobreposição e listagens por status
+CREATE INDEX idx_reservation_status_periodo ON reservation (status, data_inicio, data_fim);
+
+-- Paginação por cursor em GET /reservas
+CREATE INDEX idx_reservation_data_inicio_id ON reservation (data_inicio, id);
+
+-- Uma linha por noite ocupada; a chave primária impede duas reservas ativas na mesma noite
+CREATE TABLE reservation_night (
+    night          DATE    NOT NULL,
+    reservation_id INTEGER NOT NULL,
+    CONSTRAINT pk_reservation_night PRIMARY KEY (night)
+);
+
+CREATE INDEX idx_reservation_night_reservation ON reservation_night (reservation_id);
@@ -0,0 +1,12 @@
+-- Respostas de POST /reservas com Idempotency-Key (reservas.idempotencia.armazenamento=banco).
+-- response_body nulo enquanto a primeira execução está em andamento
+CREATE TABLE idempotency_key (
+    idempotency_key VARCHAR(255)             NOT NULL,
+    request_hash    VARCHAR(64)              NOT NULL,
+    response_body   VARCHAR(4000),
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_idempotency_key PRIMARY KEY (idempotency_key)
+);
+
+-- Limpeza periódica das chaves expiradas
+CREATE INDEX idx_idempotency_key_created_at ON idempotency_key (created_at);
@@ -0,0 +1,11 @@
+-- Versão de cada reserva (ETag de GET /reservas/{id} e If-Match no PUT)
+ALTER TABLE reservation ADD COLUMN version INTEGER DEFAULT 0 NOT NULL;
+
+-- Contador global de alterações, ETag das listagens; uma única linha, incrementada por toda escrita
+CREATE TABLE reservation_change_counter (
+    id      INTEGER NOT NULL,
+    counter BIGINT  NOT NULL,
+    CONSTRAINT pk_reservation_change_counter PRIMARY KEY (id)
+);
+
+INSERT INTO reservation_change_counter (id, counter) VALUES (1, 0);
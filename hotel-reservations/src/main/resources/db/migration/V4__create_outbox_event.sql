@@ -0,0 +1,13 @@
+-- Eventos de reserva gravados junto com a alteração e entregues pelo relay do outbox; cada linha
+-- é apagada depois de entregue, então a tabela só guarda o que ainda está pendente
+CREATE SEQUENCE outbox_event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox_event (
+    id             BIGINT                   NOT NULL,
+    event_type     VARCHAR(20)              NOT NULL,
+    reservation_id INTEGER                  NOT NULL,
+    payload        VARCHAR(4000)            NOT NULL,
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id),
+    CONSTRAINT ck_outbox_event_type CHECK (event_type IN ('CRIADA', 'ATUALIZADA', 'CANCELADA'))
+);
@@ -0,0 +1,28 @@
+-- Unidades reservadas individualmente (quartos, chalés). A unidade 1 é a padrão: recebe as reservas
+-- existentes e as que chegam sem unidadeId
+CREATE SEQUENCE unit_seq START WITH 2 INCREMENT BY 1;
+
+CREATE TABLE unit (
+    id         INTEGER      NOT NULL,
+    nome       VARCHAR(255) NOT NULL,
+    tipo       VARCHAR(255),
+    capacidade INTEGER,
+    CONSTRAINT pk_unit PRIMARY KEY (id),
+    CONSTRAINT uk_unit_nome UNIQUE (nome)
+);
+
+INSERT INTO unit (id, nome) VALUES (1, 'Unidade principal');
+
+-- O default só preenche as linhas existentes; daqui em diante toda escrita informa a unidade
+ALTER TABLE reservation ADD COLUMN unidade_id INTEGER DEFAULT 1 NOT NULL;
+ALTER TABLE reservation ALTER COLUMN unidade_id DROP DEFAULT;
+ALTER TABLE reservation ADD CONSTRAINT fk_reservation_unit FOREIGN KEY (unidade_id) REFERENCES unit (id);
+
+-- Checagem de sobreposição por unidade
+CREATE INDEX idx_reservation_unidade_periodo ON reservation (unidade_id, data_inicio, data_fim);
+
+-- A noite passa a ser ocupada por unidade: a chave primária vira (unidade, noite)
+ALTER TABLE reservation_night ADD COLUMN unidade_id INTEGER DEFAULT 1 NOT NULL;
+ALTER TABLE reservation_night ALTER COLUMN unidade_id DROP DEFAULT;
+ALTER TABLE reservation_night DROP CONSTRAINT pk_reservation_night;
+ALTER TABLE reservation_night ADD CONSTRAINT pk_reservation_night PRIMARY KEY (unidade_id, night);
@@ -0,0 +1,3 @@
+-- Prazo das reservas PENDENTE. As pendentes anteriores a esta migração ficam sem prazo e só saem
+-- do estado pendente por atualização
+ALTER TABLE reservation ADD COLUMN expira_em TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,15 @@
+-- Regras de preço da diária; a aplicação as compila numa tabela de diárias em memória
+CREATE SEQUENCE pricing_rule_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE pricing_rule (
+    id                INTEGER       NOT NULL,
+    tipo              VARCHAR(255)  NOT NULL,
+    valor             NUMERIC(10,2) NOT NULL,
+    data_inicio       DATE,
+    data_fim          DATE,
+    dia_semana        VARCHAR(255),
+    minimo_noites     INTEGER,
+    pessoas_incluidas INTEGER,
+    CONSTRAINT pk_pricing_rule PRIMARY KEY (id),
+    CONSTRAINT ck_pricing_rule_tipo CHECK (tipo IN ('BASE', 'TEMPORADA', 'DIA_SEMANA', 'ESTADIA', 'PESSOA_EXTRA'))
+);
@@ -0,0 +1,17 @@
+-- Partição gravada em cada evento (reservation_id módulo 16, OutboxEvent.PARTITIONS), com índice para
+-- o relay ler o próximo lote de uma partição em ordem de id sem varrer a tabela
+ALTER TABLE outbox_event ADD COLUMN partition_key INTEGER;
+UPDATE outbox_event SET partition_key = MOD(reservation_id, 16);
+ALTER TABLE outbox_event ALTER COLUMN partition_key SET NOT NULL;
+
+CREATE INDEX idx_outbox_event_partition ON outbox_event (partition_key, id);
+
+-- Lease de cada partição: só o nó dono entrega a partição até lease_until
+CREATE TABLE outbox_partition (
+    id          INTEGER                  NOT NULL,
+    lease_owner VARCHAR(64),
+    lease_until TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT pk_outbox_partition PRIMARY KEY (id)
+);
+
+INSERT INTO outbox_partition (id) VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15);
@@ -0,0 +1,5 @@
+-- Contador de alterações por unidade (id = id da unidade), no lugar da linha única: escritas em
+-- unidades diferentes deixam de esperar umas pelas outras. A linha 1 já existente passa a ser a da
+-- unidade padrão e mantém o valor, então o ETag das listagens (soma das linhas) continua crescendo
+INSERT INTO reservation_change_counter (id, counter)
+SELECT id, 0 FROM unit WHERE id NOT IN (SELECT id FROM reservation_change_counter);
@@ -0,0 +1,5 @@
+-- Executado pelo Hibernate só quando ele cria o esquema (ddl-auto=create/create-drop, em desenvolvimento e testes).
+-- No perfil prod as mesmas linhas vêm das migrações V3, V5 e V8 do Flyway.
+INSERT INTO reservation_change_counter (id, counter) VALUES (1, 0);
+INSERT INTO unit (id, nome) VALUES (1, 'Unidade principal');
+INSERT INTO outbox_partition (id) VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15);
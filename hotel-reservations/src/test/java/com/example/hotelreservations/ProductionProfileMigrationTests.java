@@ -0,0 +1,78 @@
+package com.example.hotelreservations;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.service.ReservationService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe o perfil prod com um H2 em modo PostgreSQL no lugar do banco real: o Flyway cria o esquema
+ * e o Hibernate, com ddl-auto=validate, confere que as entidades batem com as migrações.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prod-profile;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.data-source-properties.prepareThreshold=",
+        "spring.datasource.hikari.data-source-properties.preparedStatementCacheQueries=",
+        "spring.datasource.hikari.data-source-properties.preparedStatementCacheSizeMiB=",
+        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts="
+})
+@ActiveProfiles("prod")
+public class ProductionProfileMigrationTests {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    public void testMigrationsCreateSchemaAndIndexes() {
+        assertEquals("12", flyway.info().current().getVersion().getVersion());
+
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name IN ('reservation', 'reservation_night', 'idempotency_key', 'outbox_event')",
+                String.class);
+        assertTrue(indexes.containsAll(List.of("idx_reservation_status_periodo", "idx_reservation_data_inicio_id",
+                "idx_reservation_night_reservation", "idx_idempotency_key_created_at", "idx_outbox_event_partition",
+                "idx_reservation_status_expira_em")));
+    }
+
+    @Test
+    public void testChangeCounterSeededByMigration() {
+        long before = reservationService.getChangeCounter().orElseThrow();
+        LocalDate start = LocalDate.now().plusDays(40);
+        Reservation created = reservationService.createReservation(
+                new ReservationDTO("Maria", start, start.plusDays(1), 2, ReservationStatus.CONFIRMADA));
+
+        assertEquals(0, created.getVersion());
+        assertEquals(before + 1, reservationService.getChangeCounter().orElseThrow());
+    }
+
+    @Test
+    public void testBookingRoundTripOnMigratedSchema() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        Reservation created = reservationService.createReservation(
+                new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA));
+
+        assertEquals("Joao", reservationService.getReservationById(created.getId()).getNomeHospede());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservation_night WHERE reservation_id = ?", Integer.class, created.getId()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.hotelreservations.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPermitFilterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    public void testRequestPassesAndReleasesPermit() throws Exception {
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(1, Duration.ofMillis(50), objectMapper);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/reservas"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    public void testRejectsWith503WhenPoolIsBusy() throws Exception {
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(1, Duration.ofMillis(50), objectMapper);
+        CountDownLatch insideChain = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slowRequest = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("POST", "/reservas"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            insideChain.countDown();
+                            try {
+                                finish.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+                return null;
+            });
+            assertTrue(insideChain.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/reservas/1"), rejected, new MockFilterChain());
+
+            assertEquals(503, rejected.getStatus());
+            assertEquals("1", rejected.getHeader("Retry-After"));
+            assertTrue(rejected.getContentAsString().contains("\"status\":503"));
+
+            finish.countDown();
+            slowRequest.get(5, TimeUnit.SECONDS);
+            assertEquals(1, filter.availablePermits());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEventFeedDoesNotTakePermit() throws Exception {
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(1, Duration.ofMillis(50), objectMapper);
+        CountDownLatch insideChain = new CountDownLatch(1);
+
+        filter.doFilter(new MockHttpServletRequest("GET", ConnectionPermitFilter.EVENTS_PATH), new MockHttpServletResponse(),
+                (request, response) -> {
+                    assertEquals(1, filter.availablePermits());
+                    insideChain.countDown();
+                });
+
+        assertEquals(0, insideChain.getCount());
+    }
+
+    @Test
+    public void testPermitsLeaveConnectionsForBackgroundWork() {
+        assertEquals(6, VirtualThreadsConfig.requestPermits(10, 4));
+        assertEquals(1, VirtualThreadsConfig.requestPermits(3, 5));
+    }
+
+    @Test
+    public void testFailsFastWithoutVirtualThreadSupport() {
+        if (Runtime.version().feature() >= 21) {
+            assertNotNull(VirtualThreadsConfig.newVirtualThreadPerTaskExecutor());
+        } else {
+            IllegalStateException e = assertThrows(IllegalStateException.class, VirtualThreadsConfig::newVirtualThreadPerTaskExecutor);
+            assertTrue(e.getMessage().contains("Java 21"));
+        }
+    }
+}
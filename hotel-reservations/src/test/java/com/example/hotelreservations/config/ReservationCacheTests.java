@@ -0,0 +1,136 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.service.ReservationService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservation-cache;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "reservas.cache.local.ttl=PT0.5S"
+})
+@AutoConfigureMockMvc
+public class ReservationCacheTests {
+
+    // Substituto em processo para o segundo nível compartilhado
+    @TestConfiguration
+    static class SecondLevelCacheConfig {
+        @Bean(name = CacheConfig.SECOND_LEVEL_CACHE_BEAN)
+        Cache reservationSecondLevelCache() {
+            return new ConcurrentMapCache("reservas-compartilhado");
+        }
+    }
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = (TwoLevelCache) ((TransactionAwareCacheDecorator) cacheManager.getCache(CacheConfig.RESERVATIONS_CACHE)).getTargetCache();
+        cache.clear();
+    }
+
+    @Test
+    public void testCreateWritesThroughAndGetReadsFromCache() {
+        Reservation created = createReservation(10);
+        CacheStats before = localStats();
+
+        Reservation first = reservationService.getReservationById(created.getId());
+        Reservation second = reservationService.getReservationById(created.getId());
+
+        assertSame(first, second);
+        assertEquals(2, localStats().minus(before).hitCount());
+        assertNotNull(cache.getShared().get(created.getId()));
+    }
+
+    @Test
+    public void testUpdateAndCancelReplaceCachedSnapshot() {
+        Reservation created = createReservation(20);
+        reservationService.getReservationById(created.getId());
+
+        reservationService.updateReservation(created.getId(), new ReservationDTO("Maria", created.getDataInicio(),
+                created.getDataFim(), 3, ReservationStatus.PENDENTE));
+        assertEquals("Maria", reservationService.getReservationById(created.getId()).getNomeHospede());
+
+        reservationService.cancelReservation(created.getId());
+        assertEquals(ReservationStatus.CANCELADA, reservationService.getReservationById(created.getId()).getStatus());
+    }
+
+    @Test
+    public void testMissFallsBackToSharedTierBeforeDatabase() {
+        Reservation created = createReservation(30);
+        cache.getLocal().clear();
+        CacheStats before = localStats();
+
+        Reservation fromSharedTier = reservationService.getReservationById(created.getId());
+
+        assertEquals(created.getId(), fromSharedTier.getId());
+        assertEquals(1, localStats().minus(before).missCount());
+        assertNotNull(cache.getLocal().get(created.getId()));
+    }
+
+    @Test
+    public void testLocalTierExpiresToPickUpWritesFromOtherNodes() throws InterruptedException {
+        Reservation created = createReservation(50);
+        reservationService.getReservationById(created.getId());
+
+        // Outro nó alterou a reserva: só o segundo nível recebe a nova versão
+        cache.getShared().put(created.getId(), new Reservation(created.getId(), "Maria", created.getDataInicio(),
+                created.getDataFim(), 2, ReservationStatus.CONFIRMADA));
+        assertEquals("Joao", reservationService.getReservationById(created.getId()).getNomeHospede());
+
+        Thread.sleep(700);
+        assertEquals("Maria", reservationService.getReservationById(created.getId()).getNomeHospede());
+    }
+
+    @Test
+    public void testStatisticsEndpoint() throws Exception {
+        Reservation created = createReservation(40);
+        reservationService.getReservationById(created.getId());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/cache/estatisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(CacheConfig.RESERVATIONS_CACHE))
+                .andExpect(jsonPath("$[0].hitCount").isNumber())
+                .andExpect(jsonPath("$[0].missCount").isNumber())
+                .andExpect(jsonPath("$[0].evictionCount").isNumber());
+    }
+
+    private Reservation createReservation(int daysAhead) {
+        LocalDate start = LocalDate.now().plusDays(daysAhead);
+        return reservationService.createReservation(new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA));
+    }
+
+    private CacheStats localStats() {
+        return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache()).stats();
+    }
+}
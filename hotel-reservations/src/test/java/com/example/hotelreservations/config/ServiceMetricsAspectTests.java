@@ -0,0 +1,95 @@
+package com.example.hotelreservations.config;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.service.ReservationService;
+import com.example.hotelreservations.service.exceptions.DateIsAlreadyBookedException;
+import com.example.hotelreservations.service.exceptions.InvalidDateRangeException;
+import com.example.hotelreservations.service.exceptions.InvalidSearchQueryException;
+import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:service-metrics;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class ServiceMetricsAspectTests {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testCreateIsTimedBySuccessAndConflict() {
+        long successes = count("createReservation", "success");
+        long conflicts = count("createReservation", "date_already_booked");
+        LocalDate start = LocalDate.now().plusDays(100);
+        ReservationDTO reservationDTO = new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA);
+
+        reservationService.createReservation(reservationDTO);
+        assertThrows(DateIsAlreadyBookedException.class, () -> reservationService.createReservation(reservationDTO));
+
+        assertEquals(successes + 1, count("createReservation", "success"));
+        assertEquals(conflicts + 1, count("createReservation", "date_already_booked"));
+    }
+
+    @Test
+    public void testValidationAndLookupFailuresAreTaggedByOutcome() {
+        long notFound = count("getReservationById", "not_found");
+        long invalidRange = count("createReservation", "invalid_date_range");
+        long invalidSearch = count("searchByGuestName", "invalid_search_query");
+        LocalDate start = LocalDate.now().plusDays(200);
+
+        assertThrows(ObjectNotFoundException.class, () -> reservationService.getReservationById(-1));
+        assertThrows(InvalidDateRangeException.class, () -> reservationService.createReservation(
+                new ReservationDTO("Joao", start, start.minusDays(1), 2, ReservationStatus.CONFIRMADA)));
+        assertThrows(InvalidSearchQueryException.class, () -> reservationService.searchByGuestName("a", 20));
+
+        assertEquals(notFound + 1, count("getReservationById", "not_found"));
+        assertEquals(invalidSearch + 1, count("searchByGuestName", "invalid_search_query"));
+        assertEquals(invalidRange + 1, count("createReservation", "invalid_date_range"));
+        assertEquals("InvalidDateRangeException", meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "createReservation").tag("outcome", "invalid_date_range").timer().getId().getTag("exception"));
+    }
+
+    @Test
+    public void testPrometheusEndpointExposesServiceRepositoryPoolAndHibernateMetrics() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(300);
+        reservationService.createReservation(new ReservationDTO("Joao", start, start, 2, ReservationStatus.CONFIRMADA));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("reservas_service_seconds_count{exception=\"none\",method=\"createReservation\",outcome=\"success\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{exception=\"None\",method=\"save\",repository=\"ReservationRepository\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+
+    private long count(String method, String outcome) {
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.METRIC_NAME).tag("method", method).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
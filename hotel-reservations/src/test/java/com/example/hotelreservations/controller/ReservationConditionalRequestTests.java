@@ -0,0 +1,117 @@
+package com.example.hotelreservations.controller;
+
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ETag, If-None-Match e If-Match de ponta a ponta, com a @Version gravada no banco e o contador
+ * global de alterações como versão das listagens.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional-requests;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+public class ReservationConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    public void testGetByIdAnswersNotModifiedUntilReservationChanges() throws Exception {
+        Reservation created = createReservation(10);
+
+        String eTag = mockMvc.perform(get("/reservas/{id}", created.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/reservas/{id}", created.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/reservas/{id}", created.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Maria", created)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        mockMvc.perform(get("/reservas/{id}", created.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nomeHospede").value("Maria"));
+    }
+
+    @Test
+    public void testIfMatchRejectsStaleVersion() throws Exception {
+        Reservation created = createReservation(20);
+
+        mockMvc.perform(put("/reservas/{id}", created.getId()).header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Maria", created)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        // Segundo cliente ainda com a versão 0: não sobrescreve a alteração do primeiro
+        mockMvc.perform(put("/reservas/{id}", created.getId()).header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Ana", created)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/reservas/{id}", created.getId()).header("If-Match", "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Ana", created)))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Maria", reservationService.getReservationById(created.getId()).getNomeHospede());
+    }
+
+    @Test
+    public void testListingsAnswerNotModifiedUntilAnyWrite() throws Exception {
+        createReservation(30);
+
+        String eTag = mockMvc.perform(get("/reservas/confirmadas"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/reservas/confirmadas").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/reservas").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        Reservation other = createReservation(40);
+        reservationService.cancelReservation(other.getId());
+
+        mockMvc.perform(get("/reservas/confirmadas").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    private Reservation createReservation(int daysAhead) {
+        LocalDate start = LocalDate.now().plusDays(daysAhead);
+        return reservationService.createReservation(new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA));
+    }
+
+    private static String body(String nomeHospede, Reservation reservation) {
+        return "{\"nomeHospede\": \"" + nomeHospede + "\", \"dataInicio\": \"" + reservation.getDataInicio()
+                + "\", \"dataFim\": \"" + reservation.getDataFim() + "\", \"quantidadePessoas\": 2, \"status\": \"CONFIRMADA\"}";
+    }
+}
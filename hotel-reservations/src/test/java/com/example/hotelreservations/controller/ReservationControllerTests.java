@@ -1,7 +1,17 @@
 package com.example.hotelreservations.controller;
 
 import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.AvailabilityCalendarDTO;
+import com.example.hotelreservations.dto.BatchReservationResult;
+import com.example.hotelreservations.dto.CursorPage;
+import com.example.hotelreservations.dto.DateRangeDTO;
+import com.example.hotelreservations.dto.ReservationCursor;
 import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.dto.ReservationView;
+import com.example.hotelreservations.config.IdempotencyConfig;
+import com.example.hotelreservations.service.IdempotencyService;
+import com.example.hotelreservations.service.ReservationEventBroadcaster;
 import com.example.hotelreservations.service.ReservationService;
 import com.example.hotelreservations.service.exceptions.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,13 +20,24 @@ import org.mockito.InjectMocks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.function.Consumer;
+
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,6 +47,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @WebMvcTest(ReservationController.class)
+@Import({IdempotencyService.class, IdempotencyConfig.class, WithoutTransactionConfig.class})
 public class ReservationControllerTests {
 
     @Autowired
@@ -34,6 +56,9 @@ public class ReservationControllerTests {
     @MockBean
     private ReservationService reservationService;
 
+    @MockBean
+    private ReservationEventBroadcaster eventBroadcaster;
+
     @InjectMocks
     private ReservationController reservationController;
 
@@ -55,6 +80,86 @@ public class ReservationControllerTests {
                .andExpect(header().string("Location", "http://localhost/reservas/1"));
     }
 
+    @Test
+    public void testCreateReservationWithIdempotencyKeyReplaysFirstResponse() throws Exception {
+        Reservation reservation = new Reservation(7, "Joao", LocalDate.now().plusDays(3), LocalDate.now().plusDays(5), 2, ReservationStatus.CONFIRMADA);
+        when(reservationService.createReservation(any(ReservationDTO.class))).thenReturn(reservation);
+        String body = "{\"nomeHospede\": \"Joao\", \"dataInicio\": \"2030-08-06\", \"dataFim\": \"2030-08-09\", \"quantidadePessoas\": 2}";
+
+        mockMvc.perform(post("/reservas").header("Idempotency-Key", "pedido-42")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/reservas/7"))
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        mockMvc.perform(post("/reservas").header("Idempotency-Key", "pedido-42")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/reservas/7"))
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.nomeHospede").value("Joao"));
+
+        verify(reservationService, times(1)).createReservation(any(ReservationDTO.class));
+
+        // Mesma chave com outro corpo
+        mockMvc.perform(post("/reservas").header("Idempotency-Key", "pedido-42")
+                        .contentType(MediaType.APPLICATION_JSON).content(body.replace("Joao", "Maria")))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void testImportReservationsFromJsonArray() throws Exception {
+        when(reservationService.importReservations(argThat(rows -> rows.size() == 2))).thenReturn(List.of(
+                BatchReservationResult.created(0, 10),
+                BatchReservationResult.rejected(1, "Data indisponível para reserva.")
+        ));
+
+        mockMvc.perform(post("/reservas/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"nomeHospede\": \"Joao\", \"dataInicio\": \"2030-08-06\", \"dataFim\": \"2030-08-09\", \"quantidadePessoas\": 2}," +
+                                "{\"nomeHospede\": \"Maria\", \"dataInicio\": \"2030-08-08\", \"dataFim\": \"2030-08-10\", \"quantidadePessoas\": 3}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].message").value("Data indisponível para reserva."));
+    }
+
+    @Test
+    public void testImportReservationsFromNdjson() throws Exception {
+        when(reservationService.importReservations(argThat(rows -> rows.size() == 2
+                && rows.get(1).getNomeHospede().equals("Maria")
+                && rows.get(1).getDataInicio().equals(LocalDate.of(2030, 8, 10)))))
+                .thenReturn(List.of(BatchReservationResult.created(0, 10), BatchReservationResult.created(1, 11)));
+
+        mockMvc.perform(post("/reservas/batch")
+                        .contentType(ReservationController.APPLICATION_NDJSON_VALUE)
+                        .content("{\"nomeHospede\": \"Joao\", \"dataInicio\": \"2030-08-06\", \"dataFim\": \"2030-08-09\", \"quantidadePessoas\": 2}\n" +
+                                "{\"nomeHospede\": \"Maria\", \"dataInicio\": \"2030-08-10\", \"dataFim\": \"2030-08-12\", \"quantidadePessoas\": 3}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].id").value(11));
+    }
+
+    @Test
+    public void testImportReservationsFromMalformedNdjson() throws Exception {
+        mockMvc.perform(post("/reservas/batch")
+                        .contentType(ReservationController.APPLICATION_NDJSON_VALUE)
+                        .content("{\"nomeHospede\": \"Joao\"\n{quebrado"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testImportReservationsRejectsTooManyNdjsonLines() throws Exception {
+        String line = "{\"nomeHospede\": \"Joao\", \"dataInicio\": \"2030-08-06\", \"dataFim\": \"2030-08-06\", \"quantidadePessoas\": 2}\n";
+
+        mockMvc.perform(post("/reservas/batch")
+                        .contentType(ReservationController.APPLICATION_NDJSON_VALUE)
+                        .content(line.repeat(ReservationController.MAX_BATCH_LINES + 1)))
+                .andExpect(status().isPayloadTooLarge());
+        verify(reservationService, never()).importReservations(any());
+    }
+
     @Test
     public void testCancelReservation() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.delete("/reservas/1/cancelar"))
@@ -99,12 +204,13 @@ public class ReservationControllerTests {
 
     @Test
     public void testGetConfirmedReservations() throws Exception {
-        Reservation reservation1 = new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA);
-        Reservation reservation2 = new Reservation(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CONFIRMADA);
+        ReservationView reservation1 = new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID);
+        ReservationView reservation2 = new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID);
 
-        List<Reservation> confirmedReservations = Arrays.asList(reservation1, reservation2);
+        List<ReservationView> confirmedReservations = Arrays.asList(reservation1, reservation2);
 
-        when(reservationService.findAllConfirmedReservations()).thenReturn(confirmedReservations);
+        when(reservationService.findReservationsByStatus(ReservationStatus.CONFIRMADA, null, null, 0, 50))
+                .thenReturn(new SliceImpl<>(confirmedReservations));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/reservas/confirmadas"))
                 .andExpect(status().isOk())
@@ -124,12 +230,13 @@ public class ReservationControllerTests {
 
     @Test
     public void testGetPendingReservations() throws Exception {
-        Reservation reservation1 = new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.PENDENTE);
-        Reservation reservation2 = new Reservation(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.PENDENTE);
+        ReservationView reservation1 = new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.PENDENTE, Unit.DEFAULT_ID);
+        ReservationView reservation2 = new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.PENDENTE, Unit.DEFAULT_ID);
 
-        List<Reservation> pendingReservations = Arrays.asList(reservation1, reservation2);
+        List<ReservationView> pendingReservations = Arrays.asList(reservation1, reservation2);
 
-        when(reservationService.findAllPendingReservations()).thenReturn(pendingReservations);
+        when(reservationService.findReservationsByStatus(ReservationStatus.PENDENTE, null, null, 0, 50))
+                .thenReturn(new SliceImpl<>(pendingReservations));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/reservas/pendentes"))
                 .andExpect(status().isOk())
@@ -151,12 +258,13 @@ public class ReservationControllerTests {
 
     @Test
     public void testGetCancelledReservations() throws Exception {
-        Reservation reservation1 = new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CANCELADA);
-        Reservation reservation2 = new Reservation(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CANCELADA);
+        ReservationView reservation1 = new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CANCELADA, Unit.DEFAULT_ID);
+        ReservationView reservation2 = new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CANCELADA, Unit.DEFAULT_ID);
 
-        List<Reservation> cancelledReservations = Arrays.asList(reservation1, reservation2);
+        List<ReservationView> cancelledReservations = Arrays.asList(reservation1, reservation2);
 
-        when(reservationService.findAllCancelledReservations()).thenReturn(cancelledReservations);
+        when(reservationService.findReservationsByStatus(ReservationStatus.CANCELADA, null, null, 0, 50))
+                .thenReturn(new SliceImpl<>(cancelledReservations));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/reservas/canceladas"))
                 .andExpect(status().isOk())
@@ -178,15 +286,16 @@ public class ReservationControllerTests {
 
     @Test
     public void testGetAllReservations() throws Exception {
-        Reservation reservation1 = new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA);
-        Reservation reservation2 = new Reservation(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CANCELADA);
+        ReservationView reservation1 = new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID);
+        ReservationView reservation2 = new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CANCELADA, Unit.DEFAULT_ID);
 
-        List<Reservation> allReservations = Arrays.asList(reservation1, reservation2);
+        List<ReservationView> allReservations = Arrays.asList(reservation1, reservation2);
 
-        when(reservationService.getAllReservations()).thenReturn(allReservations);
+        when(reservationService.getReservations(isNull(), eq(50))).thenReturn(new CursorPage<>(allReservations, null));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/reservas"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].id").value(reservation1.getId()))
                 .andExpect(jsonPath("$[0].nomeHospede").value(reservation1.getNomeHospede()))
                 .andExpect(jsonPath("$[0].dataInicio").value(reservation1.getDataInicio().toString()))
@@ -202,4 +311,93 @@ public class ReservationControllerTests {
                 .andExpect(jsonPath("$[1].status").value(reservation2.getStatus().toString()));
     }
 
+    @Test
+    public void testGetCancelledReservationsWithDateWindowAndNextPage() throws Exception {
+        ReservationView reservation = new ReservationView(3, "Ana", LocalDate.of(2030, 2, 1), LocalDate.of(2030, 2, 3), 2, ReservationStatus.CANCELADA, Unit.DEFAULT_ID);
+
+        when(reservationService.findReservationsByStatus(ReservationStatus.CANCELADA, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 3, 31), 0, 1))
+                .thenReturn(new SliceImpl<>(List.of(reservation), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/reservas/canceladas?from=2030-01-01&to=2030-03-31&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(header().string("Link", "<http://localhost/reservas/canceladas?from=2030-01-01&to=2030-03-31&page=1&size=1>; rel=\"next\""));
+    }
+
+    @Test
+    public void testSearchReservationsByGuestName() throws Exception {
+        ReservationView reservation = new ReservationView(7, "João Conceição", LocalDate.now(), LocalDate.now().plusDays(2), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID);
+        when(reservationService.searchByGuestName("conceicao", 200)).thenReturn(List.of(reservation));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/reservas/busca").param("q", "conceicao").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].nomeHospede").value("João Conceição"));
+
+        when(reservationService.searchByGuestName("a", 20)).thenThrow(new InvalidSearchQueryException("A busca precisa de pelo menos 2 letras ou números."));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/reservas/busca").param("q", "a"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetAllReservationsWithCursor() throws Exception {
+        ReservationView reservation = new ReservationView(7, "Joao", LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID);
+        ReservationCursor after = new ReservationCursor(LocalDate.of(2030, 1, 1), 3);
+        ReservationCursor next = ReservationCursor.after(reservation);
+
+        when(reservationService.getReservations(argThat(cursor -> cursor != null && cursor.getId() == 3
+                && cursor.getDataInicio().equals(LocalDate.of(2030, 1, 1))), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(reservation), next));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/reservas").param("after", after.encode()).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(header().string("X-Next-Cursor", next.encode()))
+                .andExpect(header().string("Link", "<http://localhost/reservas?after=" + next.encode() + "&limit=1>; rel=\"next\""));
+    }
+
+    @Test
+    public void testGetAllReservationsWithInvalidCursor() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/reservas").param("after", "nao-e-um-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamAllReservationsAsNdjson() throws Exception {
+        ReservationView reservation1 = new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID);
+        ReservationView reservation2 = new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.PENDENTE, Unit.DEFAULT_ID);
+        doAnswer(invocation -> {
+            Consumer<ReservationView> consumer = invocation.getArgument(0);
+            consumer.accept(reservation1);
+            consumer.accept(reservation2);
+            return null;
+        }).when(reservationService).streamAllReservations(any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/reservas").accept(ReservationController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ReservationController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(org.hamcrest.Matchers.matchesPattern("(?s)\\{\"id\":1,.*\\}\n\\{\"id\":2,.*\\}\n")));
+    }
+
+    @Test
+    public void testGetAvailabilityCalendar() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 10);
+        when(reservationService.getAvailabilityCalendar(Unit.DEFAULT_ID, from, to)).thenReturn(new AvailabilityCalendarDTO(from, to,
+                List.of(new DateRangeDTO(LocalDate.of(2030, 1, 3), LocalDate.of(2030, 1, 5))),
+                List.of(new DateRangeDTO(from, LocalDate.of(2030, 1, 2)), new DateRangeDTO(LocalDate.of(2030, 1, 6), to))));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/reservas/disponibilidade?from=2030-01-01&to=2030-01-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ocupados[0].dataInicio").value("2030-01-03"))
+                .andExpect(jsonPath("$.ocupados[0].dataFim").value("2030-01-05"))
+                .andExpect(jsonPath("$.livres.length()").value(2))
+                .andExpect(jsonPath("$.livres[1].dataInicio").value("2030-01-06"));
+    }
 }
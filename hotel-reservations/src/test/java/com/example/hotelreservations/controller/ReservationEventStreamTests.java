@@ -0,0 +1,173 @@
+package com.example.hotelreservations.controller;
+
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.service.ReservationEventBroadcaster;
+import com.example.hotelreservations.service.ReservationService;
+import com.example.hotelreservations.service.exceptions.DateIsAlreadyBookedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GET /reservas/eventos por HTTP de verdade: eventos publicados após o commit, retomada pelo
+ * Last-Event-ID e RECARREGAR quando o id não está mais no buffer de replay.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:event-stream;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"
+})
+public class ReservationEventStreamTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<EventStream> openStreams = new ArrayList<>();
+
+    @AfterEach
+    public void closeStreams() throws IOException {
+        for (EventStream stream : openStreams) {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void testCommittedChangesArePushedAndRollbacksAreNot() throws Exception {
+        EventStream stream = open(null);
+        Reservation created = createReservation(10);
+        assertThrows(DateIsAlreadyBookedException.class, () -> createReservation(10));
+        reservationService.cancelReservation(created.getId());
+
+        ServerSentEvent first = stream.next();
+        assertEquals("CRIADA", first.name);
+        assertTrue(first.data.contains("\"id\":" + created.getId()));
+        assertTrue(first.data.contains("\"dataInicio\":\"" + created.getDataInicio() + "\""));
+
+        ServerSentEvent second = stream.next();
+        assertEquals("CANCELADA", second.name);
+        assertTrue(second.data.contains("\"status\":\"CANCELADA\""));
+        assertEquals(Long.parseLong(first.id) + 1, Long.parseLong(second.id));
+    }
+
+    @Test
+    public void testLastEventIdReplaysMissedEvents() throws Exception {
+        EventStream stream = open(null);
+        createReservation(20);
+        ServerSentEvent seen = stream.next();
+        stream.close();
+
+        Reservation missed = createReservation(30);
+        reservationService.cancelReservation(missed.getId());
+
+        EventStream resumed = open(seen.id);
+        ServerSentEvent replayedCreate = resumed.next();
+        ServerSentEvent replayedCancel = resumed.next();
+        assertEquals("CRIADA", replayedCreate.name);
+        assertTrue(replayedCreate.data.contains("\"id\":" + missed.getId()));
+        assertEquals("CANCELADA", replayedCancel.name);
+
+        Reservation live = createReservation(40);
+        assertTrue(resumed.next().data.contains("\"id\":" + live.getId()));
+    }
+
+    @Test
+    public void testUnknownLastEventIdAsksClientToReload() throws Exception {
+        EventStream stream = open("1");
+
+        assertEquals(ReservationEventBroadcaster.RESET_EVENT, stream.next().name);
+    }
+
+    private Reservation createReservation(int daysAhead) {
+        LocalDate start = LocalDate.now().plusDays(daysAhead);
+        return reservationService.createReservation(new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA));
+    }
+
+    private EventStream open(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/reservas/eventos"))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        EventStream stream = new EventStream(response.body());
+        openStreams.add(stream);
+        return stream;
+    }
+
+    private static class ServerSentEvent {
+        private String id;
+        private String name;
+        private String data;
+    }
+
+    // Lê as linhas numa thread própria para o teste poder esperar cada evento com timeout
+    private static class EventStream {
+
+        private final InputStream body;
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+        EventStream(InputStream body) {
+            this.body = body;
+            Thread reader = new Thread(() -> {
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        lines.add(line);
+                    }
+                } catch (IOException e) {
+                    // Stream fechado pelo teste
+                }
+            });
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        ServerSentEvent next() throws InterruptedException {
+            ServerSentEvent event = new ServerSentEvent();
+            while (true) {
+                String line = lines.poll(5, TimeUnit.SECONDS);
+                assertNotNull(line, "Nenhum evento recebido");
+                if (line.isEmpty()) {
+                    if (event.name != null) {
+                        return event;
+                    }
+                } else if (line.startsWith("id:")) {
+                    event.id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    event.name = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    event.data = line.substring(5);
+                }
+            }
+        }
+
+        void close() throws IOException {
+            body.close();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.hotelreservations.controller;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionOperations;
+
+// Os testes de @WebMvcTest não sobem o JPA: o IdempotencyService roda a operação sem transação
+@TestConfiguration
+public class WithoutTransactionConfig {
+
+    @Bean
+    public TransactionOperations transactionOperations() {
+        return TransactionOperations.withoutTransaction();
+    }
+}
@@ -1,18 +1,29 @@
 package com.example.hotelreservations.controller.exceptions;
 
+import com.example.hotelreservations.controller.ReservationController;
 import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.controller.WithoutTransactionConfig;
 import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.config.IdempotencyConfig;
+import com.example.hotelreservations.service.IdempotencyService;
+import com.example.hotelreservations.service.ReservationEventBroadcaster;
 import com.example.hotelreservations.service.ReservationService;
 import com.example.hotelreservations.service.exceptions.DateIsAlreadyBookedException;
 import com.example.hotelreservations.service.exceptions.ReservationUpdateException;
 import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
 import com.example.hotelreservations.service.exceptions.DateInPastException;
 import com.example.hotelreservations.service.exceptions.InvalidDateRangeException;
+import com.example.hotelreservations.service.exceptions.InvalidCursorException;
+import com.example.hotelreservations.service.exceptions.IdempotencyKeyInProgressException;
+import com.example.hotelreservations.service.exceptions.IdempotencyKeyReusedException;
+import com.example.hotelreservations.service.exceptions.ReservationVersionMismatchException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -23,16 +34,21 @@ import java.time.LocalDate;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest
+@WebMvcTest(ReservationController.class)
+@Import({IdempotencyService.class, IdempotencyConfig.class, WithoutTransactionConfig.class})
 public class ControllerHandlerTest {
 
     @MockBean
     private ReservationService reservationService;
 
+    @MockBean
+    private ReservationEventBroadcaster eventBroadcaster;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -98,4 +114,64 @@ public class ControllerHandlerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Invalid date range."));
     }
+
+    @Test
+    public void testHandleInvalidCursorException() throws Exception {
+        when(reservationService.getReservations(any(), anyInt()))
+                .thenThrow(new InvalidCursorException("Invalid cursor."));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/reservas"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor."));
+    }
+
+    @Test
+    public void testHandleIdempotencyKeyInProgressException() throws Exception {
+        when(reservationService.createReservation(any(ReservationDTO.class)))
+                .thenThrow(new IdempotencyKeyInProgressException("Request in progress."));
+
+        mockMvc.perform(post("/reservas")
+                        .header("Idempotency-Key", "pedido-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nomeHospede\":\"Maria\",\"dataInicio\":\"2023-08-10\",\"dataFim\":\"2023-08-15\",\"quantidadePessoas\":2,\"status\":\"CONFIRMADA\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Request in progress."));
+    }
+
+    @Test
+    public void testHandleIdempotencyKeyReusedException() throws Exception {
+        when(reservationService.createReservation(any(ReservationDTO.class)))
+                .thenThrow(new IdempotencyKeyReusedException("Idempotency key reused."));
+
+        mockMvc.perform(post("/reservas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nomeHospede\":\"Maria\",\"dataInicio\":\"2023-08-10\",\"dataFim\":\"2023-08-15\",\"quantidadePessoas\":2,\"status\":\"CONFIRMADA\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency key reused."));
+    }
+
+    @Test
+    public void testHandleReservationVersionMismatchException() throws Exception {
+        when(reservationService.updateReservation(anyInt(), any(ReservationDTO.class), eq(3)))
+                .thenThrow(new ReservationVersionMismatchException("Version mismatch."));
+
+        mockMvc.perform(put("/reservas/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nomeHospede\":\"Maria\",\"dataInicio\":\"2030-08-10\",\"dataFim\":\"2030-08-15\",\"quantidadePessoas\":2,\"status\":\"CONFIRMADA\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Version mismatch."));
+    }
+
+    @Test
+    public void testHandleOptimisticLockingFailureException() throws Exception {
+        when(reservationService.updateReservation(anyInt(), any(ReservationDTO.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Reservation", 1));
+
+        mockMvc.perform(put("/reservas/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nomeHospede\":\"Maria\",\"dataInicio\":\"2030-08-10\",\"dataFim\":\"2030-08-15\",\"quantidadePessoas\":2,\"status\":\"CONFIRMADA\"}"))
+                .andExpect(status().isConflict());
+    }
 }
@@ -0,0 +1,128 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.IdempotencyKey;
+import com.example.hotelreservations.repository.IdempotencyKeyRepository;
+import com.example.hotelreservations.repository.ReservationNightRepository;
+import com.example.hotelreservations.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Idempotency-Key com as respostas na tabela idempotency_key, como em implantações com vários nós.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency-store;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "reservas.idempotencia.armazenamento=banco",
+        "reservas.idempotencia.ttl=1h",
+        "reservas.idempotencia.lease=PT1M"
+})
+@AutoConfigureMockMvc
+public class DatabaseIdempotencyStoreTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationNightRepository reservationNightRepository;
+
+    @BeforeEach
+    public void cleanUp() {
+        idempotencyKeyRepository.deleteAllInBatch();
+        reservationNightRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testRetryIsAnsweredFromTable() throws Exception {
+        assertInstanceOf(DatabaseIdempotencyStore.class, idempotencyStore);
+        LocalDate start = LocalDate.now().plusDays(20);
+        String body = "{\"nomeHospede\": \"Joao\", \"dataInicio\": \"" + start + "\", \"dataFim\": \"" + start.plusDays(2) + "\", \"quantidadePessoas\": 2}";
+
+        MvcResult first = mockMvc.perform(post("/reservas").header("Idempotency-Key", "ota-123")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        MvcResult retry = mockMvc.perform(post("/reservas").header("Idempotency-Key", "ota-123")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+
+        assertEquals(first.getResponse().getHeader("Location"), retry.getResponse().getHeader("Location"));
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertEquals(1, reservationRepository.count());
+        assertTrue(idempotencyKeyRepository.findById("ota-123").orElseThrow().isCompleted());
+    }
+
+    @Test
+    public void testKeyClaimedByAnotherNodeIsReturned() {
+        Instant claimedAt = now();
+        assertNull(idempotencyStore.claim("outro-no", "hash-a", claimedAt));
+
+        IdempotencyKey existing = idempotencyStore.claim("outro-no", "hash-a", now());
+
+        assertNotNull(existing);
+        assertFalse(existing.isCompleted());
+
+        idempotencyStore.release("outro-no", claimedAt);
+        assertNull(idempotencyStore.claim("outro-no", "hash-a", now()));
+    }
+
+    @Test
+    public void testAbandonedClaimIsTakenOverAfterLease() {
+        Instant abandonedAt = now().minus(Duration.ofMinutes(5));
+        assertNull(idempotencyStore.claim("caiu", "hash-a", abandonedAt));
+
+        Instant claimedAt = now();
+        assertNull(idempotencyStore.claim("caiu", "hash-a", claimedAt));
+
+        // O nó que perdeu o lease não grava a resposta nem apaga a reserva nova
+        assertFalse(idempotencyStore.complete("caiu", abandonedAt, "{}"));
+        idempotencyStore.release("caiu", abandonedAt);
+        assertTrue(idempotencyStore.complete("caiu", claimedAt, "{}"));
+        assertTrue(idempotencyKeyRepository.findById("caiu").orElseThrow().isCompleted());
+    }
+
+    @Test
+    public void testExpiredKeyIsReplaced() {
+        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey("antiga", "hash-a", "{}", Instant.now().minus(Duration.ofHours(2))));
+
+        assertNull(idempotencyStore.claim("antiga", "hash-b", now()));
+        assertEquals("hash-b", idempotencyKeyRepository.findById("antiga").orElseThrow().getRequestHash());
+
+        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey("expirada", "hash-a", "{}", Instant.now().minus(Duration.ofHours(2))));
+        ((DatabaseIdempotencyStore) idempotencyStore).purgeExpired();
+        assertFalse(idempotencyKeyRepository.existsById("expirada"));
+        assertTrue(idempotencyKeyRepository.existsById("antiga"));
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.hotelreservations.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuestNameIndexTests {
+
+    @Test
+    public void testNormalizeDropsAccentsCaseAndPunctuation() {
+        assertEquals("joao d avila", GuestNameIndex.normalize("  JOÃO  D'Ávila "));
+        assertEquals("conceicao", GuestNameIndex.normalize("Conceição"));
+        assertEquals("", GuestNameIndex.normalize(null));
+    }
+
+    @Test
+    public void testWordPrefixMatchesComeBeforeSubstringMatchesNewestFirst() {
+        GuestNameIndex index = new GuestNameIndex();
+        index.put(1, "Mariana Souza");
+        index.put(2, "Ana Maria");
+        index.put(3, "Luciana Ana");
+        index.put(4, "Pedro Alves");
+        index.put(5, "Anabela Costa");
+
+        assertEquals(List.of(5, 3, 2, 1), index.search("ana", 10));
+        assertEquals(List.of(5, 3), index.search("ana", 2));
+        assertEquals(List.of(3), index.search("luciana an", 10));
+    }
+
+    @Test
+    public void testTwoLetterQueriesOnlyMatchWordPrefixes() {
+        GuestNameIndex index = new GuestNameIndex();
+        index.put(1, "Li Wei");
+        index.put(2, "Amélia Lima");
+        index.put(3, "Julia");
+
+        assertEquals(List.of(2, 1), index.search("li", 10));
+    }
+
+    @Test
+    public void testRenameRemovesOldTrigramsAndLoadKeepsNewerWrites() {
+        GuestNameIndex index = new GuestNameIndex();
+        index.put(7, "Beatriz Ramos");
+        index.load(7, "Nome Antigo");
+        index.put(2000, "Beatriz Lopes");
+
+        index.put(7, "Carla Ramos");
+
+        assertEquals(List.of(2000), index.search("beatriz", 10));
+        assertEquals(List.of(7), index.search("ramos", 10));
+        assertTrue(index.search("antigo", 10).isEmpty());
+    }
+
+    @Test
+    public void testSparseIdsUpToTheIntegerLimit() {
+        GuestNameIndex index = new GuestNameIndex();
+        index.put(1, "Beatriz Ramos");
+        index.put(Integer.MAX_VALUE - 1, "Beatriz Lopes");
+        index.put(Integer.MAX_VALUE, "Carla Lopes");
+
+        assertEquals(List.of(Integer.MAX_VALUE - 1, 1), index.search("beatriz", 10));
+        assertEquals(List.of(Integer.MAX_VALUE, Integer.MAX_VALUE - 1), index.search("lopes", 10));
+    }
+}
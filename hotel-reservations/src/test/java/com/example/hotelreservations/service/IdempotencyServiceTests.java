@@ -0,0 +1,194 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.service.exceptions.DateIsAlreadyBookedException;
+import com.example.hotelreservations.service.exceptions.IdempotencyKeyInProgressException;
+import com.example.hotelreservations.service.exceptions.IdempotencyKeyReusedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyServiceTests {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+
+    private ObjectMapper objectMapper;
+    private InMemoryIdempotencyStore store;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    public void setup() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        store = new InMemoryIdempotencyStore(100, Duration.ofHours(1), Duration.ofMinutes(1));
+        idempotencyService = new IdempotencyService(store, objectMapper, TransactionOperations.withoutTransaction(), Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testReplayReturnsStoredResponseWithoutExecuting() {
+        AtomicInteger executions = new AtomicInteger();
+
+        IdempotencyService.Result<Reservation> first = idempotencyService.execute("k1", request("Joao"), Reservation.class,
+                () -> reservation(executions.incrementAndGet()));
+        IdempotencyService.Result<Reservation> second = idempotencyService.execute("k1", request("Joao"), Reservation.class,
+                () -> reservation(executions.incrementAndGet()));
+
+        assertEquals(1, executions.get());
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals(first.getValue().getId(), second.getValue().getId());
+        assertEquals(START, second.getValue().getDataInicio());
+        assertEquals(ReservationStatus.CONFIRMADA, second.getValue().getStatus());
+    }
+
+    @Test
+    public void testSameKeyWithDifferentBodyIsRejected() {
+        idempotencyService.execute("k2", request("Joao"), Reservation.class, () -> reservation(1));
+
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                idempotencyService.execute("k2", request("Maria"), Reservation.class, () -> reservation(2)));
+    }
+
+    @Test
+    public void testFailedExecutionReleasesKey() {
+        assertThrows(DateIsAlreadyBookedException.class, () ->
+                idempotencyService.execute("k3", request("Joao"), Reservation.class, () -> {
+                    throw new DateIsAlreadyBookedException("Data indisponível para reserva.");
+                }));
+
+        IdempotencyService.Result<Reservation> retry = idempotencyService.execute("k3", request("Joao"), Reservation.class,
+                () -> reservation(3));
+
+        assertFalse(retry.isReplayed());
+        assertEquals(3, retry.getValue().getId());
+    }
+
+    @Test
+    public void testFailedCommitReleasesKeyEvenAfterResponseWasStored() {
+        // O commit falha depois que a operação e a resposta já rodaram: a reserva volta e a chave não pode ficar guardada
+        TransactionOperations failingCommit = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                action.doInTransaction(null);
+                throw new CannotAcquireLockException("commit falhou");
+            }
+        };
+        IdempotencyService failing = new IdempotencyService(store, objectMapper, failingCommit, Duration.ofSeconds(5));
+
+        assertThrows(CannotAcquireLockException.class, () ->
+                failing.execute("k6", request("Joao"), Reservation.class, () -> reservation(6)));
+
+        IdempotencyService.Result<Reservation> retry = idempotencyService.execute("k6", request("Joao"), Reservation.class,
+                () -> reservation(60));
+        assertFalse(retry.isReplayed());
+        assertEquals(60, retry.getValue().getId());
+    }
+
+    @Test
+    public void testAbandonedClaimIsTakenOverAfterLease() {
+        String hash = "hash";
+        Instant claimedAt = Instant.now().minus(Duration.ofMinutes(2));
+        assertNull(store.claim("k7", hash, claimedAt));
+
+        assertNull(store.claim("k7", hash, Instant.now()));
+        // A execução abandonada não grava resposta nem libera a chave que já não é dela
+        assertFalse(store.complete("k7", claimedAt, "{}"));
+        store.release("k7", claimedAt);
+        assertNotNull(store.claim("k7", hash, Instant.now()));
+    }
+
+    @Test
+    public void testKeyInProgressOnAnotherNodeIsConflict() throws Exception {
+        IdempotencyService otherNode = new IdempotencyService(store, objectMapper, TransactionOperations.withoutTransaction(), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> running = executor.submit(() -> otherNode.execute("k4", request("Joao"), Reservation.class, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return reservation(4);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThrows(IdempotencyKeyInProgressException.class, () ->
+                idempotencyService.execute("k4", request("Joao"), Reservation.class, () -> reservation(4)));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertTrue(idempotencyService.execute("k4", request("Joao"), Reservation.class, () -> reservation(40)).isReplayed());
+    }
+
+    @Test
+    public void testConcurrentDuplicatesCollapseIntoOneExecution() throws Exception {
+        int clients = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<IdempotencyService.Result<Reservation>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> idempotencyService.execute("k5", request("Joao"), Reservation.class, () -> {
+                executions.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return reservation(5);
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        int replayed = 0;
+        for (Future<IdempotencyService.Result<Reservation>> future : futures) {
+            IdempotencyService.Result<Reservation> result = future.get(10, TimeUnit.SECONDS);
+            assertEquals(5, result.getValue().getId());
+            if (result.isReplayed()) {
+                replayed++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, executions.get());
+        assertEquals(clients - 1, replayed);
+    }
+
+    @Test
+    public void testStoreIsBounded() {
+        for (int i = 0; i < 1000; i++) {
+            idempotencyService.execute("chave-" + i, request("Joao"), Reservation.class, () -> reservation(1));
+        }
+
+        assertTrue(store.size() <= 100);
+    }
+
+    private static ReservationDTO request(String nomeHospede) {
+        return new ReservationDTO(nomeHospede, START, START.plusDays(2), 2, ReservationStatus.CONFIRMADA);
+    }
+
+    private static Reservation reservation(int id) {
+        return new Reservation(id, "Joao", START, START.plusDays(2), 2, ReservationStatus.CONFIRMADA);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.OutboxEvent;
+import com.example.hotelreservations.domain.OutboxPartition;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.example.hotelreservations.repository.OutboxEventRepository;
+import com.example.hotelreservations.repository.OutboxPartitionRepository;
+import com.example.hotelreservations.repository.ReservationNightRepository;
+import com.example.hotelreservations.repository.ReservationRepository;
+import com.example.hotelreservations.service.exceptions.DateIsAlreadyBookedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox gravado na transação da reserva e entregue pelo relay. O relay do contexto fica desligado
+ * e cada teste roda o seu, partição por partição, para controlar quando a entrega acontece.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "reservas.outbox.relay.ativo=false"
+})
+public class OutboxRelayTests {
+
+    private static final int PARALLELISM = 2;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxPartitionRepository outboxPartitionRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationNightRepository reservationNightRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void cleanUp() {
+        outboxEventRepository.deleteAllInBatch();
+        reservationNightRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        reservationService.loadAvailabilityIndex();
+        outboxPartitionRepository.saveAll(outboxPartitionRepository.findAll().stream()
+                .map(partition -> new OutboxPartition(partition.getId())).toList());
+    }
+
+    @Test
+    public void testWritesAreRelayedInOrderAndRemoved() {
+        Reservation created = createReservation(10);
+        reservationService.updateReservation(created.getId(),
+                new ReservationDTO("Maria", created.getDataInicio(), created.getDataFim(), 2, ReservationStatus.CONFIRMADA));
+        reservationService.cancelReservation(created.getId());
+        assertEquals(3, outboxEventRepository.count());
+
+        InMemoryOutboxSink sink = new InMemoryOutboxSink(100);
+        drainAll(relay(sink, 2));
+
+        List<OutboxEvent> delivered = sink.delivered();
+        assertEquals(List.of(ReservationEventType.CRIADA, ReservationEventType.ATUALIZADA, ReservationEventType.CANCELADA),
+                delivered.stream().map(OutboxEvent::getEventType).toList());
+        assertTrue(delivered.get(1).getPayload().contains("\"nomeHospede\":\"Maria\""));
+        assertTrue(delivered.get(1).getPayload().contains("\"version\":1"));
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(3, meterRegistry.get("reservas.outbox.entregues").counter().count());
+    }
+
+    @Test
+    public void testFailedDeliveryKeepsBatchForRetry() {
+        createReservation(20);
+        AtomicInteger attempts = new AtomicInteger();
+        InMemoryOutboxSink delivered = new InMemoryOutboxSink(100);
+        OutboxRelay relay = relay(events -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("Destino fora do ar");
+            }
+            delivered.deliver(events);
+        }, 10);
+
+        drainAll(relay);
+        assertEquals(1, outboxEventRepository.count());
+        assertTrue(delivered.delivered().isEmpty());
+        assertEquals(1, meterRegistry.get("reservas.outbox.falhas").counter().count());
+
+        drainAll(relay);
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(1, delivered.delivered().size());
+        assertEquals(Duration.ZERO, relay.oldestPendingAge());
+    }
+
+    @Test
+    public void testPartitionLeasedByAnotherNodeIsSkippedUntilLeaseExpires() {
+        Reservation created = createReservation(40);
+        OutboxPartition partition = new OutboxPartition(OutboxEvent.partitionOf(created.getId()));
+        partition.setLeaseOwner("outro-no");
+        partition.setLeaseUntil(Instant.now().plusSeconds(60));
+        outboxPartitionRepository.save(partition);
+
+        InMemoryOutboxSink sink = new InMemoryOutboxSink(100);
+        OutboxRelay relay = relay(sink, 10);
+        drainAll(relay);
+        assertTrue(sink.delivered().isEmpty());
+        assertEquals(1, outboxEventRepository.count());
+
+        // O outro nó caiu sem soltar o lease: depois do vencimento a partição é retomada
+        partition.setLeaseUntil(Instant.now().minusSeconds(1));
+        outboxPartitionRepository.save(partition);
+        drainAll(relay);
+        assertEquals(1, sink.delivered().size());
+        assertEquals(0, outboxEventRepository.count());
+
+        // O lease fica com este nó até vencer e é solto ao encerrar
+        assertNotEquals("outro-no", outboxPartitionRepository.findById(partition.getId()).orElseThrow().getLeaseOwner());
+        relay.releaseLeases();
+        assertNull(outboxPartitionRepository.findById(partition.getId()).orElseThrow().getLeaseOwner());
+    }
+
+    @Test
+    public void testPollDrainsOnlyPartitionsWithPendingEvents() throws InterruptedException {
+        Reservation created = createReservation(50);
+        InMemoryOutboxSink sink = new InMemoryOutboxSink(100);
+        OutboxRelay relay = relay(sink, 10);
+
+        assertEquals(List.of(OutboxEvent.partitionOf(created.getId())), outboxEventRepository.findPendingPartitions());
+        relay.poll();
+        relay.stop();
+
+        assertEquals(1, sink.delivered().size());
+        assertEquals(0, outboxEventRepository.count());
+        assertTrue(outboxEventRepository.findPendingPartitions().isEmpty());
+        assertTrue(outboxPartitionRepository.findAll().stream().allMatch(partition -> partition.getLeaseOwner() == null));
+    }
+
+    @Test
+    public void testRolledBackWriteLeavesNoOutboxRow() {
+        createReservation(30);
+        assertThrows(DateIsAlreadyBookedException.class, () -> createReservation(30));
+
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    private Reservation createReservation(int daysAhead) {
+        LocalDate start = LocalDate.now().plusDays(daysAhead);
+        return reservationService.createReservation(new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA));
+    }
+
+    private OutboxRelay relay(OutboxSink sink, int batchSize) {
+        return new OutboxRelay(outboxEventRepository, outboxPartitionRepository, sink, transactionTemplate, batchSize,
+                Duration.ofSeconds(1), PARALLELISM, Duration.ofSeconds(30), meterRegistry);
+    }
+
+    private static void drainAll(OutboxRelay relay) {
+        for (int partition = 0; partition < OutboxEvent.PARTITIONS; partition++) {
+            relay.drainPartition(partition);
+        }
+    }
+}
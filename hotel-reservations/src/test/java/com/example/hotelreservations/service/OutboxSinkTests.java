@@ -0,0 +1,78 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.OutboxEvent;
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboxSinkTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    public void testLogFileSinkAppendsOneJsonLinePerEvent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("eventos.ndjson");
+        LogFileOutboxSink sink = new LogFileOutboxSink(file, objectMapper.writerFor(OutboxEvent.class));
+
+        sink.deliver(List.of(event(1L, ReservationEventType.CRIADA)));
+        sink.deliver(List.of(event(2L, ReservationEventType.CANCELADA)));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals("CANCELADA", second.get("eventType").asText());
+        // O payload entra como objeto, não como string com JSON escapado
+        assertEquals("Joao", second.get("payload").get("nomeHospede").asText());
+    }
+
+    @Test
+    public void testWebhookSinkPostsBatchAndFailsOnErrorStatus() throws Exception {
+        AtomicReference<String> received = new AtomicReference<>();
+        AtomicInteger status = new AtomicInteger(204);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/eventos", exchange -> {
+            received.set(new String(exchange.getRequestBody().readAllBytes()));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            URI url = URI.create("http://localhost:" + server.getAddress().getPort() + "/eventos");
+            WebhookOutboxSink sink = new WebhookOutboxSink(url, Duration.ofSeconds(2), objectMapper.writer());
+
+            sink.deliver(List.of(event(1L, ReservationEventType.CRIADA), event(2L, ReservationEventType.ATUALIZADA)));
+            JsonNode batch = objectMapper.readTree(received.get());
+            assertEquals(2, batch.size());
+            assertEquals(2, batch.get(1).get("id").asLong());
+
+            status.set(503);
+            assertThrows(IOException.class, () -> sink.deliver(List.of(event(3L, ReservationEventType.CANCELADA))));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static OutboxEvent event(Long id, ReservationEventType type) {
+        OutboxEvent event = new OutboxEvent(type, 7, "{\"id\":7,\"nomeHospede\":\"Joao\"}", Instant.now());
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.example.hotelreservations.repository.OutboxEventRepository;
+import com.example.hotelreservations.repository.ReservationNightRepository;
+import com.example.hotelreservations.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prazo zero: toda reserva PENDENTE já nasce vencida. O reaper do contexto fica desligado e cada
+ * teste roda um ciclo do seu, para controlar quando a liberação acontece.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pending-holds;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "reservas.outbox.relay.ativo=false",
+        "reservas.pendente.reaper.ativo=false",
+        "reservas.pendente.prazo=PT0S"
+})
+public class PendingHoldReaperTests {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationNightRepository reservationNightRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PendingHolds pendingHolds;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PendingHoldReaper reaper;
+
+    @BeforeEach
+    public void setUp() {
+        outboxEventRepository.deleteAllInBatch();
+        reservationNightRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        reservationService.loadAvailabilityIndex();
+        reaper = new PendingHoldReaper(reservationService, pendingHolds, cacheManager, 2, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @Test
+    public void testExpiredHoldsAreCancelledAndTheirNightsReleased() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        List<Reservation> holds = List.of(createPending(start), createPending(start.plusDays(5)), createPending(start.plusDays(10)));
+        assertFalse(reservationService.isDateAvailable(start, start.plusDays(12)));
+        long createdCounter = reservationRepository.findById(holds.get(2).getId()).orElseThrow().getChangeCounter();
+
+        reaper.reap();
+
+        assertTrue(reservationService.isDateAvailable(start, start.plusDays(12)));
+        // Os outros nós releem as liberadas pelo contador gravado nelas
+        assertEquals(holds.stream().map(Reservation::getId).sorted().toList(),
+                reservationRepository.findChangedSince(Unit.DEFAULT_ID, createdCounter).stream().map(Reservation::getId).sorted().toList());
+        for (Reservation hold : holds) {
+            assertEquals(ReservationStatus.CANCELADA, reservationService.getReservationById(hold.getId()).getStatus());
+            assertEquals(ReservationStatus.CANCELADA, reservationRepository.findById(hold.getId()).orElseThrow().getStatus());
+        }
+        assertEquals(0, reservationNightRepository.count());
+        assertEquals(3, outboxEventRepository.findAll().stream()
+                .filter(event -> event.getEventType() == ReservationEventType.CANCELADA).count());
+        assertEquals(3, meterRegistry.get("reservas.pendente.liberadas").counter().count());
+    }
+
+    @Test
+    public void testConfirmedHoldIsNotReleased() {
+        LocalDate start = LocalDate.now().plusDays(20);
+        Reservation hold = createPending(start);
+        reservationService.updateReservation(hold.getId(),
+                new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA));
+
+        reaper.reap();
+
+        Reservation confirmed = reservationRepository.findById(hold.getId()).orElseThrow();
+        assertEquals(ReservationStatus.CONFIRMADA, confirmed.getStatus());
+        assertNull(confirmed.getExpiraEm());
+        assertFalse(reservationService.isDateAvailable(start, start));
+        assertEquals(0, meterRegistry.get("reservas.pendente.liberadas").counter().count());
+    }
+
+    // Gravadas direto no banco, como por outro nó: o reaper não depende do que este nó viu
+    @Test
+    public void testHoldsWrittenElsewhereAreFoundInTheDatabase() {
+        LocalDate start = LocalDate.now().plusDays(30);
+        Reservation expired = saveHold(start, Instant.now().minusSeconds(60));
+        Reservation running = saveHold(start.plusDays(5), Instant.now().plusSeconds(600));
+
+        reaper.reap();
+
+        assertEquals(ReservationStatus.CANCELADA, reservationRepository.findById(expired.getId()).orElseThrow().getStatus());
+        assertEquals(ReservationStatus.PENDENTE, reservationRepository.findById(running.getId()).orElseThrow().getStatus());
+        assertEquals(1, meterRegistry.get("reservas.pendente.liberadas").counter().count());
+    }
+
+    // A verificação periódica fica longe; quem acorda o reaper é o prazo da fila em memória
+    @Test
+    public void testReaperWakesAtTheFirstKnownExpiry() throws Exception {
+        PendingHoldReaper scheduled = new PendingHoldReaper(reservationService, pendingHolds, cacheManager, 2,
+                Duration.ofHours(1), new SimpleMeterRegistry());
+        scheduled.start();
+        try {
+            LocalDate start = LocalDate.now().plusDays(40);
+            Reservation hold = createPending(start);
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (reservationRepository.findById(hold.getId()).orElseThrow().getStatus() != ReservationStatus.CANCELADA
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(ReservationStatus.CANCELADA, reservationRepository.findById(hold.getId()).orElseThrow().getStatus());
+            assertEquals(0, pendingHolds.size());
+        } finally {
+            scheduled.destroy();
+        }
+    }
+
+    private Reservation createPending(LocalDate start) {
+        Reservation hold = reservationService.createReservation(
+                new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.PENDENTE));
+        assertEquals(ReservationStatus.PENDENTE, hold.getStatus());
+        assertNotNull(hold.getExpiraEm());
+        return hold;
+    }
+
+    private Reservation saveHold(LocalDate start, Instant expiresAt) {
+        Reservation hold = new Reservation(null, "Maria", start, start.plusDays(2), 2, ReservationStatus.PENDENTE);
+        hold.setExpiraEm(expiresAt);
+        return reservationRepository.save(hold);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.domain.PricingRule;
+import com.example.hotelreservations.dto.PriceQuoteDTO;
+import com.example.hotelreservations.dto.PricingRuleType;
+import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceCalendarTests {
+
+    // Terça-feira
+    private final LocalDate firstDay = LocalDate.of(2030, 1, 1);
+
+    @Test
+    public void testQuoteCombinesSeasonWeekdayStayAndExtraGuestRules() {
+        PricingRule season = rule(2, PricingRuleType.TEMPORADA, "10");
+        season.setDataInicio(LocalDate.of(2030, 1, 4));
+        season.setDataFim(LocalDate.of(2030, 1, 5));
+        PricingRule saturday = rule(3, PricingRuleType.DIA_SEMANA, "20");
+        saturday.setDiaSemana(DayOfWeek.SATURDAY);
+        PricingRule threeNights = rule(4, PricingRuleType.ESTADIA, "10");
+        threeNights.setMinimoNoites(3);
+        PricingRule week = rule(5, PricingRuleType.ESTADIA, "20");
+        week.setMinimoNoites(7);
+        PricingRule extraGuest = rule(6, PricingRuleType.PESSOA_EXTRA, "25");
+        extraGuest.setPessoasIncluidas(2);
+        PriceCalendar calendar = PriceCalendar.compile(List.of(rule(1, PricingRuleType.BASE, "100"), season, saturday,
+                threeNights, week, extraGuest), firstDay, 30, Instant.now());
+
+        // Quinta 100, sexta 110 (temporada), sábado 130 (temporada + sábado), domingo 100
+        PriceQuoteDTO quote = calendar.quote(LocalDate.of(2030, 1, 3), LocalDate.of(2030, 1, 6), 4);
+
+        assertEquals(4, quote.getNoites());
+        assertEquals(new BigDecimal("440.00"), quote.getDiarias());
+        assertEquals(new BigDecimal("200.00"), quote.getAcrescimoPessoas());
+        assertEquals(new BigDecimal("44.00"), quote.getDesconto());
+        assertEquals(new BigDecimal("596.00"), quote.getTotal());
+    }
+
+    @Test
+    public void testNightsOutsideTheHorizonAreEvaluatedWithTheSameRules() {
+        PricingRule season = rule(2, PricingRuleType.TEMPORADA, "15.5");
+        season.setDataInicio(LocalDate.of(2029, 12, 20));
+        season.setDataFim(LocalDate.of(2030, 1, 15));
+        PricingRule sunday = rule(3, PricingRuleType.DIA_SEMANA, "-12.25");
+        sunday.setDiaSemana(DayOfWeek.SUNDAY);
+        PriceCalendar calendar = PriceCalendar.compile(List.of(rule(1, PricingRuleType.BASE, "189.90"), season, sunday),
+                firstDay, 10, Instant.now());
+
+        long start = firstDay.minusDays(12).toEpochDay();
+        long end = firstDay.plusDays(25).toEpochDay();
+        for (long from = start; from <= end; from += 3) {
+            for (long to = from; to <= end; to += 5) {
+                long expected = 0;
+                for (long day = from; day <= to; day++) {
+                    expected += calendar.evaluateRate(day);
+                }
+                assertEquals(expected, calendar.sumRates(from, to));
+            }
+        }
+    }
+
+    @Test
+    public void testLatestBaseRuleWinsAndRatesDoNotGoNegative() {
+        PricingRule closed = rule(3, PricingRuleType.TEMPORADA, "-150");
+        closed.setDataInicio(firstDay);
+        closed.setDataFim(firstDay);
+        PriceCalendar calendar = PriceCalendar.compile(List.of(rule(1, PricingRuleType.BASE, "100"),
+                rule(2, PricingRuleType.BASE, "80"), closed), firstDay, 30, Instant.now());
+
+        PriceQuoteDTO quote = calendar.quote(firstDay, firstDay.plusDays(1), 1);
+
+        assertEquals(new BigDecimal("80.00"), quote.getTotal());
+    }
+
+    @Test
+    public void testCompileWithoutBaseRuleIsRejected() {
+        PricingRule sunday = rule(1, PricingRuleType.DIA_SEMANA, "10");
+        sunday.setDiaSemana(DayOfWeek.SUNDAY);
+
+        assertThrows(ObjectNotFoundException.class,
+                () -> PriceCalendar.compile(List.of(sunday), firstDay, 30, Instant.now()));
+    }
+
+    private static PricingRule rule(int id, PricingRuleType tipo, String valor) {
+        return new PricingRule(id, tipo, new BigDecimal(valor));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.dto.PricingRuleDTO;
+import com.example.hotelreservations.dto.PricingRuleType;
+import com.example.hotelreservations.repository.PricingRuleRepository;
+import com.example.hotelreservations.service.exceptions.InvalidDateRangeException;
+import com.example.hotelreservations.service.exceptions.InvalidPricingRuleException;
+import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class PricingServiceTests {
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private PricingRuleRepository pricingRuleRepository;
+
+    private final LocalDate start = LocalDate.now().plusDays(10);
+
+    @AfterEach
+    public void cleanUp() {
+        pricingRuleRepository.findAll().forEach(rule -> pricingService.deleteRule(rule.getId()));
+    }
+
+    @Test
+    public void testRuleChangesInvalidateTheCompiledCalendar() {
+        pricingService.createRule(new PricingRuleDTO(PricingRuleType.BASE, new BigDecimal("100")));
+        assertEquals(new BigDecimal("300.00"), pricingService.quote(start, start.plusDays(2), 1).getTotal());
+
+        PricingRuleDTO stay = new PricingRuleDTO(PricingRuleType.ESTADIA, new BigDecimal("10"));
+        stay.setMinimoNoites(3);
+        Integer stayId = pricingService.createRule(stay).getId();
+        assertEquals(new BigDecimal("270.00"), pricingService.quote(start, start.plusDays(2), 1).getTotal());
+
+        pricingService.deleteRule(stayId);
+        assertEquals(new BigDecimal("300.00"), pricingService.quote(start, start.plusDays(2), 1).getTotal());
+    }
+
+    @Test
+    public void testQuoteRejectsTooLongRange() {
+        pricingService.createRule(new PricingRuleDTO(PricingRuleType.BASE, new BigDecimal("100")));
+
+        assertThrows(InvalidDateRangeException.class,
+                () -> pricingService.quote(start, start.plusDays(ReservationService.MAX_STAY_NIGHTS), 1));
+        assertEquals(ReservationService.MAX_STAY_NIGHTS,
+                pricingService.quote(start, start.plusDays(ReservationService.MAX_STAY_NIGHTS - 1), 1).getNoites().intValue());
+    }
+
+    @Test
+    public void testQuoteWithoutBaseRuleIsNotFound() {
+        assertThrows(ObjectNotFoundException.class, () -> pricingService.quote(start, start.plusDays(2), 1));
+    }
+
+    @Test
+    public void testSeasonWithoutDatesIsRejected() {
+        assertThrows(InvalidPricingRuleException.class,
+                () -> pricingService.createRule(new PricingRuleDTO(PricingRuleType.TEMPORADA, new BigDecimal("20"))));
+        assertEquals(0, pricingRuleRepository.count());
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.DateRangeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationAvailabilityIndexTests {
+
+    private final LocalDate base = LocalDate.of(2030, 1, 10);
+
+    @Test
+    public void testIsNotReadyBeforeRebuild() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+
+        assertFalse(index.isReady());
+
+        index.rebuild(List.of(), List.of());
+
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    public void testOverlapIsInclusiveOnBothEnds() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        index.rebuild(List.of(), List.of(new Reservation(1, "Joao", base, base.plusDays(3), 2, ReservationStatus.CONFIRMADA)));
+
+        assertFalse(index.isAvailable(Unit.DEFAULT_ID, base.minusDays(2), base));
+        assertFalse(index.isAvailable(Unit.DEFAULT_ID, base.plusDays(3), base.plusDays(5)));
+        assertFalse(index.isAvailable(Unit.DEFAULT_ID, base.plusDays(1), base.plusDays(2)));
+        assertTrue(index.isAvailable(Unit.DEFAULT_ID, base.minusDays(3), base.minusDays(1)));
+        assertTrue(index.isAvailable(Unit.DEFAULT_ID, base.plusDays(4), base.plusDays(8)));
+    }
+
+    @Test
+    public void testDatesBeyondTheIndexRangeFailFast() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        index.rebuild(List.of(), List.of());
+        LocalDate outOfRange = LocalDate.ofEpochDay(ReservationAvailabilityIndex.LAST_DAY + 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> index.isAvailable(Unit.DEFAULT_ID, base, outOfRange));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.put(1, Unit.DEFAULT_ID, outOfRange, outOfRange));
+    }
+
+    @Test
+    public void testPutReplacesPreviousInterval() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        index.rebuild(List.of(), List.of());
+
+        index.put(1, Unit.DEFAULT_ID, base, base.plusDays(3));
+        index.put(1, Unit.DEFAULT_ID, base.plusDays(10), base.plusDays(12));
+
+        assertTrue(index.isAvailable(Unit.DEFAULT_ID, base, base.plusDays(3)));
+        assertFalse(index.isAvailable(Unit.DEFAULT_ID, base.plusDays(11), base.plusDays(11)));
+    }
+
+    @Test
+    public void testRemoveKeepsDaysHeldByOverlappingReservation() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        index.rebuild(List.of(), List.of(
+                new Reservation(1, "Joao", base, base.plusDays(5), 2, ReservationStatus.CONFIRMADA),
+                new Reservation(2, "Maria", base.plusDays(4), base.plusDays(8), 2, ReservationStatus.PENDENTE)
+        ));
+
+        index.remove(1);
+
+        assertTrue(index.isAvailable(Unit.DEFAULT_ID, base, base.plusDays(3)));
+        assertFalse(index.isAvailable(Unit.DEFAULT_ID, base.plusDays(4), base.plusDays(5)));
+
+        index.remove(2);
+
+        assertTrue(index.isAvailable(Unit.DEFAULT_ID, base, base.plusDays(8)));
+    }
+
+    @Test
+    public void testOccupiedRangesMergesAdjacentDaysAndClipsToWindow() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        index.rebuild(List.of(), List.of(
+                new Reservation(1, "Joao", base, base.plusDays(2), 2, ReservationStatus.CONFIRMADA),
+                new Reservation(2, "Maria", base.plusDays(3), base.plusDays(4), 2, ReservationStatus.CONFIRMADA),
+                new Reservation(3, "Ana", base.plusDays(10), base.plusDays(20), 2, ReservationStatus.PENDENTE)
+        ));
+
+        List<DateRangeDTO> ranges = index.occupiedRanges(Unit.DEFAULT_ID, base.plusDays(1), base.plusDays(15));
+
+        assertEquals(2, ranges.size());
+        assertEquals(base.plusDays(1), ranges.get(0).getDataInicio());
+        assertEquals(base.plusDays(4), ranges.get(0).getDataFim());
+        assertEquals(base.plusDays(10), ranges.get(1).getDataInicio());
+        assertEquals(base.plusDays(15), ranges.get(1).getDataFim());
+        assertTrue(index.occupiedRanges(Unit.DEFAULT_ID, base.plusDays(5), base.plusDays(9)).isEmpty());
+    }
+
+    @Test
+    public void testUnitsAreBookedIndependently() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        index.rebuild(List.of(unit(1), unit(2)), List.of(reservation(1, 1, base, base.plusDays(3))));
+
+        assertFalse(index.isAvailable(1, base.plusDays(1), base.plusDays(2)));
+        assertTrue(index.isAvailable(2, base.plusDays(1), base.plusDays(2)));
+
+        // Mover a reserva para outra unidade libera as noites da anterior
+        index.put(1, 2, base, base.plusDays(3));
+
+        assertTrue(index.isAvailable(1, base, base.plusDays(3)));
+        assertFalse(index.isAvailable(2, base, base.plusDays(3)));
+    }
+
+    @Test
+    public void testFreeUnitsListsUnitsWithoutOccupiedNightsInOrder() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        index.rebuild(List.of(unit(3), unit(1), unit(2)), List.of(
+                reservation(1, 1, base, base.plusDays(3)),
+                reservation(2, 3, base.plusDays(5), base.plusDays(6))
+        ));
+        index.putUnit(unit(4));
+
+        assertEquals(List.of(2, 4), ids(index.freeUnits(base.plusDays(2), base.plusDays(5))));
+        assertEquals(List.of(1, 2, 3, 4), ids(index.freeUnits(base.plusDays(4), base.plusDays(4))));
+        assertEquals(List.of(2, 3, 4), ids(index.freeUnits(base, base)));
+    }
+
+    @Test
+    public void testSearchFreeUnitsFiltersByCapacityAndRanksBestFitFirst() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        index.rebuild(List.of(
+                new Unit(1, "Principal", null, null),
+                new Unit(2, "Chalé", "CHALE", 6),
+                new Unit(3, "Quarto duplo", "QUARTO", 2),
+                new Unit(4, "Quarto triplo", "QUARTO", 3),
+                new Unit(5, "Suíte", "QUARTO", 3)
+        ), List.of(reservation(1, 5, base, base.plusDays(2))));
+
+        assertEquals(List.of(4, 2, 1), ids(index.searchFreeUnits(base.plusDays(1), base.plusDays(3), 3)));
+        assertEquals(List.of(3, 4, 5, 2, 1), ids(index.searchFreeUnits(base.plusDays(3), base.plusDays(4), 1)));
+        assertEquals(List.of(1), ids(index.searchFreeUnits(base, base, 7)));
+    }
+
+    @Test
+    public void testParallelSearchMatchesSequentialResult() {
+        ReservationAvailabilityIndex index = new ReservationAvailabilityIndex();
+        int unitCount = ReservationAvailabilityIndex.PARALLEL_SEARCH_THRESHOLD * 4;
+        List<Unit> units = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        for (int id = 1; id <= unitCount; id++) {
+            units.add(new Unit(id, "Unidade " + id, "QUARTO", 1 + id % 5));
+            if (id % 3 == 0) {
+                reservations.add(reservation(id, id, base.plusDays(id % 7), base.plusDays(id % 7 + 2)));
+            }
+        }
+        index.rebuild(units, reservations);
+
+        List<Unit> expected = units.stream()
+                .filter(unit -> unit.getCapacidade() >= 2)
+                .filter(unit -> index.isAvailable(unit.getId(), base.plusDays(3), base.plusDays(4)))
+                .sorted(ReservationAvailabilityIndex.BEST_FIT)
+                .toList();
+
+        assertEquals(ids(expected), ids(index.searchFreeUnits(base.plusDays(3), base.plusDays(4), 2)));
+    }
+
+    private static Unit unit(int id) {
+        return new Unit(id, "Unidade " + id, "QUARTO", 2);
+    }
+
+    private static Reservation reservation(int id, int unitId, LocalDate start, LocalDate end) {
+        Reservation reservation = new Reservation(id, "Joao", start, end, 2, ReservationStatus.CONFIRMADA);
+        reservation.setUnidadeId(unitId);
+        return reservation;
+    }
+
+    private static List<Integer> ids(List<Unit> units) {
+        return units.stream().map(Unit::getId).toList();
+    }
+}
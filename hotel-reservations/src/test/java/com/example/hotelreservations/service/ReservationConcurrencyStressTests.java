@@ -0,0 +1,139 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.repository.ReservationChangeCounterRepository;
+import com.example.hotelreservations.repository.ReservationNightRepository;
+import com.example.hotelreservations.repository.ReservationRepository;
+import com.example.hotelreservations.repository.UnitRepository;
+import com.example.hotelreservations.service.exceptions.DateIsAlreadyBookedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dispara reservas concorrentes para a mesma janela de datas a partir de dois "nós":
+ * o serviço da aplicação e uma segunda instância com índice e locks próprios, que só
+ * compartilha o banco. Nenhuma noite pode terminar ocupada por duas reservas ativas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency-stress;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"
+})
+public class ReservationConcurrencyStressTests {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 150;
+    private static final int WINDOW_DAYS = 60;
+
+    @TestConfiguration
+    static class SecondNodeConfig {
+        @Bean(autowireCandidate = false)
+        ReservationService secondNodeReservationService(ReservationRepository reservationRepository,
+                                                        ReservationNightRepository reservationNightRepository,
+                                                        ReservationChangeCounterRepository changeCounterRepository,
+                                                        ReservationEventBroadcaster eventBroadcaster,
+                                                        ReservationOutbox outbox,
+                                                        UnitRepository unitRepository) {
+            return new ReservationService(reservationRepository, new ReservationAvailabilityIndex(),
+                    reservationNightRepository, new DateRangeLocks(), changeCounterRepository, eventBroadcaster, outbox, unitRepository,
+                    new PendingHolds(Duration.ofMinutes(15)), new GuestNameIndex(), new BookingHorizon(Period.ofYears(5)));
+        }
+    }
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationNightRepository reservationNightRepository;
+
+    @BeforeEach
+    public void cleanUp() {
+        reservationNightRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        reservationService.loadAvailabilityIndex();
+    }
+
+    @Test
+    public void testNoDoubleBookingUnderConcurrentCreatesAndCancels() throws Exception {
+        ReservationService secondNode = (ReservationService) applicationContext.getBean("secondNodeReservationService");
+        secondNode.loadAvailabilityIndex();
+        List<ReservationService> nodes = List.of(reservationService, secondNode);
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    ReservationService node = nodes.get(random.nextInt(nodes.size()));
+                    LocalDate startDate = firstDay.plusDays(random.nextInt(WINDOW_DAYS));
+                    LocalDate endDate = startDate.plusDays(random.nextInt(4));
+                    try {
+                        Reservation reservation = node.createReservation(
+                                new ReservationDTO("Hospede", startDate, endDate, 2, ReservationStatus.CONFIRMADA));
+                        created.incrementAndGet();
+                        if (random.nextInt(5) == 0) {
+                            node.cancelReservation(reservation.getId());
+                        }
+                    } catch (DateIsAlreadyBookedException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(created.get() > 0);
+        assertTrue(rejected.get() > 0);
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, created.get() + rejected.get());
+
+        List<Reservation> active = new ArrayList<>(reservationRepository.findAllByStatusIn(ReservationService.ACTIVE_STATUSES));
+        active.sort(Comparator.comparing(Reservation::getDataInicio));
+        long occupiedNights = 0;
+        for (int i = 0; i < active.size(); i++) {
+            Reservation current = active.get(i);
+            occupiedNights += ChronoUnit.DAYS.between(current.getDataInicio(), current.getDataFim()) + 1;
+            if (i > 0) {
+                Reservation previous = active.get(i - 1);
+                assertTrue(current.getDataInicio().isAfter(previous.getDataFim()),
+                        "Reservas " + previous.getId() + " e " + current.getId() + " ocupam a mesma noite");
+            }
+        }
+        assertEquals(occupiedNights, reservationNightRepository.count());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.hotelreservations.service;
+
+import com.example.hotelreservations.controller.ReservationStatus;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.example.hotelreservations.dto.ReservationView;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationEventBroadcasterTests {
+
+    private final List<Runnable> pendingSends = new ArrayList<>();
+
+    // Envios só rodam quando o teste manda, para simular um assinante que não acompanha as publicações
+    private final ReservationEventBroadcaster broadcaster =
+            new ReservationEventBroadcaster(4, Duration.ofMinutes(1), Duration.ofSeconds(5), pendingSends::add, 0);
+
+    @Test
+    public void testSubscriberThatKeepsUpStaysConnected() {
+        broadcaster.subscribe(null);
+
+        for (int i = 0; i < 3; i++) {
+            broadcaster.publish(ReservationEventType.CRIADA, view(i));
+            runPendingSends();
+        }
+
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(0, broadcaster.slowSubscribersDisconnected());
+    }
+
+    @Test
+    public void testSlowSubscriberIsDisconnectedOnceRingWrapsPastIt() {
+        broadcaster.subscribe(null);
+
+        // Uma única tarefa de envio fica pendente; seis eventos num anel de quatro passam por cima do próximo dela
+        for (int i = 0; i < 6; i++) {
+            broadcaster.publish(ReservationEventType.CRIADA, view(i));
+        }
+        assertEquals(1, pendingSends.size());
+        runPendingSends();
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1, broadcaster.slowSubscribersDisconnected());
+    }
+
+    @Test
+    public void testPublishWithoutSubscribersDoesNotSchedule() {
+        for (int i = 0; i < 10; i++) {
+            broadcaster.publish(ReservationEventType.ATUALIZADA, view(i));
+        }
+
+        assertTrue(pendingSends.isEmpty());
+    }
+
+    @Test
+    public void testStalledSendDropsSubscriberAndBorrowsThread() throws Exception {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        ReservationEventBroadcaster stalling =
+                new ReservationEventBroadcaster(4, Duration.ofMinutes(1), Duration.ofMillis(50), pool, 1);
+        try {
+            SseEmitter emitter = stalling.subscribe(null);
+            // SseEmitter.send sincroniza no próprio emitter: segurando o monitor, o envio fica preso como numa janela TCP cheia
+            synchronized (emitter) {
+                stalling.publish(ReservationEventType.CRIADA, view(1));
+                Thread.sleep(200);
+                stalling.dropStalledSubscribers();
+
+                assertEquals(0, stalling.subscriberCount());
+                assertEquals(1, stalling.slowSubscribersDisconnected());
+                assertEquals(2, pool.getMaximumPoolSize());
+            }
+
+            // Quando a escrita volta, a thread emprestada é devolvida
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (pool.getMaximumPoolSize() != 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, pool.getMaximumPoolSize());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void runPendingSends() {
+        while (!pendingSends.isEmpty()) {
+            pendingSends.remove(0).run();
+        }
+    }
+
+    private static ReservationView view(int id) {
+        LocalDate start = LocalDate.now().plusDays(10);
+        return new ReservationView(id, "Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID);
+    }
+}
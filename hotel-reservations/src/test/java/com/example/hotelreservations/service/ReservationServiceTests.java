@@ -2,19 +2,47 @@ package com.example.hotelreservations.service;
 
 import com.example.hotelreservations.controller.ReservationStatus;
 import com.example.hotelreservations.domain.Reservation;
+import com.example.hotelreservations.domain.ReservationChangeCounter;
+import com.example.hotelreservations.domain.Unit;
+import com.example.hotelreservations.dto.AvailabilityCalendarDTO;
+import com.example.hotelreservations.dto.BatchReservationResult;
+import com.example.hotelreservations.dto.CursorPage;
+import com.example.hotelreservations.dto.ReservationCursor;
 import com.example.hotelreservations.dto.ReservationDTO;
+import com.example.hotelreservations.dto.ReservationEventType;
+import com.example.hotelreservations.dto.ReservationView;
+import com.example.hotelreservations.repository.ReservationChangeCounterRepository;
+import com.example.hotelreservations.repository.ReservationNightRepository;
 import com.example.hotelreservations.repository.ReservationRepository;
+import com.example.hotelreservations.repository.UnitRepository;
+import com.example.hotelreservations.service.exceptions.DateIsAlreadyBookedException;
+import com.example.hotelreservations.service.exceptions.InvalidDateRangeException;
+import com.example.hotelreservations.service.exceptions.InvalidUnitException;
+import com.example.hotelreservations.service.exceptions.InvalidSearchQueryException;
 import com.example.hotelreservations.service.exceptions.ObjectNotFoundException;
 import com.example.hotelreservations.service.exceptions.ReservationUpdateException;
+import com.example.hotelreservations.service.exceptions.ReservationVersionMismatchException;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -26,18 +54,120 @@ public class ReservationServiceTests {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private ReservationNightRepository reservationNightRepository;
+
+    @Mock
+    private ReservationChangeCounterRepository changeCounterRepository;
+
+    @Mock
+    private ReservationEventBroadcaster eventBroadcaster;
+
+    @Mock
+    private ReservationOutbox outbox;
+
+    @Mock
+    private UnitRepository unitRepository;
+
+    @Spy
+    private ReservationAvailabilityIndex availabilityIndex = new ReservationAvailabilityIndex();
+
+    @Spy
+    private DateRangeLocks dateRangeLocks = new DateRangeLocks();
+
+    @Spy
+    private PendingHolds pendingHolds = new PendingHolds(Duration.ofMinutes(15));
+
+    @Spy
+    private GuestNameIndex guestNameIndex = new GuestNameIndex();
+
+    @Spy
+    private BookingHorizon bookingHorizon = new BookingHorizon(Period.ofYears(5));
+
     @InjectMocks
     private ReservationService reservationService;
 
+    // Unidade padrão sem limite de pessoas e uma suíte para duas
+    private static final Unit SUITE = new Unit(7, "Suíte", "SUITE", 2);
+
+    @BeforeEach
+    public void stubUnits() {
+        Map<Integer, Unit> units = Map.of(Unit.DEFAULT_ID, new Unit(Unit.DEFAULT_ID, "Unidade principal", null, null), SUITE.getId(), SUITE);
+        when(unitRepository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(units.get(invocation.<Integer>getArgument(0))));
+        when(unitRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Unit> found = new ArrayList<>();
+            for (Integer id : invocation.<Iterable<Integer>>getArgument(0)) {
+                if (units.containsKey(id)) {
+                    found.add(units.get(id));
+                }
+            }
+            return found;
+        });
+    }
+
     @Test
     public void testCreateReservation() {
         ReservationDTO reservationDTO = new ReservationDTO("Maria", LocalDate.now(), LocalDate.now().plusDays(5), 2, ReservationStatus.CONFIRMADA);
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(new Reservation());
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Reservation createdReservation = reservationService.createReservation(reservationDTO);
 
         assertNotNull(createdReservation);
         verify(reservationRepository, times(1)).save(any(Reservation.class));
+        verify(reservationNightRepository, times(1)).saveAllAndFlush(argThat(nights -> ((List<?>) nights).size() == 6));
+        verify(changeCounterRepository, times(1)).increment(Unit.DEFAULT_ID);
+        verify(eventBroadcaster, times(1)).publish(eq(ReservationEventType.CRIADA), argThat(view -> "Maria".equals(view.getNomeHospede())));
+        verify(outbox, times(1)).record(ReservationEventType.CRIADA, List.of(createdReservation));
+    }
+
+    @Test
+    public void testCreateReservationTranslatesNightConflict() {
+        ReservationDTO reservationDTO = new ReservationDTO("Maria", LocalDate.now(), LocalDate.now().plusDays(5), 2, ReservationStatus.CONFIRMADA);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationNightRepository.saveAllAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(DateIsAlreadyBookedException.class, () -> reservationService.createReservation(reservationDTO));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportReservationsSweepsAgainstBatchAndExistingBookings() {
+        LocalDate base = LocalDate.now().plusDays(10);
+        List<ReservationDTO> rows = List.of(
+                new ReservationDTO("Linha 0", base.plusDays(10), base.plusDays(12), 2, null),
+                new ReservationDTO("Linha 1", base, base.plusDays(2), 2, null),
+                new ReservationDTO("Linha 2", base.plusDays(2), base.plusDays(4), 2, null),
+                new ReservationDTO("Linha 3", base.plusDays(5), base.plusDays(3), 2, null),
+                new ReservationDTO("Linha 4", base.plusDays(6), base.plusDays(7), 2, null),
+                new ReservationDTO("Linha 5", base.plusDays(20), base.plusDays(21), 2, null)
+        );
+        when(reservationRepository.findAllByUnidadeIdInAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusInOrderByDataInicio(
+                Set.of(Unit.DEFAULT_ID), base.plusDays(21), base, ReservationService.ACTIVE_STATUSES))
+                .thenReturn(List.of(new Reservation(99, "Existente", base.plusDays(7), base.plusDays(9), 2, ReservationStatus.CONFIRMADA)));
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Reservation> saved = new ArrayList<>();
+            int id = 100;
+            for (Reservation reservation : (Iterable<Reservation>) invocation.getArgument(0)) {
+                reservation.setId(id++);
+                saved.add(reservation);
+            }
+            return saved;
+        });
+
+        List<BatchReservationResult> results = reservationService.importReservations(rows);
+
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("Data em conflito com outra reserva do lote.", results.get(2).getMessage());
+        assertFalse(results.get(3).isSuccess());
+        assertFalse(results.get(4).isSuccess());
+        assertEquals("Data indisponível para reserva.", results.get(4).getMessage());
+        assertTrue(results.get(5).isSuccess());
+        assertEquals(100, results.get(1).getId());
+        verify(reservationRepository, times(1)).saveAll(argThat(reservations -> ((List<?>) reservations).size() == 3));
+        verify(reservationNightRepository, times(1)).saveAllAndFlush(any());
     }
 
     @Test
@@ -60,6 +190,48 @@ public class ReservationServiceTests {
         assertEquals(ReservationStatus.CONFIRMADA, updatedReservation.getStatus());
     }
 
+    @Test
+    public void testUpdateReservationWithMatchingVersion() {
+        ReservationDTO reservationDTO = new ReservationDTO("Maria", LocalDate.now(), LocalDate.now().plusDays(6), 2, ReservationStatus.CONFIRMADA);
+        Reservation existingReservation = new Reservation(1, "João", LocalDate.now(), LocalDate.now().plusDays(6), 3, ReservationStatus.PENDENTE);
+        existingReservation.setVersion(4);
+        when(reservationRepository.findById(1)).thenReturn(Optional.of(existingReservation));
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(existingReservation);
+
+        Reservation updatedReservation = reservationService.updateReservation(1, reservationDTO, 4);
+
+        assertEquals("Maria", updatedReservation.getNomeHospede());
+        verify(changeCounterRepository, times(1)).increment(Unit.DEFAULT_ID);
+    }
+
+    @Test
+    public void testMovingReservationBumpsCountersOfBothUnits() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        Reservation existingReservation = new Reservation(1, "João", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA);
+        when(reservationRepository.findById(1)).thenReturn(Optional.of(existingReservation));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        reservationService.updateReservation(1,
+                new ReservationDTO("João", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA, SUITE.getId()));
+
+        verify(changeCounterRepository, times(1)).increment(Unit.DEFAULT_ID);
+        verify(changeCounterRepository, times(1)).increment(SUITE.getId());
+    }
+
+    @Test
+    public void testUpdateReservationWithStaleVersion() {
+        ReservationDTO reservationDTO = new ReservationDTO("Maria", LocalDate.now(), LocalDate.now().plusDays(6), 2, ReservationStatus.CONFIRMADA);
+        Reservation existingReservation = new Reservation(1, "João", LocalDate.now(), LocalDate.now().plusDays(6), 3, ReservationStatus.PENDENTE);
+        existingReservation.setVersion(5);
+        when(reservationRepository.findById(1)).thenReturn(Optional.of(existingReservation));
+
+        assertThrows(ReservationVersionMismatchException.class, () -> reservationService.updateReservation(1, reservationDTO, 4));
+
+        verify(reservationRepository, never()).save(any(Reservation.class));
+        verify(changeCounterRepository, never()).increment(any());
+        assertEquals("João", existingReservation.getNomeHospede());
+    }
+
     @Test
     public void testUpdateReservationWithCancelledStatus() {
         Integer reservationId = 1;
@@ -75,17 +247,19 @@ public class ReservationServiceTests {
 
     @Test
     public void testGetAllReservations() {
-        List<Reservation> reservations = new ArrayList<>();
-        reservations.add(new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA));
-        reservations.add(new Reservation(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CONFIRMADA));
+        List<ReservationView> reservations = new ArrayList<>();
+        reservations.add(new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID));
+        reservations.add(new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID));
 
-        when(reservationRepository.findAll()).thenReturn(reservations);
+        when(reservationRepository.findFirstPage(PageRequest.of(0, 11))).thenReturn(reservations);
 
-        List<Reservation> result = reservationService.getAllReservations();
+        CursorPage<ReservationView> page = reservationService.getReservations(null, 10);
+        List<ReservationView> result = page.getContent();
 
+        assertNull(page.getNextCursor());
         assertEquals(2, result.size());
 
-        Reservation reservation1 = result.get(0);
+        ReservationView reservation1 = result.get(0);
         assertEquals(1, reservation1.getId());
         assertEquals("Joao", reservation1.getNomeHospede());
         assertEquals(LocalDate.now(), reservation1.getDataInicio());
@@ -93,7 +267,7 @@ public class ReservationServiceTests {
         assertEquals(2, reservation1.getQuantidadePessoas());
         assertEquals(ReservationStatus.CONFIRMADA, reservation1.getStatus());
 
-        Reservation reservation2 = result.get(1);
+        ReservationView reservation2 = result.get(1);
         assertEquals(2, reservation2.getId());
         assertEquals("Maria", reservation2.getNomeHospede());
         assertEquals(LocalDate.now().plusDays(4), reservation2.getDataInicio());
@@ -102,6 +276,23 @@ public class ReservationServiceTests {
         assertEquals(ReservationStatus.CONFIRMADA, reservation2.getStatus());
     }
 
+    @Test
+    public void testGetReservationsReturnsNextCursorWhenThereAreMoreRows() {
+        LocalDate start = LocalDate.now();
+        List<ReservationView> reservations = List.of(
+                new ReservationView(4, "Joao", start, start.plusDays(1), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID),
+                new ReservationView(5, "Maria", start.plusDays(2), start.plusDays(3), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID),
+                new ReservationView(6, "Ana", start.plusDays(4), start.plusDays(5), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID)
+        );
+        when(reservationRepository.findPageAfter(start.minusDays(1), 3, PageRequest.of(0, 3))).thenReturn(reservations);
+
+        CursorPage<ReservationView> page = reservationService.getReservations(new ReservationCursor(start.minusDays(1), 3), 2);
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(5, page.getNextCursor().getId());
+        assertEquals(start.plusDays(2), page.getNextCursor().getDataInicio());
+    }
+
     @Test
     public void testGetReservationByIdExistente() {
         Reservation reservation = new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA);
@@ -129,13 +320,14 @@ public class ReservationServiceTests {
 
     @Test
     public void testFindAllConfirmedReservations() {
-        List<Reservation> confirmedReservations = List.of(
-                new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA),
-                new Reservation(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CONFIRMADA)
+        List<ReservationView> confirmedReservations = List.of(
+                new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID),
+                new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID)
         );
-        when(reservationRepository.findAllConfirmed()).thenReturn(confirmedReservations);
+        when(reservationRepository.findByStatus(ReservationStatus.CONFIRMADA, PageRequest.of(0, 50, Sort.by("dataInicio", "id"))))
+                .thenReturn(new SliceImpl<>(confirmedReservations));
 
-        List<Reservation> result = reservationService.findAllConfirmedReservations();
+        List<ReservationView> result = reservationService.findReservationsByStatus(ReservationStatus.CONFIRMADA, null, null, 0, 50).getContent();
 
         assertEquals(2, result.size());
         assertEquals(ReservationStatus.CONFIRMADA, result.get(0).getStatus());
@@ -144,13 +336,14 @@ public class ReservationServiceTests {
 
     @Test
     public void testFindAllPendingReservations() {
-        List<Reservation> pendingReservations = List.of(
-                new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.PENDENTE),
-                new Reservation(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.PENDENTE)
+        List<ReservationView> pendingReservations = List.of(
+                new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.PENDENTE, Unit.DEFAULT_ID),
+                new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.PENDENTE, Unit.DEFAULT_ID)
         );
-        when(reservationRepository.findAllPending()).thenReturn(pendingReservations);
+        when(reservationRepository.findByStatus(ReservationStatus.PENDENTE, PageRequest.of(0, 50, Sort.by("dataInicio", "id"))))
+                .thenReturn(new SliceImpl<>(pendingReservations));
 
-        List<Reservation> result = reservationService.findAllPendingReservations();
+        List<ReservationView> result = reservationService.findReservationsByStatus(ReservationStatus.PENDENTE, null, null, 0, 50).getContent();
 
         assertEquals(2, result.size());
         assertEquals(ReservationStatus.PENDENTE, result.get(0).getStatus());
@@ -159,19 +352,39 @@ public class ReservationServiceTests {
 
     @Test
     public void testFindAllCancelledReservations() {
-        List<Reservation> cancelledReservations = List.of(
-                new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CANCELADA),
-                new Reservation(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CANCELADA)
+        List<ReservationView> cancelledReservations = List.of(
+                new ReservationView(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CANCELADA, Unit.DEFAULT_ID),
+                new ReservationView(2, "Maria", LocalDate.now().plusDays(4), LocalDate.now().plusDays(7), 4, ReservationStatus.CANCELADA, Unit.DEFAULT_ID)
         );
-        when(reservationRepository.findAllCancelled()).thenReturn(cancelledReservations);
+        when(reservationRepository.findByStatus(ReservationStatus.CANCELADA, PageRequest.of(0, 50, Sort.by("dataInicio", "id"))))
+                .thenReturn(new SliceImpl<>(cancelledReservations));
 
-        List<Reservation> result = reservationService.findAllCancelledReservations();
+        List<ReservationView> result = reservationService.findReservationsByStatus(ReservationStatus.CANCELADA, null, null, 0, 50).getContent();
 
         assertEquals(2, result.size());
         assertEquals(ReservationStatus.CANCELADA, result.get(0).getStatus());
         assertEquals(ReservationStatus.CANCELADA, result.get(1).getStatus());
     }
 
+    @Test
+    public void testFindReservationsByStatusWithDateWindow() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = LocalDate.now().plusDays(30);
+        Slice<ReservationView> slice = new SliceImpl<>(List.of(), PageRequest.of(2, 10), true);
+        when(reservationRepository.findByStatusStartingBetween(ReservationStatus.CANCELADA, from, to, PageRequest.of(2, 10, Sort.by("dataInicio", "id"))))
+                .thenReturn(slice);
+
+        Slice<ReservationView> result = reservationService.findReservationsByStatus(ReservationStatus.CANCELADA, from, to, 2, 10);
+
+        assertTrue(result.hasNext());
+        assertThrows(InvalidDateRangeException.class,
+                () -> reservationService.findReservationsByStatus(ReservationStatus.CANCELADA, to, from, 0, 10));
+
+        // Janela aberta de um lado: consulta própria, sem o outro limite
+        reservationService.findReservationsByStatus(ReservationStatus.CANCELADA, from, null, 0, 10);
+        verify(reservationRepository).findByStatusStartingFrom(ReservationStatus.CANCELADA, from, PageRequest.of(0, 10, Sort.by("dataInicio", "id")));
+    }
+
     @Test
     public void testCancelReservation() {
         Integer reservationId = 1;
@@ -185,6 +398,203 @@ public class ReservationServiceTests {
         assertNotNull(result);
         assertEquals(ReservationStatus.CANCELADA, result.getStatus());
         verify(reservationRepository, times(1)).save(result);
+        verify(reservationNightRepository, times(1)).deleteByReservationId(reservationId);
+        verify(changeCounterRepository, times(1)).increment(Unit.DEFAULT_ID);
+        verify(eventBroadcaster, times(1)).publish(eq(ReservationEventType.CANCELADA), argThat(view -> reservationId.equals(view.getId())));
+        verify(outbox, times(1)).record(ReservationEventType.CANCELADA, List.of(result));
+    }
+
+    @Test
+    public void testIsDateAvailableUsesIndexWhenReady() {
+        availabilityIndex.rebuild(List.of(), List.of(
+                new Reservation(1, "Joao", LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), 2, ReservationStatus.CONFIRMADA)
+        ));
+
+        when(reservationNightRepository.existsByUnidadeIdAndNightBetween(Unit.DEFAULT_ID, LocalDate.now().plusDays(12), LocalDate.now().plusDays(14)))
+                .thenReturn(true);
+
+        assertFalse(reservationService.isDateAvailable(LocalDate.now().plusDays(12), LocalDate.now().plusDays(14)));
+        assertTrue(reservationService.isDateAvailable(LocalDate.now().plusDays(13), LocalDate.now().plusDays(14)));
+        // Só o "ocupado" do índice é conferido nas noites
+        verify(reservationNightRepository, times(1)).existsByUnidadeIdAndNightBetween(any(), any(), any());
+        verify(reservationRepository, never()).existsByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusIn(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testStaleIndexIsConfirmedAndRefreshedFromDatabase() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        Reservation booked = new Reservation(1, "Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA);
+        when(reservationRepository.findAllByStatusIn(ReservationService.ACTIVE_STATUSES)).thenReturn(List.of(booked));
+        when(changeCounterRepository.findAll()).thenReturn(List.of(new ReservationChangeCounter(Unit.DEFAULT_ID, 5L)));
+        reservationService.loadAvailabilityIndex();
+        guestNameIndex.markReady();
+
+        // Outro nó cancelou a reserva 1 e criou a 2: o "ocupado" do índice é desmentido pelas noites
+        assertTrue(reservationService.isDateAvailable(start, start.plusDays(1)));
+        assertEquals(0, reservationService.refreshInMemoryIndexes());
+
+        // Só as reservas gravadas acima do contador visto (5) são relidas, inclusive a cancelada
+        Reservation cancelled = new Reservation(1, "Joao Silva", start, start.plusDays(2), 2, ReservationStatus.CANCELADA);
+        Reservation other = new Reservation(2, "Maria", start.plusDays(5), start.plusDays(6), 2, ReservationStatus.CONFIRMADA);
+        when(changeCounterRepository.findAll()).thenReturn(List.of(new ReservationChangeCounter(Unit.DEFAULT_ID, 7L)));
+        when(reservationRepository.findChangedSince(Unit.DEFAULT_ID, 5L)).thenReturn(List.of(cancelled, other));
+
+        assertEquals(1, reservationService.refreshInMemoryIndexes());
+        assertTrue(availabilityIndex.isAvailable(Unit.DEFAULT_ID, start, start.plusDays(2)));
+        assertFalse(availabilityIndex.isAvailable(Unit.DEFAULT_ID, start.plusDays(5), start.plusDays(5)));
+        assertEquals(List.of(2), guestNameIndex.search("maria", 10));
+        assertEquals(List.of(1), guestNameIndex.search("silva", 10));
+        assertEquals(0, reservationService.refreshInMemoryIndexes());
+        verify(reservationRepository, never()).findAllByUnidadeIdInAndStatusIn(any(), any());
+
+        // Unidade criada em outro nó, ainda sem contador visto: carregada inteira
+        Reservation inSuite = new Reservation(3, "Ana", start, start, 2, ReservationStatus.CONFIRMADA);
+        inSuite.setUnidadeId(SUITE.getId());
+        when(changeCounterRepository.findAll()).thenReturn(List.of(new ReservationChangeCounter(Unit.DEFAULT_ID, 7L),
+                new ReservationChangeCounter(SUITE.getId(), 1L)));
+        when(reservationRepository.findAllByUnidadeIdInAndStatusIn(List.of(SUITE.getId()), ReservationService.ACTIVE_STATUSES))
+                .thenReturn(List.of(inSuite));
+
+        assertEquals(1, reservationService.refreshInMemoryIndexes());
+        assertFalse(availabilityIndex.isAvailable(SUITE.getId(), start, start));
+    }
+
+    @Test
+    public void testIsDateAvailableFallsBackToSingleExistsQuery() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        LocalDate end = LocalDate.now().plusDays(3);
+        when(reservationRepository.existsByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusIn(Unit.DEFAULT_ID, end, start, ReservationService.ACTIVE_STATUSES))
+                .thenReturn(true);
+
+        assertFalse(reservationService.isDateAvailable(start, end));
+        verify(reservationRepository, times(1)).existsByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusIn(Unit.DEFAULT_ID, end, start, ReservationService.ACTIVE_STATUSES);
+    }
+
+    @Test
+    public void testCancelReservationReleasesDatesInIndex() {
+        Reservation reservation = new Reservation(1, "Joao", LocalDate.now(), LocalDate.now().plusDays(3), 2, ReservationStatus.CONFIRMADA);
+        availabilityIndex.rebuild(List.of(), List.of(reservation));
+        when(reservationRepository.findById(1)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
+
+        assertFalse(availabilityIndex.isAvailable(Unit.DEFAULT_ID, LocalDate.now(), LocalDate.now().plusDays(3)));
+
+        reservationService.cancelReservation(1);
+
+        assertTrue(availabilityIndex.isAvailable(Unit.DEFAULT_ID, LocalDate.now(), LocalDate.now().plusDays(3)));
+    }
+
+    @Test
+    public void testAvailabilityCalendarFromIndexSkipsDatabase() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        availabilityIndex.rebuild(List.of(), List.of(
+                new Reservation(1, "Joao", from.plusDays(2), from.plusDays(4), 2, ReservationStatus.CONFIRMADA)
+        ));
+
+        AvailabilityCalendarDTO calendar = reservationService.getAvailabilityCalendar(from, from.plusDays(9));
+
+        assertEquals(1, calendar.getOcupados().size());
+        assertEquals(from.plusDays(2), calendar.getOcupados().get(0).getDataInicio());
+        assertEquals(2, calendar.getLivres().size());
+        assertEquals(from, calendar.getLivres().get(0).getDataInicio());
+        assertEquals(from.plusDays(1), calendar.getLivres().get(0).getDataFim());
+        assertEquals(from.plusDays(5), calendar.getLivres().get(1).getDataInicio());
+        assertEquals(from.plusDays(9), calendar.getLivres().get(1).getDataFim());
+        verifyNoInteractions(reservationRepository);
     }
 
+    @Test
+    public void testAvailabilityCalendarFallsBackToDatabaseBeforeIndexLoads() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(9);
+        when(reservationRepository.findAllByUnidadeIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqualAndStatusInOrderByDataInicio(
+                Unit.DEFAULT_ID, to, from, ReservationService.ACTIVE_STATUSES)).thenReturn(List.of(
+                new Reservation(1, "Joao", from.minusDays(3), from.plusDays(1), 2, ReservationStatus.CONFIRMADA),
+                new Reservation(2, "Maria", from.plusDays(2), from.plusDays(3), 2, ReservationStatus.PENDENTE),
+                new Reservation(3, "Ana", from.plusDays(8), from.plusDays(20), 2, ReservationStatus.CONFIRMADA)
+        ));
+
+        AvailabilityCalendarDTO calendar = reservationService.getAvailabilityCalendar(from, to);
+
+        assertEquals(2, calendar.getOcupados().size());
+        assertEquals(from, calendar.getOcupados().get(0).getDataInicio());
+        assertEquals(from.plusDays(3), calendar.getOcupados().get(0).getDataFim());
+        assertEquals(to, calendar.getOcupados().get(1).getDataFim());
+        assertEquals(1, calendar.getLivres().size());
+        assertEquals(from.plusDays(4), calendar.getLivres().get(0).getDataInicio());
+        assertEquals(from.plusDays(7), calendar.getLivres().get(0).getDataFim());
+    }
+
+    @Test
+    public void testAvailabilityCalendarRejectsTooLongWindow() {
+        LocalDate from = LocalDate.now();
+
+        assertThrows(InvalidDateRangeException.class,
+                () -> reservationService.getAvailabilityCalendar(from, from.plusDays(ReservationService.MAX_CALENDAR_DAYS)));
+        assertThrows(InvalidDateRangeException.class,
+                () -> reservationService.getAvailabilityCalendar(from, from.minusDays(1)));
+    }
+
+    @Test
+    public void testDatesBeyondTheBookingHorizonAreRejected() {
+        LocalDate start = LocalDate.now().plusYears(5).plusDays(1);
+        ReservationDTO reservationDTO = new ReservationDTO("Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA);
+
+        assertThrows(InvalidDateRangeException.class, () -> reservationService.createReservation(reservationDTO));
+        assertThrows(InvalidDateRangeException.class,
+                () -> reservationService.getAvailabilityCalendar(start.minusDays(10), start));
+        assertFalse(reservationService.importReservations(List.of(reservationDTO)).get(0).isSuccess());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    public void testCreateReservationRejectsTooLongStay() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        ReservationDTO reservationDTO = new ReservationDTO("Joao", start, start.plusDays(ReservationService.MAX_STAY_NIGHTS), 2, ReservationStatus.CONFIRMADA);
+
+        assertThrows(InvalidDateRangeException.class, () -> reservationService.createReservation(reservationDTO));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    public void testGroupLargerThanUnitCapacityIsRejected() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        ReservationDTO tooMany = new ReservationDTO("Joao", start, start.plusDays(2), 3, ReservationStatus.CONFIRMADA, SUITE.getId());
+
+        assertThrows(InvalidUnitException.class, () -> reservationService.createReservation(tooMany));
+
+        List<BatchReservationResult> results = reservationService.importReservations(List.of(tooMany));
+        assertEquals("A unidade 7 comporta no máximo 2 pessoas.", results.get(0).getMessage());
+
+        Reservation existing = new Reservation(1, "Joao", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA);
+        existing.setUnidadeId(SUITE.getId());
+        when(reservationRepository.findById(1)).thenReturn(Optional.of(existing));
+        assertThrows(InvalidUnitException.class, () -> reservationService.updateReservation(1,
+                new ReservationDTO("Joao", start, start.plusDays(2), 3, ReservationStatus.CONFIRMADA)));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    public void testSearchByGuestNameKeepsIndexOrderAndFollowsRenames() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        guestNameIndex.load(1, "João da Silva");
+        guestNameIndex.load(2, "Maria Santos");
+        guestNameIndex.markReady();
+        Reservation renamed = new Reservation(2, "Maria Santos", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA);
+        when(reservationRepository.findById(2)).thenReturn(Optional.of(renamed));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationRepository.findViewsByIdIn(any())).thenAnswer(invocation -> Stream.of(
+                new ReservationView(1, "João da Silva", start, start, 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID),
+                new ReservationView(2, "Joana Souza", start, start, 2, ReservationStatus.CONFIRMADA, Unit.DEFAULT_ID))
+                .filter(view -> ((List<?>) invocation.getArgument(0)).contains(view.getId()))
+                .toList());
+
+        assertEquals(List.of(1), reservationService.searchByGuestName("JOA", 10).stream().map(ReservationView::getId).toList());
+
+        reservationService.updateReservation(2, new ReservationDTO("Joana Souza", start, start.plusDays(2), 2, ReservationStatus.CONFIRMADA));
+
+        assertEquals(List.of(2, 1), reservationService.searchByGuestName("joa", 10).stream().map(ReservationView::getId).toList());
+        assertTrue(reservationService.searchByGuestName("santos", 10).isEmpty());
+        assertThrows(InvalidSearchQueryException.class, () -> reservationService.searchByGuestName(" ã ", 10));
+    }
 }
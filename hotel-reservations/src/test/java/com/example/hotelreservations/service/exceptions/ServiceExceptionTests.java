@@ -72,4 +72,43 @@ public class ServiceExceptionTests {
         assertEquals(message, exception2.getMessage());
         assertEquals(cause, exception2.getCause());
     }
+
+    @Test
+    public void testInvalidCursorException() {
+        String message = "Invalid cursor.";
+        Throwable cause = new RuntimeException("Cause");
+
+        InvalidCursorException exception1 = new InvalidCursorException(message);
+        InvalidCursorException exception2 = new InvalidCursorException(message, cause);
+
+        assertEquals(message, exception1.getMessage());
+        assertEquals(message, exception2.getMessage());
+        assertEquals(cause, exception2.getCause());
+    }
+
+    @Test
+    public void testIdempotencyKeyInProgressException() {
+        String message = "Request in progress.";
+        Throwable cause = new RuntimeException("Cause");
+
+        IdempotencyKeyInProgressException exception1 = new IdempotencyKeyInProgressException(message);
+        IdempotencyKeyInProgressException exception2 = new IdempotencyKeyInProgressException(message, cause);
+
+        assertEquals(message, exception1.getMessage());
+        assertEquals(message, exception2.getMessage());
+        assertEquals(cause, exception2.getCause());
+    }
+
+    @Test
+    public void testIdempotencyKeyReusedException() {
+        String message = "Idempotency key reused.";
+        Throwable cause = new RuntimeException("Cause");
+
+        IdempotencyKeyReusedException exception1 = new IdempotencyKeyReusedException(message);
+        IdempotencyKeyReusedException exception2 = new IdempotencyKeyReusedException(message, cause);
+
+        assertEquals(message, exception1.getMessage());
+        assertEquals(message, exception2.getMessage());
+        assertEquals(cause, exception2.getCause());
+    }
 }